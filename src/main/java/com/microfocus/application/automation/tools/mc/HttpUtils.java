@@ -102,20 +102,44 @@ public class HttpUtils {
 
 
         int responseCode = connection.getResponseCode();
+        response.setResponseCode(responseCode);
 
+        // the body is always read to the end and the connection is not disconnected,
+        // so the underlying socket goes back to the keep-alive pool for the next call
         if (responseCode == HttpURLConnection.HTTP_OK) {
-            InputStream inputStream = connection.getInputStream();
-            JSONObject jsonObject = convertStreamToJSONObject(inputStream);
-            Map<String, List<String>> headerFields = connection.getHeaderFields();
-            response.setHeaders(headerFields);
-            response.setJsonObject(jsonObject);
+            try (InputStream inputStream = connection.getInputStream()) {
+                JSONObject jsonObject = convertStreamToJSONObject(inputStream);
+                Map<String, List<String>> headerFields = connection.getHeaderFields();
+                response.setHeaders(headerFields);
+                response.setJsonObject(jsonObject);
+            }
+        } else {
+            discard(connection.getErrorStream());
         }
 
-        connection.disconnect();
-
         return response;
     }
 
+    private static void discard(InputStream inputStream) {
+        if (inputStream == null) {
+            return;
+        }
+        try {
+            byte[] buffer = new byte[4096];
+            while (inputStream.read(buffer) != -1) {
+                // drain
+            }
+        } catch (IOException e) {
+            // the connection will simply not be reused
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
     private static URLConnection openConnection(final ProxyInfo proxyInfo, URL _url) throws IOException {
 
         Proxy proxy = null;
@@ -36,6 +36,9 @@ import net.minidev.json.JSONValue;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.net.HttpCookie;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -48,10 +51,12 @@ public class JobConfigurationProxy {
 
     private static JobConfigurationProxy instance = null;
 
+    private final McSessionCache sessions = new McSessionCache();
+
     private JobConfigurationProxy() {
     }
 
-    public static JobConfigurationProxy getInstance(){
+    public static synchronized JobConfigurationProxy getInstance(){
         if(instance == null){
             instance = new JobConfigurationProxy();
         }
@@ -84,23 +89,18 @@ public class JobConfigurationProxy {
                 if (hp4mSecretList != null && hp4mSecretList.size() != 0) {
                     hp4mSecret = hp4mSecretList.get(0);
                 }
+                String jsessionId = null;
+                String tenantId = null;
                 List<String> setCookieList = headerFields.get(Constants.SET_COOKIE);
-                String setCookie = null;
-                String tenantCookie = null;
-                if (setCookieList != null && setCookieList.size() != 0) {
-                    setCookie = setCookieList.get(0);
-                    for(String str : setCookieList){
-                        if(str.contains(Constants.JSESSIONID) && str.startsWith(Constants.JSESSIONID)){
-                            setCookie = str;
-                            continue;
-                        }else if(str.contains(Constants.TENANT_COOKIE) && str.startsWith(Constants.TENANT_COOKIE)){
-                            tenantCookie = str;
-                            continue;
+                if (setCookieList != null) {
+                    for (HttpCookie cookie : parseCookies(setCookieList)) {
+                        if (Constants.JSESSIONID.equals(cookie.getName())) {
+                            jsessionId = cookie.getValue();
+                        } else if (Constants.TENANT_COOKIE.equals(cookie.getName())) {
+                            tenantId = cookie.getValue();
                         }
                     }
                 }
-                String jsessionId = getCookieValue(setCookie, Constants.JSESSIONID);
-                String tenantId = getCookieValue(tenantCookie, Constants.TENANT_COOKIE);
                 returnObject.put(Constants.JSESSIONID, jsessionId);
                 returnObject.put(Constants.TENANT_COOKIE, tenantId);
                 returnObject.put(Constants.LOGIN_SECRET, hp4mSecret);
@@ -122,10 +122,8 @@ public class JobConfigurationProxy {
                              String proxyAddress, String proxyUsername, String proxyPassword, String appPath) throws Exception {
 
         JSONObject json = null;
-        String hp4mSecret = null;
-        String jsessionId = null;
 
-        File appFile = new File(appPath);
+        final File appFile = new File(appPath);
 
         String uploadUrl = mcUrl + Constants.APP_UPLOAD;
 
@@ -148,24 +146,17 @@ public class JobConfigurationProxy {
 
         outputStream.write(("\r\n------" + Constants.BOUNDARYSTR + "--\r\n").getBytes());
 
-        byte[] bytes = outputStream.toByteArray();
+        final byte[] bytes = outputStream.toByteArray();
 
         outputStream.close();
 
-        JSONObject loginJson = loginToMC(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword);
-
-        if (loginJson != null) {
-            hp4mSecret = (String) loginJson.get(Constants.LOGIN_SECRET);
-            jsessionId = (String) loginJson.get(Constants.JSESSIONID);
-        }
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(Constants.LOGIN_SECRET, hp4mSecret);
-        headers.put(Constants.COOKIE, Constants.JESEEIONEQ + jsessionId);
-        headers.put(Constants.CONTENT_TYPE, Constants.CONTENT_TYPE_DOWNLOAD_VALUE + Constants.BOUNDARYSTR);
-        headers.put(Constants.FILENAME, appFile.getName());
-
-        HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxyAddress, proxyUsername, proxyPassword);
-        HttpResponse response = HttpUtils.post(proxyInfo, uploadUrl, headers, bytes);
+        final HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxyAddress, proxyUsername, proxyPassword);
+        HttpResponse response = callWithSession(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword,
+                headers -> {
+                    headers.put(Constants.CONTENT_TYPE, Constants.CONTENT_TYPE_DOWNLOAD_VALUE + Constants.BOUNDARYSTR);
+                    headers.put(Constants.FILENAME, appFile.getName());
+                    return HttpUtils.post(proxyInfo, uploadUrl, headers, bytes);
+                });
 
         if (response != null && response.getJsonObject() != null) {
             json = response.getJsonObject();
@@ -177,68 +168,34 @@ public class JobConfigurationProxy {
     public String createTempJob(String mcUrl, String mcUserName, String mcPassword, String mcTenantId, String proxyAddress, String proxyUserName, String proxyPassword) {
         JSONObject job = null;
         String jobId = null;
-        String hp4mSecret = null;
-        String jsessionId = null;
 
-        String loginJson = loginToMC(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUserName, proxyPassword).toJSONString();
         try {
-            if (loginJson != null) {
-                JSONObject jsonObject = (JSONObject) JSONValue.parseStrict(loginJson);
-                hp4mSecret = (String) jsonObject.get(Constants.LOGIN_SECRET);
-                jsessionId = (String) jsonObject.get(Constants.JSESSIONID);
+            final HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxyAddress, proxyUserName, proxyPassword);
+            HttpResponse response = callWithSession(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUserName, proxyPassword,
+                    headers -> HttpUtils.get(proxyInfo, mcUrl + Constants.CREATE_JOB_URL, headers, null));
+
+            if (response != null && response.getJsonObject() != null) {
+                job = response.getJsonObject();
+                if(job != null && job.get("data") != null){
+                    JSONObject data = (JSONObject)job.get("data");
+                    jobId = data.getAsString("id");
+                }
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-
-        boolean isValid = argumentsCheck(hp4mSecret, jsessionId);
-
-        if (isValid) {
-            try {
-                Map<String, String> headers = new HashMap<String, String>();
-                headers.put(Constants.LOGIN_SECRET, hp4mSecret);
-                headers.put(Constants.COOKIE, Constants.JESEEIONEQ + jsessionId);
-                HttpResponse response = HttpUtils.get(HttpUtils.setProxyCfg(proxyAddress,proxyUserName,proxyPassword), mcUrl + Constants.CREATE_JOB_URL, headers, null);
-
-                if (response != null && response.getJsonObject() != null) {
-                    job = response.getJsonObject();
-                    if(job != null && job.get("data") != null){
-                        JSONObject data = (JSONObject)job.get("data");
-                        jobId = data.getAsString("id");
-                    }
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
         return jobId;
     }
 
     //get one job by id
     public JSONObject getJobById(String mcUrl, String mcUserName, String mcPassword, String mcTenantId, String proxyAddress, String proxyUsername, String proxyPassword, String jobUUID) {
         JSONObject jobJsonObject = null;
-        String hp4mSecret = null;
-        String jsessionId = null;
-
-        String loginJson = loginToMC(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword).toJSONString();
-        try {
-            if (loginJson != null) {
-                JSONObject jsonObject = (JSONObject) JSONValue.parseStrict(loginJson);
-                hp4mSecret = (String) jsonObject.get(Constants.LOGIN_SECRET);
-                jsessionId = (String) jsonObject.get(Constants.JSESSIONID);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
 
-        boolean b = argumentsCheck(jobUUID, hp4mSecret, jsessionId);
-
-        if (b) {
+        if (argumentsCheck(jobUUID)) {
             try {
-                Map<String, String> headers = new HashMap<String, String>();
-                headers.put(Constants.LOGIN_SECRET, hp4mSecret);
-                headers.put(Constants.COOKIE, Constants.JESEEIONEQ + jsessionId);
-                HttpResponse response = HttpUtils.get(HttpUtils.setProxyCfg(proxyAddress, proxyUsername, proxyPassword), mcUrl + Constants.GET_JOB_UEL + jobUUID, headers, null);
+                final HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxyAddress, proxyUsername, proxyPassword);
+                HttpResponse response = callWithSession(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword,
+                        headers -> HttpUtils.get(proxyInfo, mcUrl + Constants.GET_JOB_UEL + jobUUID, headers, null));
 
                 if (response != null && response.getJsonObject() != null) {
                     jobJsonObject = response.getJsonObject();
@@ -399,20 +356,57 @@ public class JobConfigurationProxy {
         return jsonObject;
     }
 
-    private String getCookieValue(String setCookie, String cookieName) {
-        if(StringUtils.isNullOrEmpty(setCookie)){
+    private interface SessionCall {
+        HttpResponse call(Map<String, String> headers);
+    }
+
+    /**
+     * Runs the call with the cached MC session of the user, logging in only when there is none.
+     * A call rejected with 401 means the session expired on the server: it is dropped and the call
+     * is repeated once with a fresh login.
+     */
+    private HttpResponse callWithSession(final String mcUrl, final String mcUserName, final String mcPassword, final String mcTenantId,
+                                         final String proxyAddress, final String proxyUsername, final String proxyPassword, SessionCall call) {
+        String key = McSessionCache.key(mcUrl, mcTenantId, mcUserName, mcPassword, proxyAddress);
+        HttpResponse response = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            McSessionCache.Session session = sessions.get(key,
+                    () -> openSession(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword));
+            if (session == null) {
+                return null;
+            }
+            Map<String, String> headers = new HashMap<String, String>();
+            session.addHeaders(headers);
+            response = call.call(headers);
+            if (response == null || response.getResponseCode() != HttpURLConnection.HTTP_UNAUTHORIZED) {
+                return response;
+            }
+            sessions.invalidate(key, session);
+        }
+        return response;
+    }
+
+    private McSessionCache.Session openSession(String mcUrl, String mcUserName, String mcPassword, String mcTenantId,
+                                               String proxyAddress, String proxyUsername, String proxyPassword) {
+        JSONObject loginJson = loginToMC(mcUrl, mcUserName, mcPassword, mcTenantId, proxyAddress, proxyUsername, proxyPassword);
+        String hp4mSecret = (String) loginJson.get(Constants.LOGIN_SECRET);
+        String jsessionId = (String) loginJson.get(Constants.JSESSIONID);
+        if (!argumentsCheck(hp4mSecret, jsessionId)) {
             return null;
         }
-        String id = null;
-        String[] cookies = setCookie.split(Constants.SPLIT_COMMA);
-        for (int i = 0; i < cookies.length; i++) {
-            if (cookies[i].contains(cookieName)) {
-                int index = cookies[i].indexOf(Constants.EQUAL);
-                id = cookies[i].substring(index + 1);
-                break;
+        return new McSessionCache.Session(hp4mSecret, jsessionId);
+    }
+
+    private List<HttpCookie> parseCookies(List<String> setCookieHeaders) {
+        List<HttpCookie> cookies = new ArrayList<HttpCookie>();
+        for (String header : setCookieHeaders) {
+            try {
+                cookies.addAll(HttpCookie.parse(header));
+            } catch (IllegalArgumentException e) {
+                // not a cookie we can use
             }
         }
-        return id;
+        return cookies;
     }
 
     private boolean argumentsCheck(String... args) {
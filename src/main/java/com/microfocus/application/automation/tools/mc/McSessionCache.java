@@ -0,0 +1,164 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.mc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one MC login session per server, tenant and user, so the job configuration calls
+ * reuse it instead of logging in for every request. Concurrent callers wait for a single login;
+ * failed logins are not kept, and a session is dropped once it gets old or is rejected by the server.
+ */
+final class McSessionCache {
+
+    private static final Logger LOG = Logger.getLogger(McSessionCache.class.getName());
+
+    private static final long MAX_AGE_MILLIS = Long.getLong("McSessionCache.MaxAgeMillis", TimeUnit.MINUTES.toMillis(20));
+
+    interface Login {
+        Session login();
+    }
+
+    private final long maxAgeMillis;
+    private final ConcurrentMap<String, FutureTask<Session>> sessions = new ConcurrentHashMap<>();
+
+    McSessionCache() {
+        this(MAX_AGE_MILLIS);
+    }
+
+    McSessionCache(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    static String key(String mcUrl, String mcTenantId, String mcUserName, String mcPassword, String proxyAddress) {
+        // the password is part of the key so a wrong password never gets a session opened with the right one
+        return mcUrl + "|" + mcTenantId + "|" + mcUserName + "|" + digest(mcPassword) + "|" + proxyAddress;
+    }
+
+    /**
+     * Returns the session for the key, logging in when there is none or it expired.
+     * @return the session, or null if the login failed
+     */
+    Session get(String key, final Login login) {
+        while (true) {
+            FutureTask<Session> task = sessions.get(key);
+            // only a session that was already there when the call came may be expired,
+            // one this call logged in or waited for is always used
+            boolean cached = task != null && task.isDone();
+            if (task == null) {
+                FutureTask<Session> created = new FutureTask<>(login::login);
+                task = sessions.putIfAbsent(key, created);
+                if (task == null) {
+                    task = created;
+                    created.run();
+                }
+            }
+            Session session;
+            try {
+                session = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                LOG.log(Level.WARNING, "MC login failed", e.getCause());
+                session = null;
+            }
+            if (session == null) {
+                sessions.remove(key, task);
+                return null;
+            }
+            if (cached && System.currentTimeMillis() - session.createdAt >= maxAgeMillis) {
+                sessions.remove(key, task);
+                continue;
+            }
+            return session;
+        }
+    }
+
+    /**
+     * Drops the session if it is still the one kept for the key, e.g. after the server answered 401.
+     */
+    void invalidate(String key, Session session) {
+        FutureTask<Session> task = sessions.get(key);
+        if (task == null || !task.isDone()) {
+            return;
+        }
+        try {
+            if (task.get() == session) {
+                sessions.remove(key, task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            sessions.remove(key, task);
+        }
+    }
+
+    private static String digest(String value) {
+        if (value == null) {
+            return "";
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Session {
+        private final String hp4mSecret;
+        private final String jsessionId;
+        private final long createdAt = System.currentTimeMillis();
+
+        Session(String hp4mSecret, String jsessionId) {
+            this.hp4mSecret = hp4mSecret;
+            this.jsessionId = jsessionId;
+        }
+
+        void addHeaders(Map<String, String> headers) {
+            headers.put(Constants.LOGIN_SECRET, hp4mSecret);
+            headers.put(Constants.COOKIE, Constants.JESEEIONEQ + jsessionId);
+        }
+    }
+}
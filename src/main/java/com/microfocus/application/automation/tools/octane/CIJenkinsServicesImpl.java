@@ -60,6 +60,7 @@ import com.hp.octane.integrations.services.configurationparameters.UftTestRunner
 import com.hp.octane.integrations.services.configurationparameters.factory.ConfigurationParameterFactory;
 import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
 import com.microfocus.application.automation.tools.octane.configuration.*;
+import com.microfocus.application.automation.tools.octane.events.BuildLogHelper;
 import com.microfocus.application.automation.tools.octane.executor.ExecutorConnectivityService;
 import com.microfocus.application.automation.tools.octane.executor.TestExecutionJobCreatorService;
 import com.microfocus.application.automation.tools.octane.executor.UftJobRecognizer;
@@ -73,12 +74,10 @@ import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import com.microfocus.application.automation.tools.octane.tests.junit.JUnitExtension;
 import hudson.ProxyConfiguration;
-import hudson.console.PlainTextConsoleOutputStream;
 import hudson.matrix.MatrixConfiguration;
 import hudson.maven.MavenModule;
 import hudson.model.*;
 import hudson.security.ACLContext;
-import hudson.util.IOUtils;
 import jenkins.model.Jenkins;
 import org.acegisecurity.AccessDeniedException;
 import org.apache.commons.fileupload.FileItem;
@@ -347,7 +346,7 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 			InputStream result = null;
 			Run run = getRunByRefNames(jobId, buildId);
 			if (run != null) {
-				result = getOctaneLogFile(run);
+				result = getOctaneLog(run);
 			} else {
 				logger.error("build '" + jobId + " #" + buildId + "' not found");
 			}
@@ -610,26 +609,13 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 				.setName(name);
 	}
 
-	private InputStream getOctaneLogFile(Run run) {
-		InputStream result = null;
-		String octaneLogFilePath = run.getRootDir() + File.separator + "octane_log";
-		File logFile = new File(octaneLogFilePath);
-		if (!logFile.exists()) {
-			try (FileOutputStream fileOutputStream = new FileOutputStream(logFile);
-			    InputStream logStream = run.getLogInputStream();
-			    PlainTextConsoleOutputStream out = new PlainTextConsoleOutputStream(fileOutputStream)) {
-				IOUtils.copy(logStream, out);
-				out.flush();
-			} catch (IOException ioe) {
-				logger.error("failed to transfer native log to Octane's one for " + run);
-			}
-		}
+	private InputStream getOctaneLog(Run run) {
 		try {
-			result = new FileInputStream(octaneLogFilePath);
+			return BuildLogHelper.getPlainTextLog(run);
 		} catch (IOException ioe) {
-			logger.error("failed to obtain log for " + run);
+			logger.error("failed to obtain log for " + run, ioe);
+			return null;
 		}
-		return result;
 	}
 
 	private Run getRunByRefNames(String jobId, String buildId) {
@@ -138,10 +138,12 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
 	private boolean enqueueReports(Run build, List<String> reportFileNames, CoverageReportType coverageReportType){
 		if (!reportFileNames.isEmpty()) {
 			String parents = BuildHandlerUtils.getRootJobCiIds(build);
+			String jobCiId = BuildHandlerUtils.getJobCiId(build);
+			String buildNumber = String.valueOf(build.getNumber());
 			OctaneSDK.getClients().forEach(octaneClient-> {
 				for (String reportFileName : reportFileNames) {
 					octaneClient.getCoverageService()
-							.enqueuePushCoverage(BuildHandlerUtils.getJobCiId(build), String.valueOf(build.getNumber()), coverageReportType, reportFileName, parents);
+							.enqueuePushCoverage(jobCiId, buildNumber, coverageReportType, reportFileName, parents);
 				}
 			});
 			return true;
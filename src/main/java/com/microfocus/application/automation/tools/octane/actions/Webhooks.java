@@ -42,7 +42,10 @@ import hudson.model.Item;
 import hudson.model.Job;
 import hudson.model.Run;
 import hudson.model.UnprotectedRootAction;
+import hudson.security.ACL;
 import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import net.minidev.json.JSONObject;
@@ -55,7 +58,10 @@ import org.kohsuke.stapler.interceptor.RequirePOST;
 
 import java.io.*;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
 
 /**
  * Created with IntelliJ IDEA.
@@ -80,11 +86,24 @@ public class Webhooks implements UnprotectedRootAction {
     // json parameter names
     private final String PROJECT = "project";
     private final String SONAR_PROJECT_KEY_NAME = "key";
-    private final String IS_EXPECTING_FILE_NAME = "is_expecting.txt";
+    private static final String IS_EXPECTING_FILE_NAME = "is_expecting.txt";
     private final String JOB_NAME_PARAM_NAME = "sonar.analysis.jobName";
     private final String BUILD_NUMBER_PARAM_NAME = "sonar.analysis.buildNumber";
     private static final String PROJECT_KEY_HEADER = "X-SonarQube-Project";
 
+    // webhooks are acknowledged immediately and handled in background, each (job, build, project key) only once
+    private static final int WEBHOOKS_DISPATCHER_THREADS = 2;
+    private static final int WEBHOOKS_QUEUE_CAPACITY = 500;
+    private static final Object IS_EXPECTING_FILE_LOCK = new Object();
+    private static final Set<String> notificationsInProgress = ConcurrentHashMap.newKeySet();
+    private static final ThreadPoolExecutor webhooksDispatcher = new ThreadPoolExecutor(WEBHOOKS_DISPATCHER_THREADS, WEBHOOKS_DISPATCHER_THREADS,
+            60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(WEBHOOKS_QUEUE_CAPACITY),
+            new NamingThreadFactory(new DaemonThreadFactory(), "Octane sonarqube webhooks"));
+
+    static {
+        webhooksDispatcher.allowCoreThreadTimeOut(true);
+    }
+
     public String getIconFileName() {
         return null;
     }
@@ -106,9 +125,10 @@ public class Webhooks implements UnprotectedRootAction {
 
         ExtensionList<GlobalConfiguration> allConfigurations = GlobalConfiguration.all();
         GlobalConfiguration sonarConfiguration = allConfigurations.getDynamic(SonarHelper.SONAR_GLOBAL_CONFIG);
+        String projectKeyHeader = req.getHeader(PROJECT_KEY_HEADER);
 
         // without build context, could not send octane relevant data
-        if (sonarConfiguration != null && !req.getHeader(PROJECT_KEY_HEADER).isEmpty() && properties instanceof Map) {
+        if (sonarConfiguration != null && projectKeyHeader != null && !projectKeyHeader.isEmpty() && properties instanceof Map) {
             // get relevant parameters
             Map sonarAttachedProperties = (Map) properties;
             // filter notifications from sonar projects, who haven't configured listener parameters
@@ -125,72 +145,112 @@ public class Webhooks implements UnprotectedRootAction {
                 }
                 logger.warn(String.format("Got sonarqube webhook for : %s #%s", jobName, buildIdStr));
 
-                Run run = null;
-                for (OctaneClient octaneClient : OctaneSDK.getClients()) {
-                    try {
-                        if (octaneClient.getConfigurationService().getConfiguration().isDisabled()) {
-                            continue;
-                        }
-                        Job jenkinsJob = getJob(octaneClient, jobName);
-                        if (jenkinsJob == null) {
-                            continue;
-                        }
-                        run = jenkinsJob.getBuildByNumber(buildId);
-                        if (run == null) {
-                            logger.warn("Got request from sonarqube webhook listener, but build " + buildIdStr + " context could not be resolved");
-                            res.setStatus(HttpStatus.SC_NOT_ACCEPTABLE);
-                            return;
-                        }
-                        if (!isRunExpectingToGetWebhookCall(run) || isRunAlreadyGotWebhookCall(run)) {
-                            return;
-                        }
-
-                        //enqueue coverage and vulnerabilities
-                        WebhookAction action = run.getAction(WebhookAction.class);
-                        String parents = BuildHandlerUtils.getRootJobCiIds(run);
-                        String sonarToken = SonarHelper.getSonarInstallationTokenByUrl(sonarConfiguration, action.getServerUrl(), run);
-                        HashMap project = (HashMap) inputNotification.get(PROJECT);
-                        String sonarProjectKey = (String) project.get(SONAR_PROJECT_KEY_NAME);
-                        String ciJobId = BuildHandlerUtils.translateFolderJobName(jobName);
-
-                        if (action.getDataTypeSet().contains(SonarHelper.DataType.COVERAGE)) {
-                            // use SDK to fetch and push data
-                            octaneClient.getSonarService().enqueueFetchAndPushSonarCoverage(ciJobId, buildIdStr, sonarProjectKey, action.getServerUrl(), sonarToken, parents);
-                        }
-                        if (action.getDataTypeSet().contains(SonarHelper.DataType.VULNERABILITIES)) {
-                            Map<String, String> additionalProperties = new HashMap<>();
-                            additionalProperties.put(PROJECT_KEY_KEY, sonarProjectKey);
-                            additionalProperties.put(SONAR_URL_KEY, action.getServerUrl());
-                            additionalProperties.put(SONAR_TOKEN_KEY, sonarToken);
-                            additionalProperties.put(REMOTE_TAG_KEY, sonarProjectKey);
-                            octaneClient.getVulnerabilitiesService().enqueueRetrieveAndPushVulnerabilities(ciJobId, buildIdStr, ToolType.SONAR, run.getStartTimeInMillis(),
-                                    VulnerabilitiesUtils.getFortifyTimeoutHours(octaneClient.getInstanceId()), additionalProperties, parents);
-
-                        }
-                        res.setStatus(HttpStatus.SC_OK); // sonar should get positive feedback for webhook
-                    } catch (Exception e) {
-                        logger.error("exception occurred while trying to enqueue fetchAndPush task to octane, clientId: " + octaneClient.getInstanceId() + "" +
-                                ", jobName: " + jobName + ", build: " + buildIdStr + ",", e);
-                    }
+                HashMap project = (HashMap) inputNotification.get(PROJECT);
+                String sonarProjectKey = (String) project.get(SONAR_PROJECT_KEY_NAME);
+                String notificationKey = jobName + "#" + buildId + "#" + sonarProjectKey;
+                // sonar should get positive feedback for webhook, unless it has to retry later
+                res.setStatus(dispatch(webhooksDispatcher, notificationKey,
+                        () -> handleNotification(sonarConfiguration, jobName, buildId, sonarProjectKey)));
+            }
+        }
+    }
+
+    /**
+     * hands the notification to the dispatcher, unless the same notification is already being handled
+     *
+     * @param dispatcher      executor running the handler
+     * @param notificationKey job, build and sonar project of the notification
+     * @param handler         handles the notification
+     * @return http status to answer the webhook call with
+     */
+    static int dispatch(Executor dispatcher, String notificationKey, Runnable handler) {
+        if (!notificationsInProgress.add(notificationKey)) {
+            logger.info("Sonarqube webhook for " + notificationKey + " is already being handled, ignoring duplicate call");
+            return HttpStatus.SC_OK;
+        }
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    handler.run();
+                } finally {
+                    notificationsInProgress.remove(notificationKey);
                 }
-                if (run != null) {
-                    markBuildAsReceivedWebhookCall(run);
+            });
+        } catch (RejectedExecutionException e) {
+            notificationsInProgress.remove(notificationKey);
+            logger.warn("Too many sonarqube webhooks are waiting to be handled, rejecting call for " + notificationKey);
+            return HttpStatus.SC_SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.SC_OK;
+    }
+
+    /**
+     * runs on webhooks dispatcher thread : resolves the build once and enqueues coverage and vulnerabilities tasks for all relevant clients
+     */
+    private void handleNotification(GlobalConfiguration sonarConfiguration, String jobName, int buildId, String sonarProjectKey) {
+        String buildIdStr = String.valueOf(buildId);
+        try {
+            Job jenkinsJob = getJob(jobName);
+            if (jenkinsJob == null) {
+                logger.warn("Got request from sonarqube webhook listener, but job " + jobName + " could not be resolved");
+                return;
+            }
+            Run run = jenkinsJob.getBuildByNumber(buildId);
+            if (run == null) {
+                logger.warn("Got request from sonarqube webhook listener, but build " + buildIdStr + " context could not be resolved");
+                return;
+            }
+            if (!isRunExpectingToGetWebhookCall(run) || isRunAlreadyGotWebhookCall(run, sonarProjectKey)) {
+                return;
+            }
+
+            WebhookAction action = run.getAction(WebhookAction.class);
+            String parents = BuildHandlerUtils.getRootJobCiIds(run);
+            String sonarToken = SonarHelper.getSonarInstallationTokenByUrl(sonarConfiguration, action.getServerUrl(), run);
+            String ciJobId = BuildHandlerUtils.translateFolderJobName(jobName);
+
+            for (OctaneClient octaneClient : OctaneSDK.getClients()) {
+                try {
+                    if (octaneClient.getConfigurationService().getConfiguration().isDisabled() || !isJobVisible(octaneClient, jenkinsJob)) {
+                        continue;
+                    }
+
+                    //enqueue coverage and vulnerabilities
+                    if (action.getDataTypeSet().contains(SonarHelper.DataType.COVERAGE)) {
+                        // use SDK to fetch and push data
+                        octaneClient.getSonarService().enqueueFetchAndPushSonarCoverage(ciJobId, buildIdStr, sonarProjectKey, action.getServerUrl(), sonarToken, parents);
+                    }
+                    if (action.getDataTypeSet().contains(SonarHelper.DataType.VULNERABILITIES)) {
+                        Map<String, String> additionalProperties = new HashMap<>();
+                        additionalProperties.put(PROJECT_KEY_KEY, sonarProjectKey);
+                        additionalProperties.put(SONAR_URL_KEY, action.getServerUrl());
+                        additionalProperties.put(SONAR_TOKEN_KEY, sonarToken);
+                        additionalProperties.put(REMOTE_TAG_KEY, sonarProjectKey);
+                        octaneClient.getVulnerabilitiesService().enqueueRetrieveAndPushVulnerabilities(ciJobId, buildIdStr, ToolType.SONAR, run.getStartTimeInMillis(),
+                                VulnerabilitiesUtils.getFortifyTimeoutHours(octaneClient.getInstanceId()), additionalProperties, parents);
+                    }
+                } catch (Exception e) {
+                    logger.error("exception occurred while trying to enqueue fetchAndPush task to octane, clientId: " + octaneClient.getInstanceId() + "" +
+                            ", jobName: " + jobName + ", build: " + buildIdStr + ",", e);
                 }
             }
+            markBuildAsReceivedWebhookCall(run, sonarProjectKey);
+        } catch (Exception e) {
+            logger.error("exception occurred while handling sonarqube webhook, jobName: " + jobName + ", build: " + buildIdStr + ",", e);
+        }
+    }
+
+    private Job getJob(String jobName) {
+        try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+            return Jenkins.get().getItemByFullName(jobName, Job.class);
         }
     }
 
-    private Job getJob(OctaneClient octaneClient, String jobName) {
+    private boolean isJobVisible(OctaneClient octaneClient, Job jenkinsJob) {
         ACLContext aclContext = null;
         try {
             aclContext = ImpersonationUtil.startImpersonation(octaneClient.getInstanceId(), null);
-            Item topLevelItem = Jenkins.get().getItemByFullName(jobName);
-            if (topLevelItem != null && topLevelItem instanceof Job) {
-                Job jenkinsJob = ((Job) topLevelItem);
-                return jenkinsJob;
-            } else {
-                return null;
-            }
+            return jenkinsJob.hasPermission(Item.READ);
         } finally {
             if (aclContext != null) {
                 ImpersonationUtil.stopImpersonation(aclContext);
@@ -199,23 +259,22 @@ public class Webhooks implements UnprotectedRootAction {
     }
 
     /**
-     * this method checks if run already got webhook call.
-     * we are only handling the first call, laters call for the same run
+     * this method checks if run already got webhook call for the sonar project.
+     * we are only handling the first call, laters call for the same run and project
      * will be rejected
      *
      * @param run run
+     * @param sonarProjectKey sonar project key
      * @return result
      */
-    private Boolean isRunAlreadyGotWebhookCall(Run run) {
-        try {
-            // run is promised to be exist at this point
-            File rootDir = run.getRootDir();
-            File isExpectingFile = new File(rootDir, IS_EXPECTING_FILE_NAME);
-            FileInputStream fis = new FileInputStream(isExpectingFile);
-            ObjectInputStream ois = new ObjectInputStream(fis);
-            return (Boolean) ois.readObject();
-        } catch (Exception e) {
-            return Boolean.FALSE;
+    boolean isRunAlreadyGotWebhookCall(Run run, String sonarProjectKey) {
+        synchronized (IS_EXPECTING_FILE_LOCK) {
+            Object handled = readReceivedWebhookCalls(run);
+            if (handled instanceof Boolean) {
+                //file persisted by previous versions, not aware of project keys
+                return (Boolean) handled;
+            }
+            return handled instanceof Set && ((Set) handled).contains(sonarProjectKey);
         }
     }
 
@@ -231,19 +290,37 @@ public class Webhooks implements UnprotectedRootAction {
     }
 
     /**
-     * this method persist the fact a specific run got webhook call.
+     * this method persist the fact a specific run got webhook call for the sonar project.
      *
      * @param run run
+     * @param sonarProjectKey sonar project key
      * @throws IOException exception
      */
-    private void markBuildAsReceivedWebhookCall(Run run) throws IOException {
-        if (run == null) {
-            return;
+    void markBuildAsReceivedWebhookCall(Run run, String sonarProjectKey) throws IOException {
+        synchronized (IS_EXPECTING_FILE_LOCK) {
+            Object handled = readReceivedWebhookCalls(run);
+            HashSet<String> projectKeys = new HashSet<>();
+            if (handled instanceof Set) {
+                projectKeys.addAll((Set<String>) handled);
+            }
+            projectKeys.add(sonarProjectKey);
+            File isExpectingFile = new File(run.getRootDir(), IS_EXPECTING_FILE_NAME);
+            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(isExpectingFile))) {
+                oos.writeObject(projectKeys);
+            }
+        }
+    }
+
+    private Object readReceivedWebhookCalls(Run run) {
+        // run is promised to be exist at this point
+        File isExpectingFile = new File(run.getRootDir(), IS_EXPECTING_FILE_NAME);
+        if (!isExpectingFile.exists()) {
+            return null;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(isExpectingFile))) {
+            return ois.readObject();
+        } catch (Exception e) {
+            return null;
         }
-        File buildBaseFolder = run.getRootDir();
-        File isExpectingFile = new File(buildBaseFolder, IS_EXPECTING_FILE_NAME);
-        FileOutputStream fos = new FileOutputStream(isExpectingFile);
-        ObjectOutputStream oos = new ObjectOutputStream(fos);
-        oos.writeObject(true);
     }
 }
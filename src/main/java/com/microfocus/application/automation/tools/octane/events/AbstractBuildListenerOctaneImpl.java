@@ -34,11 +34,10 @@ import com.hp.octane.integrations.dto.DTOFactory;
 import com.hp.octane.integrations.dto.events.CIEvent;
 import com.hp.octane.integrations.dto.events.CIEventType;
 import com.hp.octane.integrations.dto.events.PhaseType;
-import com.hp.octane.integrations.dto.pipelines.PipelineNode;
-import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
+import com.microfocus.application.automation.tools.octane.model.JobStructureCache;
 import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.model.processors.scm.CommonOriginRevision;
@@ -53,8 +52,6 @@ import hudson.scm.SCM;
 import jenkins.model.Jenkins;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
-
 /**
  * Run Listener that handles basic CI events and dispatches notifications to the Octane server
  * User: gullery
@@ -173,15 +170,7 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 				if (parent.getClass().getName().equals(JobProcessorFactory.WORKFLOW_JOB_NAME)) {
 					result = true;
 				} else {
-					List<PipelinePhase> phases = JobProcessorFactory.getFlowProcessor((Job) parent).getInternals();
-					for (PipelinePhase p : phases) {
-						for (PipelineNode n : p.getJobs()) {
-							if (n != null && n.getName().equals(r.getParent().getName())) {
-								return true;
-							}
-						}
-					}
-					return false;
+					return JobStructureCache.isInternalJob((Job) parent, r.getParent().getName());
 				}
 			}
 		}
@@ -34,9 +34,17 @@ import com.microfocus.application.automation.tools.octane.tests.build.BuildHandl
 import hudson.model.Run;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 public class BuildLogHelper {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(BuildLogHelper.class);
 
+	// -DoctaneBuildLogMaxSize=<bytes> : only the tail of longer logs is sent to Octane. 0 means no limit.
+	private static final String BUILD_LOG_MAX_SIZE_PROPERTY = "octaneBuildLogMaxSize";
+
 	private BuildLogHelper(){
 		//for code climate
 	}
@@ -58,4 +66,66 @@ public class BuildLogHelper {
 			logger.error("failed to enqueue " + run + " for logs push to Octane", t);
 		}
 	}
+
+	/**
+	 * Opens the console log of the run as plain text (console annotations removed), read directly from the log.
+	 * If the log is bigger than the configured maximum size, only its last lines are returned.
+	 */
+	public static InputStream getPlainTextLog(Run run) throws IOException {
+		long maxSize = Long.getLong(BUILD_LOG_MAX_SIZE_PROPERTY, 0);
+		if (maxSize <= 0) {
+			return new PlainTextLogInputStream(new BufferedInputStream(run.getLogInputStream()));
+		}
+
+		//the size on disk is the compressed one for gzipped logs, so the log is read to its end to get its length
+		long logSize;
+		try (InputStream in = run.getLogInputStream()) {
+			logSize = countBytes(in);
+		}
+		InputStream rawLog = new BufferedInputStream(run.getLogInputStream());
+		if (logSize <= maxSize) {
+			return new PlainTextLogInputStream(rawLog);
+		}
+
+		long offset = logSize - maxSize;
+		try {
+			skipFully(rawLog, offset);
+			//start from the beginning of a line, so no console annotation is cut in the middle
+			int b;
+			do {
+				b = rawLog.read();
+				offset++;
+			} while (b != -1 && b != '\n');
+		} catch (IOException e) {
+			rawLog.close();
+			throw e;
+		}
+		String header = String.format("... %d bytes of the build log were skipped, the log is longer than %d bytes ...%n", offset, maxSize);
+		logger.debug("sending last " + (logSize - offset) + " bytes of the log of " + run);
+		return new PlainTextLogInputStream(rawLog, header.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static long countBytes(InputStream in) throws IOException {
+		byte[] buffer = new byte[8192];
+		long count = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			count += read;
+		}
+		return count;
+	}
+
+	private static void skipFully(InputStream in, long count) throws IOException {
+		long remaining = count;
+		while (remaining > 0) {
+			long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					return;
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
 }
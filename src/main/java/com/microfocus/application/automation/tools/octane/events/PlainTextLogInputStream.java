@@ -0,0 +1,115 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import hudson.console.PlainTextConsoleOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a raw Jenkins console log and strips the console annotations on the fly.
+ * Only one chunk of the log (plus the line being processed) is held in memory at a time.
+ */
+public class PlainTextLogInputStream extends InputStream {
+	private static final int CHUNK_SIZE = 8192;
+
+	private final InputStream rawLog;
+	private final ByteArrayOutputStream plainText = new ByteArrayOutputStream(CHUNK_SIZE);
+	private final PlainTextConsoleOutputStream stripper = new PlainTextConsoleOutputStream(plainText);
+	private final byte[] chunk = new byte[CHUNK_SIZE];
+	private byte[] buffer;
+	private int position;
+	private boolean eof;
+
+	public PlainTextLogInputStream(InputStream rawLog) {
+		this(rawLog, new byte[0]);
+	}
+
+	/**
+	 * @param header plain text served before the content of the log
+	 */
+	public PlainTextLogInputStream(InputStream rawLog, byte[] header) {
+		this.rawLog = rawLog;
+		this.buffer = header;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureAvailable()) {
+			return -1;
+		}
+		return buffer[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensureAvailable()) {
+			return -1;
+		}
+		int count = Math.min(len, buffer.length - position);
+		System.arraycopy(buffer, position, b, off, count);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return buffer.length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		rawLog.close();
+	}
+
+	private boolean ensureAvailable() throws IOException {
+		while (position >= buffer.length) {
+			if (eof) {
+				return false;
+			}
+			int read = rawLog.read(chunk);
+			if (read < 0) {
+				eof = true;
+				//flushes the last line even if it does not end with EOL
+				stripper.close();
+			} else {
+				stripper.write(chunk, 0, read);
+			}
+			buffer = plainText.toByteArray();
+			plainText.reset();
+			position = 0;
+		}
+		return true;
+	}
+}
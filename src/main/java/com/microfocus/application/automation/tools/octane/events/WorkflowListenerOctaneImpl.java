@@ -31,8 +31,6 @@ package com.microfocus.application.automation.tools.octane.events;
 import com.google.inject.Inject;
 import com.hp.octane.integrations.OctaneSDK;
 import com.hp.octane.integrations.dto.DTOFactory;
-import com.hp.octane.integrations.dto.causes.CIEventCause;
-import com.hp.octane.integrations.dto.causes.CIEventCauseType;
 import com.hp.octane.integrations.dto.events.CIEvent;
 import com.hp.octane.integrations.dto.events.CIEventType;
 import com.hp.octane.integrations.dto.events.MultiBranchType;
@@ -41,12 +39,11 @@ import com.hp.octane.integrations.dto.snapshots.CIBuildResult;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
-import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
-import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
 import hudson.model.Result;
+import hudson.model.listeners.RunListener;
 import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.TimingAction;
 import org.jenkinsci.plugins.workflow.actions.WarningAction;
@@ -56,9 +53,8 @@ import org.jenkinsci.plugins.workflow.flow.GraphListener;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Octane's listener for WorkflowRun events
@@ -77,8 +73,8 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 
 	//After upgrading Pipeline:Groovy plugin to Version 2.64: receive two start events, therefore
 	// pipeline job shows 2 bars for a single pipeline run.
-	// Here we add job key during start event and remove key in finished event
-	private static Set<String> workflowJobStarted = new HashSet<>();
+	// Here we add run context during start event and remove it in finished event, presence of the context marks the run as started
+	static final Map<String, WorkflowRunEventContext> runContexts = new ConcurrentHashMap<>();
 	@Inject
 	private TestListener testListener;
 
@@ -88,11 +84,19 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 			return;
 		}
 		try {
+			if (flowNode instanceof StepEndNode) {
+				getRunContext(BuildHandlerUtils.extractParentRun(flowNode)).recordEndNode((StepEndNode) flowNode);
+			}
+
 			if (BuildHandlerUtils.isWorkflowStartNode(flowNode)) {
 				sendPipelineStartedEvent(flowNode);
 			} else if (BuildHandlerUtils.isWorkflowEndNode(flowNode)) {
 				WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
-				sendPipelineFinishedEvent(parentRun);
+				try {
+					sendPipelineFinishedEvent(parentRun);
+				} finally {
+					runContexts.remove(getBuildKey(parentRun));
+				}
 				BuildLogHelper.enqueueBuildLog(parentRun);
 			} else if (BuildHandlerUtils.isStageStartNode(flowNode)) {
 				sendStageStartedEvent((StepStartNode) flowNode);
@@ -108,67 +112,64 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
 
 		//Avoid duplicate start events
-		String buildKey = getBuildKey(parentRun);
-		if (workflowJobStarted.contains(buildKey)) {
+		boolean[] started = {false};
+		WorkflowRunEventContext context = runContexts.computeIfAbsent(getBuildKey(parentRun), key -> {
+			started[0] = true;
+			return new WorkflowRunEventContext(parentRun, true);
+		});
+		if (!started[0]) {
 			return;
-		} else {
-			workflowJobStarted.add(buildKey);
 		}
 
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.STARTED)
-				.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()))
-				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
-				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setProjectDisplayName(context.getProjectDisplayName())
+				.setProject(context.getJobCiId())
+				.setBuildCiId(context.getBuildCiId())
+				.setNumber(context.getNumber())
+				.setParameters(context.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
-				.setCauses(CIEventCausesFactory.processCauses(parentRun));
+				.setCauses(context.getCauses());
 
-		if(isInternal(event.getCauses())){
+		if (context.isInternal()) {
 			event.setPhaseType(PhaseType.INTERNAL);
 		}
-		if (parentRun.getParent().getParent().getClass().getName().equals(JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME)) {
+		if (context.isMultiBranchChild()) {
 			event
-					.setParentCiId(BuildHandlerUtils.translateFolderJobName(parentRun.getParent().getParent().getFullName()))
-					.setMultiBranchType(MultiBranchType.MULTI_BRANCH_CHILD)
-					.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()));
+					.setParentCiId(context.getMultiBranchParentCiId())
+					.setMultiBranchType(MultiBranchType.MULTI_BRANCH_CHILD);
 		}
 
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
 
-	private boolean isInternal(List<CIEventCause> causes) {
-		if (causes != null) {
-			for (CIEventCause cause : causes) {
-				if (CIEventCauseType.UPSTREAM.equals(cause.getType())) {
-					return true;
-				}
-			}
-		}
-		return false;
+	private static String getBuildKey(WorkflowRun run) {
+		return run.getExternalizableId();
 	}
 
-	private String getBuildKey(WorkflowRun run){
-		return run.getFullDisplayName();
+	/**
+	 * Context of the run, in case the run started before this listener was loaded (for example resumed after restart) - context is created on first demand
+	 */
+	static WorkflowRunEventContext getRunContext(WorkflowRun run) {
+		return runContexts.computeIfAbsent(getBuildKey(run), key -> new WorkflowRunEventContext(run, false));
 	}
 
 	private void sendPipelineFinishedEvent(WorkflowRun parentRun) {
-		workflowJobStarted.remove(getBuildKey(parentRun));
+		WorkflowRunEventContext context = getRunContext(parentRun);
 		boolean hasTests = testListener.processBuild(parentRun);
 
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.FINISHED)
-				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
-				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setProject(context.getJobCiId())
+				.setBuildCiId(context.getBuildCiId())
+				.setNumber(context.getNumber())
+				.setParameters(context.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
 				.setDuration(parentRun.getDuration())
 				.setResult(BuildHandlerUtils.translateRunResult(parentRun))
-				.setCauses(CIEventCausesFactory.processCauses(parentRun))
+				.setCauses(context.getCauses())
 				.setTestResultExpected(hasTests);
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
@@ -191,21 +192,27 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 	}
 
 	private CIEvent prepareStageEvent(StepStartNode stepStartNode) {
-		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(stepStartNode);
+		WorkflowRunEventContext context = getRunContext(BuildHandlerUtils.extractParentRun(stepStartNode));
 		return dtoFactory.newDTO(CIEvent.class)
 				.setPhaseType(PhaseType.INTERNAL)
 				.setIsVirtualProject(true)
 				.setProject(stepStartNode.getDisplayName())
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
-				.setNumber(String.valueOf(parentRun.getNumber()))
+				.setBuildCiId(context.getBuildCiId())
+				.setNumber(context.getNumber())
 				.setStartTime(TimingAction.getStartTime(stepStartNode))
-				.setCauses(CIEventCausesFactory.processCauses(stepStartNode));
+				.setCauses(CIEventCausesFactory.processCauses(stepStartNode, context.getCauses()));
 	}
 
-	private CIBuildResult extractFlowNodeResult(FlowNode node) {
+	private CIBuildResult extractFlowNodeResult(StepEndNode node) {
 		CIBuildResult result = node.getError() != null ? CIBuildResult.FAILURE : CIBuildResult.SUCCESS;
-		if (CIBuildResult.SUCCESS.equals(result) && isChildNodeFailed(node, 0)) {
-			result = CIBuildResult.FAILURE;
+		if (CIBuildResult.SUCCESS.equals(result)) {
+			Boolean childNodeFailed = getRunContext(BuildHandlerUtils.extractParentRun(node)).isChildNodeFailed(node);
+			if (childNodeFailed == null) {
+				childNodeFailed = isChildNodeFailed(node, 0);
+			}
+			if (childNodeFailed) {
+				result = CIBuildResult.FAILURE;
+			}
 		}
 		return result;
 	}
@@ -227,7 +234,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 	 * @param iteration
 	 * @return
 	 */
-    private boolean isChildNodeFailed(FlowNode node, int iteration) {
+    static boolean isChildNodeFailed(FlowNode node, int iteration) {
         if (iteration >= 2) { // drill down upto 2 levels
             return false;
         }
@@ -251,4 +258,20 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
         }
 		return false;
     }
-}
\ No newline at end of file
+
+	/**
+	 * Drops the context of runs that finished without reaching the end node of the flow, for example aborted or deleted runs
+	 */
+	@Extension
+	public static final class RunContextCleaner extends RunListener<WorkflowRun> {
+		@Override
+		public void onFinalized(WorkflowRun run) {
+			runContexts.remove(getBuildKey(run));
+		}
+
+		@Override
+		public void onDeleted(WorkflowRun run) {
+			runContexts.remove(getBuildKey(run));
+		}
+	}
+}
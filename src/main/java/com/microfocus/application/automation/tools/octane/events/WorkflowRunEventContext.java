@@ -0,0 +1,173 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.hp.octane.integrations.dto.causes.CIEventCauseType;
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import hudson.model.Result;
+import org.jenkinsci.plugins.workflow.actions.WarningAction;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per run data of the pipeline events, calculated once when the run starts and shared by all its stage events.
+ * Besides the run data, failures of the step blocks are recorded as their end nodes arrive,
+ * so the result of a stage is resolved without walking its children.
+ */
+final class WorkflowRunEventContext {
+	// failure is looked for in the blocks that end up to 2 levels below the stage end
+	private static final int FAILURE_LOOKUP_DEPTH = 2;
+
+	private final String projectDisplayName;
+	private final String jobCiId;
+	private final String buildCiId;
+	private final String number;
+	private final List<CIParameter> parameters;
+	private final List<CIEventCause> causes;
+	private final boolean internal;
+	private final String multiBranchParentCiId;
+	private final boolean tracksAllEndNodes;
+	private final Map<String, Integer> failureDepthByEndNodeId = new ConcurrentHashMap<>();
+
+	/**
+	 * @param run               pipeline run
+	 * @param tracksAllEndNodes true if context is created on the run start, so all the end nodes of the run will be recorded
+	 */
+	WorkflowRunEventContext(WorkflowRun run, boolean tracksAllEndNodes) {
+		this.projectDisplayName = BuildHandlerUtils.translateFullDisplayName(run.getParent().getFullDisplayName());
+		this.jobCiId = BuildHandlerUtils.getJobCiId(run);
+		this.buildCiId = BuildHandlerUtils.getBuildCiId(run);
+		this.number = String.valueOf(run.getNumber());
+		this.parameters = Collections.unmodifiableList(ParameterProcessors.getInstances(run));
+		this.causes = Collections.unmodifiableList(CIEventCausesFactory.processCauses(run));
+		this.internal = isInternal(causes);
+		this.multiBranchParentCiId = run.getParent().getParent().getClass().getName().equals(JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME)
+				? BuildHandlerUtils.translateFolderJobName(run.getParent().getParent().getFullName())
+				: null;
+		this.tracksAllEndNodes = tracksAllEndNodes;
+	}
+
+	private static boolean isInternal(List<CIEventCause> causes) {
+		for (CIEventCause cause : causes) {
+			if (CIEventCauseType.UPSTREAM.equals(cause.getType())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	String getProjectDisplayName() {
+		return projectDisplayName;
+	}
+
+	String getJobCiId() {
+		return jobCiId;
+	}
+
+	String getBuildCiId() {
+		return buildCiId;
+	}
+
+	String getNumber() {
+		return number;
+	}
+
+	List<CIParameter> getParameters() {
+		return parameters;
+	}
+
+	List<CIEventCause> getCauses() {
+		return causes;
+	}
+
+	boolean isInternal() {
+		return internal;
+	}
+
+	boolean isMultiBranchChild() {
+		return multiBranchParentCiId != null;
+	}
+
+	String getMultiBranchParentCiId() {
+		return multiBranchParentCiId;
+	}
+
+	/**
+	 * Record failure of the block ended by the node : its own failure, or failure of the blocks ended just before it
+	 */
+	void recordEndNode(StepEndNode endNode) {
+		int failureDepth;
+		if (endNode.getError() != null) {
+			//if failed - validate that maybe error converted to warning of unstable
+			WarningAction warning = endNode.getAction(WarningAction.class);
+			if (warning != null && !warning.getResult().isWorseThan(Result.UNSTABLE)) {
+				return;
+			}
+			failureDepth = 0;
+		} else {
+			failureDepth = getParentsFailureDepth(endNode) + 1;
+		}
+
+		if (failureDepth < FAILURE_LOOKUP_DEPTH) {
+			failureDepthByEndNodeId.put(endNode.getId(), failureDepth);
+		}
+	}
+
+	/**
+	 * @return null if the failure of the children can't be resolved from the recorded end nodes
+	 */
+	Boolean isChildNodeFailed(StepEndNode endNode) {
+		if (!tracksAllEndNodes) {
+			return null;
+		}
+		return getParentsFailureDepth(endNode) < FAILURE_LOOKUP_DEPTH;
+	}
+
+	private int getParentsFailureDepth(FlowNode node) {
+		int failureDepth = FAILURE_LOOKUP_DEPTH;
+		for (FlowNode parent : node.getParents()) {
+			Integer parentFailureDepth = parent instanceof StepEndNode ? failureDepthByEndNodeId.get(parent.getId()) : null;
+			if (parentFailureDepth != null && parentFailureDepth < failureDepth) {
+				failureDepth = parentFailureDepth;
+			}
+		}
+		return failureDepth;
+	}
+}
@@ -61,7 +61,7 @@ public class UFTTestDetectionFinalResultSaverCallable extends MasterToSlaveFileC
                 subWorkspace.mkdirs();
             }
             File reportXmlFile = new File(subWorkspace, "final_detection_result_build_" + buildNumber + ".json");
-            results.writeToFile(reportXmlFile);
+            UftTestDiscoveryResultStorage.write(results, reportXmlFile);
         } catch (IOException e) {
             logger.error("Failed to write final_detection_result file :" + e.getMessage());
         }
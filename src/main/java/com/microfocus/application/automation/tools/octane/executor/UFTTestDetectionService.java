@@ -59,7 +59,7 @@ public class UFTTestDetectionService {
             boolean myFullScan = fullScan || !initialDetectionFileExist(rootDir);
             if (myFullScan) {
                 printToConsole(buildListener, "Executing full sync");
-                result = UftTestDiscoveryUtils.doFullDiscovery(rootDir);
+                result = UftTestDiscoveryScanner.doFullDiscovery(rootDir);
             } else {
                 printToConsole(buildListener, "Executing changeSet sync. For full sync - define in job boolean parameter 'Full sync' with value 'true'.");
                 result = doChangeSetDetection(scmChangesWrapper, rootDir);
@@ -106,57 +106,80 @@ public class UFTTestDetectionService {
     }
 
     private static Map<OctaneStatus, Integer> computeStatusMap(List<? extends SupportsOctaneStatus> entities) {
-        Map<OctaneStatus, Integer> statusMap = new HashMap<>();
+        Map<OctaneStatus, Integer> statusMap = new EnumMap<>(OctaneStatus.class);
         for (SupportsOctaneStatus item : entities) {
-            if (!statusMap.containsKey(item.getOctaneStatus())) {
-                statusMap.put(item.getOctaneStatus(), 0);
-            }
-            statusMap.put(item.getOctaneStatus(), statusMap.get(item.getOctaneStatus()) + 1);
+            statusMap.merge(item.getOctaneStatus(), 1, Integer::sum);
         }
         return statusMap;
     }
 
     /**
      * Deleted data table might be part of deleted test. During discovery its very hard to know.
-     * Here we pass through all deleted data tables, if we found data table parent is test folder - we know that the delete was part of test delete
+     * Here we pass through all deleted data tables, if we found data table parent is test folder - we know that the delete was part of test delete.
+     * Test paths are indexed once, so each data table costs only a lookup per sub path of its parent folder.
      *
      * @param tests
      * @param scmResourceFiles
      */
-    private static void removeFalsePositiveDataTables(UftTestDiscoveryResult result, List<AutomatedTest> tests, List<ScmResourceFile> scmResourceFiles) {
+    static void removeFalsePositiveDataTables(UftTestDiscoveryResult result, List<AutomatedTest> tests, List<ScmResourceFile> scmResourceFiles) {
         if (!scmResourceFiles.isEmpty() && !tests.isEmpty()) {
 
-            List<ScmResourceFile> falsePositive = new ArrayList<>();
+            Set<String> testPaths = new HashSet<>(tests.size() * 2);
+            for (AutomatedTest test : tests) {
+                testPaths.add(SdkStringUtils.isEmpty(test.getPackage()) ? test.getName() : test.getPackage() + SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER + test.getName());
+            }
+
+            Set<ScmResourceFile> falsePositive = Collections.newSetFromMap(new IdentityHashMap<>());
             for (ScmResourceFile item : scmResourceFiles) {
                 int parentSplitterIndex = item.getRelativePath().lastIndexOf(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);
                 if (parentSplitterIndex != -1) {
                     String parentName = item.getRelativePath().substring(0, parentSplitterIndex);
-                    for (AutomatedTest test : tests) {
-                        String testPath = SdkStringUtils.isEmpty(test.getPackage()) ? test.getName() : test.getPackage() + SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER + test.getName();
-                        if (parentName.contains(testPath)) {
-                            falsePositive.add(item);
-                            break;
-                        }
+                    if (containsTestPath(parentName, testPaths)) {
+                        falsePositive.add(item);
                     }
                 }
             }
 
-            result.getAllScmResourceFiles().removeAll(falsePositive);
+            if (!falsePositive.isEmpty()) {
+                result.getAllScmResourceFiles().removeIf(falsePositive::contains);
+            }
+        }
+    }
+
+    /**
+     * Check whether one of the test paths is a part of parent folder path, matching whole folder names only
+     */
+    private static boolean containsTestPath(String parentName, Set<String> testPaths) {
+        List<Integer> segmentStarts = new ArrayList<>();
+        segmentStarts.add(0);
+        for (int i = parentName.indexOf(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER); i != -1;
+             i = parentName.indexOf(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER, i + 1)) {
+            segmentStarts.add(i + 1);
+        }
+        segmentStarts.add(parentName.length() + 1);
+
+        for (int start = 0; start < segmentStarts.size() - 1; start++) {
+            for (int end = start + 1; end < segmentStarts.size(); end++) {
+                if (testPaths.contains(parentName.substring(segmentStarts.get(start), segmentStarts.get(end) - 1))) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
-    private static void removeTestDuplicatedForUpdateTests(UftTestDiscoveryResult result) {
+    static void removeTestDuplicatedForUpdateTests(UftTestDiscoveryResult result) {
         Set<String> keys = new HashSet<>();
-        List<AutomatedTest> testsToRemove = new ArrayList<>();
+        Set<AutomatedTest> testsToRemove = Collections.newSetFromMap(new IdentityHashMap<>());
         for (AutomatedTest test : result.getUpdatedTests()) {
             String key = test.getPackage() + "_" + test.getName();
-            if (keys.contains(key)) {
+            if (!keys.add(key)) {
                 testsToRemove.add(test);
             }
-            keys.add(key);
-
         }
-        result.getAllTests().removeAll(testsToRemove);
+        if (!testsToRemove.isEmpty()) {
+            result.getAllTests().removeIf(testsToRemove::contains);
+        }
     }
 
     public static void printToConsole(BuildListener buildListener, String msg) {
@@ -257,7 +280,7 @@ public class UFTTestDetectionService {
     }
 
     /**
-     * Serialize detectionResult to file in XML format
+     * Serialize detectionResult to file in streaming json format
      *
      * @param run
      * @param taskListenerLog
@@ -267,7 +290,7 @@ public class UFTTestDetectionService {
 
         File file = getDetectionResultFile(run);
         try {
-            detectionResult.writeToFile(file);
+            UftTestDiscoveryResultStorage.write(detectionResult, file);
         } catch (Exception e) {
             String msg = "Failed to persist detection results : " + e.getMessage();
             if (taskListenerLog != null) {
@@ -281,13 +304,28 @@ public class UFTTestDetectionService {
         File file = getDetectionResultFile(run);
 
         try {
-            return UftTestDiscoveryResult.readFromFile(file);
+            return UftTestDiscoveryResultStorage.read(file);
         } catch (IOException e) {
             logger.error("Failed to read detection results : " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Open detection results for reading tests and data tables in batches.
+     * Results persisted in the former format are not streamable, for them null is returned and {@link #readDetectionResults(Run)} should be used.
+     */
+    public static UftTestDiscoveryResultStorage.Reader openDetectionResults(Run run) {
+        File file = getDetectionResultFile(run);
+
+        try {
+            return UftTestDiscoveryResultStorage.isStreamFormat(file) ? UftTestDiscoveryResultStorage.open(file) : null;
+        } catch (IOException e) {
+            logger.error("Failed to open detection results : " + e.getMessage());
+            return null;
+        }
+    }
+
     public static File getDetectionResultFile(Run run) {
         return new File(run.getRootDir(), DETECTION_RESULT_FILE);
     }
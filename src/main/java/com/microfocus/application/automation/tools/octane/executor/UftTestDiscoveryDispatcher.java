@@ -50,7 +50,10 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.Logger;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -59,6 +62,9 @@ import java.util.concurrent.TimeUnit;
  * after connection is up - this dispatcher will send tests to Octane.
  * <p>
  * Actually list of discovered tests are persisted in job run directory. Queue contains only reference to that job run.
+ * <p>
+ * Results validated against Octane are persisted as well and sent in chunks, a progress file keeps number of sent items,
+ * so a retry continues from the first chunk that was not sent.
  */
 @Extension
 public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWork {
@@ -66,6 +72,12 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
 
     private final static int MAX_DISPATCH_TRIALS = 5;
     private static final String OCTANE_VERSION_SUPPORTING_TEST_RENAME = "12.60.3";
+    private static final String PREPARED_RESULT_FILE = "detection_result_prepared.json";
+    private static final String DISPATCH_PROGRESS_FILE = "detection_dispatch_progress.properties";
+    private static final int DEFAULT_DISPATCH_CHUNK_SIZE = 200;
+    private static final int SERVER_LOOKUP_BATCH_SIZE = 100;
+
+    private static final Map<String, CachedOctaneVersion> octaneVersionCache = new ConcurrentHashMap<>();
 
     private UftTestDiscoveryQueue queue;
     private volatile boolean stopped = false;
@@ -93,8 +105,10 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         }
 
         ResultQueue.QueueItem item = null;
+        AbstractBuild build = null;
         try {
             while ((item = queue.peekFirst()) != null) {
+                build = null;
 
                 Job project = (Job) Jenkins.get().getItemByFullName(item.getProjectName());
                 if (project == null) {
@@ -103,16 +117,19 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
                     continue;
                 }
 
-                AbstractBuild build = (AbstractBuild) project.getBuildByNumber(item.getBuildNumber());
+                build = (AbstractBuild) project.getBuildByNumber(item.getBuildNumber());
                 if (build == null) {
                     logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer exists, pending discovered tests can't be submitted");
                     queue.remove();
                     continue;
                 }
 
-                UftTestDiscoveryResult result = UFTTestDetectionService.readDetectionResults(build);
+                //results that were already validated against Octane are not read and validated again, only their header is read
+                boolean prepared = getPreparedResultFile(build).exists();
+                UftTestDiscoveryResult result = prepared ? readPreparedResultHeader(build) : UFTTestDetectionService.readDetectionResults(build);
                 if (result == null) {
                     logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer contains valid detection result file");
+                    deleteDispatchFiles(build);
                     queue.remove();
                     continue;
                 }
@@ -122,12 +139,17 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
                     client = OctaneSDK.getClientByInstanceId(result.getConfigurationId());
                 } catch (Exception e) {
                     logger.error("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] does not have valid configuration " + result.getConfigurationId() + " : " + e.getMessage());
+                    deleteDispatchFiles(build);
                     queue.remove();
                     continue;
                 }
 
-                logger.warn("Persistence [" + item.getProjectName() + "#" + item.getBuildNumber() + "]");
-                dispatchDetectionResults(item, client.getEntitiesService(), result, build);
+                logger.warn("Persistence [" + item.getProjectName() + "#" + item.getBuildNumber() + "]" + (prepared ? ", resuming" : ""));
+                if (!prepared) {
+                    prepareDetectionResults(client, result, build);
+                }
+                dispatchPreparedResults(item, client.getEntitiesService(), build);
+                deleteDispatchFiles(build);
                 queue.remove();
             }
         } catch (OctaneRestException e) {
@@ -137,13 +159,16 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
             } else {
                 logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  : " + reasonDesc);
             }
+            deleteDispatchFiles(build);
             queue.remove();
         } catch (Exception e) {
             if (item != null) {
-                item.incrementFailCount();
                 if (item.incrementFailCount() > MAX_DISPATCH_TRIALS) {
+                    deleteDispatchFiles(build);
                     queue.remove();
                     logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  after " + MAX_DISPATCH_TRIALS + " trials");
+                } else {
+                    logger.warn("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "], will be retried : " + e.getMessage());
                 }
             }
         }
@@ -155,14 +180,18 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         queue.close();
     }
 
-    private static void dispatchDetectionResults(ResultQueue.QueueItem item, EntitiesService entitiesService, UftTestDiscoveryResult result, AbstractBuild build) {
+    /**
+     * Validate discovery results against Octane and persist them for chunked dispatching
+     */
+    private static void prepareDetectionResults(OctaneClient client, UftTestDiscoveryResult result, AbstractBuild build) throws IOException {
+        EntitiesService entitiesService = client.getEntitiesService();
         //Check if there is diff in discovery and server status
         //for example : discovery found new test , but it already exist in server , instead of create new tests we will do update test
         if (result.isFullScan()) {
             UftTestDispatchUtils.prepareDispatchingForFullSync(entitiesService, result);
 
         } else {
-            if (isOctaneSupportTestRename(entitiesService)) {
+            if (isOctaneSupportTestRename(client.getInstanceId(), entitiesService)) {
                 handleMovedTests(result);
                 handleMovedDataTables(result);
             }
@@ -180,9 +209,154 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
             logger.info("Failed to save final result : " + e.getMessage());
         }
 
-        //dispatch
+        File progressFile = getDispatchProgressFile(build);
+        if (progressFile.exists() && !progressFile.delete()) {
+            throw new IOException("Failed to delete stale dispatch progress file " + progressFile);
+        }
+        UftTestDiscoveryResultStorage.write(result, getPreparedResultFile(build));
+    }
+
+    private static void dispatchPreparedResults(ResultQueue.QueueItem item, EntitiesService entitiesService, AbstractBuild build) throws IOException {
         JobRunContext jobRunContext = JobRunContext.create(item.getProjectName(), item.getBuildNumber());
-        UftTestDispatchUtils.dispatchDiscoveryResult(entitiesService, result, jobRunContext, null);
+        dispatchInChunks(getPreparedResultFile(build), getDispatchProgressFile(build), getDispatchChunkSize(),
+                chunk -> UftTestDispatchUtils.dispatchDiscoveryResult(entitiesService, chunk, jobRunContext, null));
+    }
+
+    /**
+     * Send prepared results chunk by chunk, starting after the items recorded in progress file.
+     * Progress file is updated after each sent chunk. Deleted folders are sent with the first chunk.
+     */
+    static void dispatchInChunks(File preparedResultFile, File progressFile, int chunkSize, ChunkDispatcher chunkDispatcher) throws IOException {
+        DispatchProgress progress = DispatchProgress.load(progressFile);
+        try (UftTestDiscoveryResultStorage.Reader reader = UftTestDiscoveryResultStorage.open(preparedResultFile)) {
+            UftTestDiscoveryResult header = reader.getHeader();
+            reader.skipTests(progress.tests);
+
+            List<AutomatedTest> tests;
+            while (!(tests = reader.nextTests(chunkSize)).isEmpty()) {
+                UftTestDiscoveryResult chunk = createChunk(header, progress);
+                chunk.getAllTests().addAll(tests);
+                chunkDispatcher.dispatch(chunk);
+                progress.tests += tests.size();
+                progress.deletedFoldersSent = true;
+                progress.save(progressFile);
+            }
+
+            reader.skipScmResourceFiles(progress.dataTables);
+            List<ScmResourceFile> dataTables;
+            while (!(dataTables = reader.nextScmResourceFiles(chunkSize)).isEmpty()) {
+                UftTestDiscoveryResult chunk = createChunk(header, progress);
+                chunk.getAllScmResourceFiles().addAll(dataTables);
+                chunkDispatcher.dispatch(chunk);
+                progress.dataTables += dataTables.size();
+                progress.deletedFoldersSent = true;
+                progress.save(progressFile);
+            }
+
+            if (!progress.deletedFoldersSent && !header.getDeletedFolders().isEmpty()) {
+                chunkDispatcher.dispatch(createChunk(header, progress));
+                progress.deletedFoldersSent = true;
+                progress.save(progressFile);
+            }
+        }
+    }
+
+    private static UftTestDiscoveryResult createChunk(UftTestDiscoveryResult header, DispatchProgress progress) {
+        UftTestDiscoveryResult chunk = new UftTestDiscoveryResult();
+        chunk.setConfigurationId(header.getConfigurationId());
+        chunk.setWorkspaceId(header.getWorkspaceId());
+        chunk.setScmRepositoryId(header.getScmRepositoryId());
+        chunk.setTestRunnerId(header.getTestRunnerId());
+        chunk.setFullScan(header.isFullScan());
+        chunk.setHasQuotedPaths(header.isHasQuotedPaths());
+        if (!progress.deletedFoldersSent) {
+            chunk.getDeletedFolders().addAll(header.getDeletedFolders());
+        }
+        return chunk;
+    }
+
+    private static UftTestDiscoveryResult readPreparedResultHeader(AbstractBuild build) {
+        try (UftTestDiscoveryResultStorage.Reader reader = UftTestDiscoveryResultStorage.open(getPreparedResultFile(build))) {
+            return reader.getHeader();
+        } catch (IOException e) {
+            logger.error("Failed to read prepared detection results : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static File getPreparedResultFile(AbstractBuild build) {
+        return new File(build.getRootDir(), PREPARED_RESULT_FILE);
+    }
+
+    private static File getDispatchProgressFile(AbstractBuild build) {
+        return new File(build.getRootDir(), DISPATCH_PROGRESS_FILE);
+    }
+
+    private static void deleteDispatchFiles(AbstractBuild build) {
+        if (build != null) {
+            for (File file : Arrays.asList(getPreparedResultFile(build), getDispatchProgressFile(build))) {
+                if (file.exists() && !file.delete()) {
+                    logger.warn("Failed to delete " + file);
+                }
+            }
+        }
+    }
+
+    static int getDispatchChunkSize() {
+        String value = System.getProperty("UftTestDiscoveryDispatcher.ChunkSize");
+        if (!SdkStringUtils.isEmpty(value)) {
+            try {
+                int chunkSize = Integer.parseInt(value.trim());
+                if (chunkSize > 0) {
+                    return chunkSize;
+                }
+            } catch (NumberFormatException e) {
+                //falls back to default below
+            }
+            logger.warn("Invalid UftTestDiscoveryDispatcher.ChunkSize '" + value + "', using default " + DEFAULT_DISPATCH_CHUNK_SIZE);
+        }
+        return DEFAULT_DISPATCH_CHUNK_SIZE;
+    }
+
+    interface ChunkDispatcher {
+        void dispatch(UftTestDiscoveryResult chunk);
+    }
+
+    /**
+     * Number of tests and data tables that were already sent to Octane
+     */
+    static final class DispatchProgress {
+        private static final String TESTS = "tests";
+        private static final String DATA_TABLES = "dataTables";
+        private static final String DELETED_FOLDERS_SENT = "deletedFoldersSent";
+
+        int tests;
+        int dataTables;
+        boolean deletedFoldersSent;
+
+        static DispatchProgress load(File file) throws IOException {
+            DispatchProgress progress = new DispatchProgress();
+            if (file.exists()) {
+                Properties properties = new Properties();
+                try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                progress.tests = Integer.parseInt(properties.getProperty(TESTS, "0"));
+                progress.dataTables = Integer.parseInt(properties.getProperty(DATA_TABLES, "0"));
+                progress.deletedFoldersSent = Boolean.parseBoolean(properties.getProperty(DELETED_FOLDERS_SENT));
+            }
+            return progress;
+        }
+
+        void save(File file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty(TESTS, Integer.toString(tests));
+            properties.setProperty(DATA_TABLES, Integer.toString(dataTables));
+            properties.setProperty(DELETED_FOLDERS_SENT, Boolean.toString(deletedFoldersSent));
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+        }
     }
 
     private static boolean validateTestDiscoveryAndCompleteDataTableIdsForScmChangeDetection(EntitiesService entitiesService, UftTestDiscoveryResult result) {
@@ -197,7 +371,10 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         }
 
         //GET DataTables FROM OCTANE
-        Map<String, Entity> octaneEntityMapByRelativePath = UftTestDispatchUtils.getDataTablesFromServer(entitiesService, Long.parseLong(result.getWorkspaceId()), Long.parseLong(result.getScmRepositoryId()), allNames);
+        Map<String, Entity> octaneEntityMapByRelativePath = new HashMap<>();
+        for (Set<String> names : splitToBatches(allNames)) {
+            octaneEntityMapByRelativePath.putAll(UftTestDispatchUtils.getDataTablesFromServer(entitiesService, Long.parseLong(result.getWorkspaceId()), Long.parseLong(result.getScmRepositoryId()), names));
+        }
 
 
         //MATCHING
@@ -262,7 +439,10 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
 
         //GET TESTS FROM OCTANE
         Collection<String> additionalFields = SdkStringUtils.isNotEmpty(result.getTestRunnerId()) ? Collections.singletonList(EntityConstants.AutomatedTest.TEST_RUNNER_FIELD) : null;
-        Map<String, Entity> octaneTestsMapByKey = UftTestDispatchUtils.getTestsFromServer(entitiesService, Long.parseLong(result.getWorkspaceId()), Long.parseLong(result.getScmRepositoryId()), true, allTestNames, additionalFields);
+        Map<String, Entity> octaneTestsMapByKey = new HashMap<>();
+        for (Set<String> names : splitToBatches(allTestNames)) {
+            octaneTestsMapByKey.putAll(UftTestDispatchUtils.getTestsFromServer(entitiesService, Long.parseLong(result.getWorkspaceId()), Long.parseLong(result.getScmRepositoryId()), true, names, additionalFields));
+        }
 
 
         //MATCHING
@@ -310,6 +490,25 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         return hasDiff;
     }
 
+    /**
+     * Split names for server lookup, so each request has bounded size
+     */
+    static List<Set<String>> splitToBatches(Set<String> names) {
+        List<Set<String>> batches = new ArrayList<>();
+        Set<String> batch = new HashSet<>();
+        for (String name : names) {
+            batch.add(name);
+            if (batch.size() == SERVER_LOOKUP_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new HashSet<>();
+            }
+        }
+        if (!batch.isEmpty() || batches.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
     @Override
     public long getRecurrencePeriod() {
         String value = System.getProperty("UftTestDiscoveryDispatcher.Period"); // let's us config the recurrence period. default is 30 seconds.
@@ -398,9 +597,9 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         }
     }
 
-    private static boolean isOctaneSupportTestRename(EntitiesService entitiesService) {
+    private static boolean isOctaneSupportTestRename(String instanceId, EntitiesService entitiesService) {
         try {
-            String octane_version = getOctaneVersion(entitiesService);
+            String octane_version = getOctaneVersion(instanceId, entitiesService);
             boolean supportTestRename = (octane_version != null && versionCompare(OCTANE_VERSION_SUPPORTING_TEST_RENAME, octane_version) <= 0);
             logger.warn("Support test rename = " + supportTestRename);
             return supportTestRename;
@@ -410,6 +609,44 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
         }
     }
 
+    /**
+     * Octane version is cached per client, failures are not cached
+     */
+    static String getOctaneVersion(String instanceId, EntitiesService entitiesService) {
+        CachedOctaneVersion cached = octaneVersionCache.get(instanceId);
+        if (cached != null && cached.expiration > System.currentTimeMillis()) {
+            return cached.version;
+        }
+
+        String octaneVersion = getOctaneVersion(entitiesService);
+        if (octaneVersion != null) {
+            octaneVersionCache.put(instanceId, new CachedOctaneVersion(octaneVersion, System.currentTimeMillis() + getOctaneVersionCacheTTL()));
+        }
+        return octaneVersion;
+    }
+
+    static void clearOctaneVersionCache() {
+        octaneVersionCache.clear();
+    }
+
+    private static long getOctaneVersionCacheTTL() {
+        String value = System.getProperty("UftTestDiscoveryDispatcher.OctaneVersionCacheTTL"); // in milliseconds, default is one hour
+        if (!SdkStringUtils.isEmpty(value)) {
+            return Long.parseLong(value);
+        }
+        return TimeUnit.HOURS.toMillis(1);
+    }
+
+    private static final class CachedOctaneVersion {
+        private final String version;
+        private final long expiration;
+
+        private CachedOctaneVersion(String version, long expiration) {
+            this.version = version;
+            this.expiration = expiration;
+        }
+    }
+
     private static String getOctaneVersion(EntitiesService entitiesService) {
         String octaneVersion = null;
 
@@ -0,0 +1,291 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.ScmResourceFile;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streaming persistence of UFT discovery results.
+ * Header fields are written before the tests and the data tables, so tests and data tables can be read lazily, in batches,
+ * without materializing the whole json document.
+ * Files written by {@link UftTestDiscoveryResult#writeToFile(File)} are still readable by {@link #read(File)}.
+ */
+public class UftTestDiscoveryResultStorage {
+
+    private static final String FORMAT_VERSION_FIELD = "streamFormatVersion";
+    private static final int FORMAT_VERSION = 1;
+    private static final String CONFIGURATION_ID_FIELD = "configurationId";
+    private static final String WORKSPACE_ID_FIELD = "workspaceId";
+    private static final String SCM_REPOSITORY_ID_FIELD = "scmRepositoryId";
+    private static final String TEST_RUNNER_ID_FIELD = "testRunnerId";
+    private static final String FULL_SCAN_FIELD = "fullScan";
+    private static final String HAS_QUOTED_PATHS_FIELD = "hasQuotedPaths";
+    private static final String DELETED_FOLDERS_FIELD = "deletedFolders";
+    private static final String TESTS_FIELD = "tests";
+    private static final String SCM_RESOURCE_FILES_FIELD = "scmResourceFiles";
+    private static final List<String> ITEM_ARRAY_FIELDS = Arrays.asList(TESTS_FIELD, SCM_RESOURCE_FILES_FIELD);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+
+    /**
+     * Write result item by item to a temporary file, that replaces the target file once complete
+     */
+    public static void write(UftTestDiscoveryResult result, File file) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(new FileOutputStream(tempFile)), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField(FORMAT_VERSION_FIELD, FORMAT_VERSION);
+            generator.writeStringField(CONFIGURATION_ID_FIELD, result.getConfigurationId());
+            generator.writeStringField(WORKSPACE_ID_FIELD, result.getWorkspaceId());
+            generator.writeStringField(SCM_REPOSITORY_ID_FIELD, result.getScmRepositoryId());
+            generator.writeStringField(TEST_RUNNER_ID_FIELD, result.getTestRunnerId());
+            generator.writeBooleanField(FULL_SCAN_FIELD, result.isFullScan());
+            generator.writeBooleanField(HAS_QUOTED_PATHS_FIELD, result.isHasQuotedPaths());
+
+            generator.writeArrayFieldStart(DELETED_FOLDERS_FIELD);
+            for (String deletedFolder : result.getDeletedFolders()) {
+                generator.writeString(deletedFolder);
+            }
+            generator.writeEndArray();
+
+            writeItems(generator, TESTS_FIELD, result.getAllTests());
+            writeItems(generator, SCM_RESOURCE_FILES_FIELD, result.getAllScmResourceFiles());
+            generator.writeEndObject();
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeItems(JsonGenerator generator, String fieldName, Collection<?> items) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        for (Object item : items) {
+            generator.writeObject(item);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Read whole result, file might be in stream format or in format of {@link UftTestDiscoveryResult#writeToFile(File)}
+     */
+    public static UftTestDiscoveryResult read(File file) throws IOException {
+        if (!isStreamFormat(file)) {
+            return UftTestDiscoveryResult.readFromFile(file);
+        }
+
+        try (Reader reader = open(file)) {
+            UftTestDiscoveryResult result = reader.getHeader();
+            result.getAllTests().addAll(reader.nextTests(Integer.MAX_VALUE));
+            result.getAllScmResourceFiles().addAll(reader.nextScmResourceFiles(Integer.MAX_VALUE));
+            return result;
+        }
+    }
+
+    /**
+     * Open file written by {@link #write(UftTestDiscoveryResult, File)} for lazy reading
+     */
+    public static Reader open(File file) throws IOException {
+        return new Reader(file);
+    }
+
+    public static boolean isStreamFormat(File file) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            return parser.nextToken() == JsonToken.START_OBJECT
+                    && parser.nextToken() == JsonToken.FIELD_NAME
+                    && FORMAT_VERSION_FIELD.equals(parser.getCurrentName());
+        }
+    }
+
+    /**
+     * Forward-only reader : tests are read before data tables, asking for data tables skips the unread tests
+     */
+    public static class Reader implements Closeable {
+        private final JsonParser parser;
+        private final UftTestDiscoveryResult header = new UftTestDiscoveryResult();
+        private String currentArrayField;
+        private boolean insideArray;
+
+        private Reader(File file) throws IOException {
+            parser = objectMapper.getFactory().createParser(file);
+            try {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Invalid detection result file " + file.getName());
+                }
+                moveToNextArray();
+            } catch (IOException e) {
+                parser.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return result with header fields and deleted folders, without tests and data tables
+         */
+        public UftTestDiscoveryResult getHeader() {
+            return header;
+        }
+
+        public List<AutomatedTest> nextTests(int maxItems) throws IOException {
+            return nextItems(TESTS_FIELD, AutomatedTest.class, maxItems);
+        }
+
+        public List<ScmResourceFile> nextScmResourceFiles(int maxItems) throws IOException {
+            return nextItems(SCM_RESOURCE_FILES_FIELD, ScmResourceFile.class, maxItems);
+        }
+
+        /**
+         * Skip tests without deserializing them
+         *
+         * @return number of skipped tests
+         */
+        public int skipTests(int maxItems) throws IOException {
+            return skipItems(TESTS_FIELD, maxItems);
+        }
+
+        /**
+         * Skip data tables without deserializing them
+         *
+         * @return number of skipped data tables
+         */
+        public int skipScmResourceFiles(int maxItems) throws IOException {
+            return skipItems(SCM_RESOURCE_FILES_FIELD, maxItems);
+        }
+
+        private <T> List<T> nextItems(String fieldName, Class<T> itemType, int maxItems) throws IOException {
+            List<T> items = new ArrayList<>();
+            while (items.size() < maxItems && moveToItem(fieldName)) {
+                items.add(parser.readValueAs(itemType));
+            }
+            return items;
+        }
+
+        private int skipItems(String fieldName, int maxItems) throws IOException {
+            int skipped = 0;
+            while (skipped < maxItems && moveToItem(fieldName)) {
+                parser.skipChildren();
+                skipped++;
+            }
+            return skipped;
+        }
+
+        /**
+         * Position parser on next item of the array
+         *
+         * @return false if there are no more items in the array
+         */
+        private boolean moveToItem(String fieldName) throws IOException {
+            while (currentArrayField != null && ITEM_ARRAY_FIELDS.indexOf(currentArrayField) < ITEM_ARRAY_FIELDS.indexOf(fieldName)) {
+                moveToNextArray();
+            }
+            if (!fieldName.equals(currentArrayField) || !insideArray) {
+                return false;
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                insideArray = false;
+                return false;
+            }
+            return true;
+        }
+
+        private void moveToNextArray() throws IOException {
+            if (insideArray) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+                insideArray = false;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (ITEM_ARRAY_FIELDS.contains(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                    currentArrayField = fieldName;
+                    insideArray = true;
+                    return;
+                }
+                readHeaderField(fieldName, valueToken);
+            }
+            currentArrayField = null;
+        }
+
+        private void readHeaderField(String fieldName, JsonToken valueToken) throws IOException {
+            switch (fieldName) {
+                case CONFIGURATION_ID_FIELD:
+                    header.setConfigurationId(parser.getValueAsString());
+                    break;
+                case WORKSPACE_ID_FIELD:
+                    header.setWorkspaceId(parser.getValueAsString());
+                    break;
+                case SCM_REPOSITORY_ID_FIELD:
+                    header.setScmRepositoryId(parser.getValueAsString());
+                    break;
+                case TEST_RUNNER_ID_FIELD:
+                    header.setTestRunnerId(parser.getValueAsString());
+                    break;
+                case FULL_SCAN_FIELD:
+                    header.setFullScan(parser.getValueAsBoolean());
+                    break;
+                case HAS_QUOTED_PATHS_FIELD:
+                    header.setHasQuotedPaths(parser.getValueAsBoolean());
+                    break;
+                case DELETED_FOLDERS_FIELD:
+                    if (valueToken == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            header.getDeletedFolders().add(parser.getValueAsString());
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.hp.octane.integrations.uft.UftTestDiscoveryUtils;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.ScmResourceFile;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+import com.hp.octane.integrations.uft.items.UftTestType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.FilePath;
+import hudson.slaves.WorkspaceList;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full UFT test discovery that walks the workspace folders in parallel.
+ * Produces the same result as UftTestDiscoveryUtils.doFullDiscovery :
+ * a folder recognized as UFT test folder becomes a test (its sub folders are not scanned), otherwise its data tables are collected
+ * and its sub folders are scanned.
+ * <p>
+ * Tests found by the previous full discovery are kept in a manifest file, keyed by test folder path.
+ * If the path, size and modification time of all files in the test folder and its sub folders did not change,
+ * the test is taken from the manifest instead of being created again from the test files.
+ * Tests and data tables are returned sorted by path, so the discovery result does not depend on the scan order.
+ * The manifest is plain JSON data kept in the temporary folder of the workspace (workspace@tmp), outside of the SCM checkout.
+ */
+public class UftTestDiscoveryScanner {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(UftTestDiscoveryScanner.class);
+	private static final String MANIFEST_FILE = "uft_discovery_manifest.json";
+	private static final int MANIFEST_VERSION = 1;
+	private static final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+	private static final Set<String> SKIPPED_FOLDERS = new HashSet<>(Arrays.asList(".git", ".svn", ".hg"));
+
+	private final File rootDir;
+	private final Map<String, TestFolderEntry> previousManifest;
+	private final Map<String, TestFolderEntry> manifest = new ConcurrentHashMap<>();
+	private final Queue<AutomatedTest> tests = new ConcurrentLinkedQueue<>();
+	private final Queue<ScmResourceFile> dataTables = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger reusedTests = new AtomicInteger();
+
+	private UftTestDiscoveryScanner(File rootDir, Map<String, TestFolderEntry> previousManifest) {
+		this.rootDir = rootDir;
+		this.previousManifest = previousManifest;
+	}
+
+	public static UftTestDiscoveryResult doFullDiscovery(File rootDir) {
+		return doFullDiscovery(rootDir, true);
+	}
+
+	/**
+	 * @param useManifest if false, all tests are created from the test files and no manifest is read or written
+	 */
+	public static UftTestDiscoveryResult doFullDiscovery(File rootDir, boolean useManifest) {
+		return doFullDiscovery(rootDir, useManifest ? getManifestFile(rootDir) : null);
+	}
+
+	/**
+	 * @param manifestFile the manifest of the previous discovery, if null all tests are created from the test files
+	 */
+	static UftTestDiscoveryResult doFullDiscovery(File rootDir, File manifestFile) {
+		Map<String, TestFolderEntry> previousManifest = manifestFile != null ? readManifest(manifestFile) : Collections.emptyMap();
+		UftTestDiscoveryScanner scanner = new UftTestDiscoveryScanner(rootDir, previousManifest);
+
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			pool.invoke(scanner.new ScanFolderAction(rootDir));
+		} finally {
+			pool.shutdown();
+		}
+
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		List<AutomatedTest> sortedTests = new ArrayList<>(scanner.tests);
+		sortedTests.sort(Comparator.comparing((AutomatedTest test) -> String.valueOf(test.getPackage()))
+				.thenComparing(test -> String.valueOf(test.getName())));
+		result.getAllTests().addAll(sortedTests);
+		List<ScmResourceFile> sortedDataTables = new ArrayList<>(scanner.dataTables);
+		sortedDataTables.sort(Comparator.comparing((ScmResourceFile dataTable) -> String.valueOf(dataTable.getRelativePath())));
+		result.getAllScmResourceFiles().addAll(sortedDataTables);
+		logger.info(String.format("Full discovery of %s : found %s tests (%s unchanged since previous discovery) and %s data tables",
+				rootDir, scanner.tests.size(), scanner.reusedTests.get(), scanner.dataTables.size()));
+
+		if (manifestFile != null) {
+			writeManifest(manifestFile, scanner.manifest);
+		}
+		return result;
+	}
+
+	private void scanFolder(File dir, List<ScanFolderAction> subFolderActions) {
+		File[] paths = dir.listFiles();
+
+		//if it test folder - create new test, else drill down to subFolders
+		UftTestType testType = UftTestDiscoveryUtils.isUftTestFolder(paths);
+		if (!testType.isNone()) {
+			tests.add(getTest(dir, paths, testType));
+		} else if (paths != null) {
+			for (File path : paths) {
+				if (path.isDirectory()) {
+					if (!SKIPPED_FOLDERS.contains(path.getName())) {
+						subFolderActions.add(new ScanFolderAction(path));
+					}
+				} else if (UftTestDiscoveryUtils.isUftDataTableFile(path.getName())) {
+					dataTables.add(UftTestDiscoveryUtils.createDataTable(rootDir, path));
+				}
+			}
+		}
+	}
+
+	private AutomatedTest getTest(File testFolder, File[] paths, UftTestType testType) {
+		String key = testFolder.getPath();
+		String signature = computeSignature(paths, testType);
+		TestFolderEntry entry = previousManifest.get(key);
+		if (entry != null && entry.signature.equals(signature)) {
+			reusedTests.incrementAndGet();
+		} else {
+			entry = new TestFolderEntry(signature, UftTestDiscoveryUtils.createAutomatedTest(rootDir, testFolder, testType));
+		}
+		manifest.put(key, entry);
+		return entry.test;
+	}
+
+	private static String computeSignature(File[] paths, UftTestType testType) {
+		StringBuilder sb = new StringBuilder(testType.name());
+		appendSignature(sb, "", paths);
+		return sb.toString();
+	}
+
+	/**
+	 * the sub folders of a test folder (actions, resources) are part of the test, so their files are included
+	 */
+	private static void appendSignature(StringBuilder sb, String prefix, File[] paths) {
+		if (paths == null) {
+			return;
+		}
+		File[] sorted = paths.clone();
+		Arrays.sort(sorted);
+		for (File path : sorted) {
+			String relativePath = prefix + path.getName();
+			if (path.isDirectory()) {
+				sb.append('|').append(relativePath).append('/');
+				appendSignature(sb, relativePath + "/", path.listFiles());
+			} else {
+				sb.append('|').append(relativePath).append(':').append(path.length()).append(':').append(path.lastModified());
+			}
+		}
+	}
+
+	static File getManifestFile(File rootDir) {
+		FilePath tempDir = WorkspaceList.tempDir(new FilePath(rootDir));
+		return new File(tempDir.getRemote(), MANIFEST_FILE);
+	}
+
+	private static Map<String, TestFolderEntry> readManifest(File manifestFile) {
+		if (manifestFile.exists()) {
+			try {
+				JsonNode root = objectMapper.readTree(manifestFile);
+				if (root.path("version").asInt() == MANIFEST_VERSION) {
+					Map<String, TestFolderEntry> manifest = new HashMap<>();
+					for (JsonNode entry : root.path("entries")) {
+						AutomatedTest test = objectMapper.treeToValue(entry.get("test"), AutomatedTest.class);
+						manifest.put(entry.get("path").asText(), new TestFolderEntry(entry.get("signature").asText(), test));
+					}
+					return manifest;
+				}
+			} catch (Exception e) {
+				logger.warn("Failed to read UFT discovery manifest, all tests will be created from test files : " + e.getMessage());
+			}
+		}
+		return Collections.emptyMap();
+	}
+
+	private static void writeManifest(File manifestFile, Map<String, TestFolderEntry> manifest) {
+		File tempFile = new File(manifestFile.getPath() + ".tmp");
+		manifestFile.getParentFile().mkdirs();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(new FileOutputStream(tempFile)), JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeNumberField("version", MANIFEST_VERSION);
+			generator.writeArrayFieldStart("entries");
+			for (Map.Entry<String, TestFolderEntry> entry : manifest.entrySet()) {
+				generator.writeStartObject();
+				generator.writeStringField("path", entry.getKey());
+				generator.writeStringField("signature", entry.getValue().signature);
+				generator.writeObjectField("test", entry.getValue().test);
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			generator.writeEndObject();
+		} catch (IOException e) {
+			logger.warn("Failed to write UFT discovery manifest : " + e.getMessage());
+			return;
+		}
+		try {
+			Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			logger.warn("Failed to replace UFT discovery manifest : " + e.getMessage());
+		}
+	}
+
+	private class ScanFolderAction extends RecursiveAction {
+		private final File dir;
+
+		private ScanFolderAction(File dir) {
+			this.dir = dir;
+		}
+
+		@Override
+		protected void compute() {
+			List<ScanFolderAction> subFolderActions = new ArrayList<>();
+			scanFolder(dir, subFolderActions);
+			invokeAll(subFolderActions);
+		}
+	}
+
+	private static class TestFolderEntry {
+		private final String signature;
+		private final AutomatedTest test;
+
+		private TestFolderEntry(String signature, AutomatedTest test) {
+			this.signature = signature;
+			this.test = test;
+		}
+	}
+}
@@ -126,12 +126,20 @@ public final class CIEventCausesFactory {
 	}
 
 	public static List<CIEventCause> processCauses(FlowNode flowNode) {
+		return processCauses(flowNode, null);
+	}
+
+	/**
+	 * @param flowNode  node to calculate the causes chain for
+	 * @param runCauses already calculated causes of the flow's run, when null - calculated from the run
+	 */
+	public static List<CIEventCause> processCauses(FlowNode flowNode, List<CIEventCause> runCauses) {
 		List<CIEventCause> causes = new LinkedList<>();
-		processCauses(flowNode, causes, new LinkedHashSet<>());
+		processCauses(flowNode, causes, new LinkedHashSet<>(), runCauses);
 		return causes;
 	}
 
-	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Set<FlowNode> startStagesToSkip) {
+	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Set<FlowNode> startStagesToSkip, List<CIEventCause> runCauses) {
 		//  we reached the start of the flow - add WorkflowRun as an initial UPSTREAM cause
 		if (flowNode.getParents().isEmpty()) {
 			WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
@@ -139,7 +147,7 @@ public final class CIEventCausesFactory {
 					.setType(CIEventCauseType.UPSTREAM)
 					.setProject(BuildHandlerUtils.getJobCiId(parentRun))
 					.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
-					.setCauses(CIEventCausesFactory.processCauses((parentRun)));
+					.setCauses(runCauses != null ? new ArrayList<>(runCauses) : CIEventCausesFactory.processCauses((parentRun)));
 			causes.add(cause);
 		}
 
@@ -151,7 +159,7 @@ public final class CIEventCausesFactory {
 		for (FlowNode parent : flowNode.getParents()) {
 			if (BuildHandlerUtils.isStageEndNode(parent)) {
 				startStagesToSkip.add(((StepEndNode) parent).getStartNode());
-				processCauses(parent, causes, startStagesToSkip);
+				processCauses(parent, causes, startStagesToSkip, runCauses);
 			} else if (BuildHandlerUtils.isStageStartNode(parent)) {
 				if (!startStagesToSkip.contains(parent)) {
 					CIEventCause cause = dtoFactory.newDTO(CIEventCause.class)
@@ -159,13 +167,13 @@ public final class CIEventCausesFactory {
 							.setProject(parent.getDisplayName())
 							.setBuildCiId(String.valueOf(BuildHandlerUtils.extractParentRun(parent).getNumber()));
 					causes.add(cause);
-					processCauses(parent, cause.getCauses(), startStagesToSkip);
+					processCauses(parent, cause.getCauses(), startStagesToSkip, runCauses);
 				} else {
 					startStagesToSkip.remove(parent);
-					processCauses(parent, causes, startStagesToSkip);
+					processCauses(parent, causes, startStagesToSkip, runCauses);
 				}
 			} else {
-				processCauses(parent, causes, startStagesToSkip);
+				processCauses(parent, causes, startStagesToSkip, runCauses);
 			}
 		}
 	}
@@ -0,0 +1,126 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized structure data of the jobs, calculated on first demand.
+ * Any item change (create, update, rename, move, delete, reload) may change the structure of other jobs, so all the cache is invalidated.
+ */
+public final class JobStructureCache {
+	private static final Map<String, Set<String>> internalJobNames = new ConcurrentHashMap<>();
+
+	private JobStructureCache() {
+	}
+
+	/**
+	 * @param parent  job that may invoke other jobs as its internal phases
+	 * @param jobName name of the invoked job
+	 * @return true if job is part of internal phases of the parent
+	 */
+	public static boolean isInternalJob(Job parent, String jobName) {
+		return getInternalJobNames(parent).contains(jobName);
+	}
+
+	/**
+	 * @return names of the jobs of the internal phases of the job
+	 */
+	public static Set<String> getInternalJobNames(Job job) {
+		return internalJobNames.computeIfAbsent(job.getFullName(), key -> collectInternalJobNames(job));
+	}
+
+	private static Set<String> collectInternalJobNames(Job job) {
+		//structure is calculated with full permissions, so it does not depend on the caller
+		try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+			Set<String> names = new HashSet<>();
+			List<PipelinePhase> phases = JobProcessorFactory.getFlowProcessor(job).getInternals();
+			for (PipelinePhase phase : phases) {
+				for (PipelineNode node : phase.getJobs()) {
+					if (node != null) {
+						names.add(node.getName());
+					}
+				}
+			}
+			return Collections.unmodifiableSet(names);
+		}
+	}
+
+	public static void invalidate() {
+		internalJobNames.clear();
+	}
+
+	@Extension
+	public static final class InvalidationListener extends ItemListener {
+		@Override
+		public void onCreated(Item item) {
+			invalidate();
+		}
+
+		@Override
+		public void onCopied(Item src, Item item) {
+			invalidate();
+		}
+
+		@Override
+		public void onUpdated(Item item) {
+			invalidate();
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			invalidate();
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			invalidate();
+		}
+
+		@Override
+		public void onLoaded() {
+			invalidate();
+		}
+	}
+}
@@ -39,6 +39,19 @@ public abstract class ResultFieldsDetectionExtension implements ExtensionPoint {
 
     public abstract ResultFields detect(Run<?,?> build) throws IOException, InterruptedException;
 
+    /**
+     * Adds the workspace files this extension looks for to the single workspace scan done per build
+     */
+    public void contributeToScan(Run<?,?> build, WorkspaceScan.Request request) throws IOException, InterruptedException {
+    }
+
+    /**
+     * Detection using the result of the workspace scan, the manifest is null if the workspace could not be scanned
+     */
+    public ResultFields detect(Run<?,?> build, WorkspaceScan.Manifest manifest) throws IOException, InterruptedException {
+        return detect(build);
+    }
+
     public static ExtensionList<ResultFieldsDetectionExtension> all() {
         return Jenkins.getInstanceOrNull().getExtensionList(ResultFieldsDetectionExtension.class);
     }
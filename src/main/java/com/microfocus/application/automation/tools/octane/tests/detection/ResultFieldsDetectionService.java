@@ -29,9 +29,13 @@
 package com.microfocus.application.automation.tools.octane.tests.detection;
 
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import hudson.FilePath;
 import hudson.model.Run;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+
 /**
  * Service used for auto detection of test results global parameters like test-framework, testing-tool, etc.
  */
@@ -39,9 +43,11 @@ public class ResultFieldsDetectionService {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(ResultFieldsDetectionService.class);
 
 	public ResultFields getDetectedFields(Run<?,?> build) throws InterruptedException {
-		for (ResultFieldsDetectionExtension ext : ResultFieldsDetectionExtension.all()) {
+		List<ResultFieldsDetectionExtension> extensions = ResultFieldsDetectionExtension.all();
+		WorkspaceScan.Manifest manifest = scanWorkspace(build, extensions);
+		for (ResultFieldsDetectionExtension ext : extensions) {
 			try {
-				ResultFields fields = ext.detect(build);
+				ResultFields fields = ext.detect(build, manifest);
 				if (fields != null) {
 					return fields;
 				}
@@ -54,4 +60,37 @@ public class ResultFieldsDetectionService {
 		}
 		return null;
 	}
+
+	private static WorkspaceScan.Manifest scanWorkspace(Run<?,?> build, List<ResultFieldsDetectionExtension> extensions) throws InterruptedException {
+		FilePath workspace;
+		try {
+			workspace = BuildHandlerUtils.getWorkspace(build);
+		} catch (Exception e) {
+			logger.error("Failed to get workspace of " + build, e);
+			return null;
+		}
+		if (workspace == null) {
+			return null;
+		}
+
+		WorkspaceScan.Request request = new WorkspaceScan.Request(workspace);
+		for (ResultFieldsDetectionExtension ext : extensions) {
+			try {
+				ext.contributeToScan(build, request);
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				logger.error("Error during preparing workspace scan of detection service: " + ext.getClass().getName(), e);
+			}
+		}
+		try {
+			return WorkspaceScan.scan(request);
+		} catch (InterruptedException e) {
+			logger.error("Interrupted during workspace scan of " + build, e);
+			throw e;
+		} catch (Exception e) {
+			logger.error("Error during workspace scan of " + build + ", detection extensions will scan on their own", e);
+			return null;
+		}
+	}
 }
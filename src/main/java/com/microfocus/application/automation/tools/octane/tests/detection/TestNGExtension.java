@@ -47,6 +47,7 @@ import org.jenkinsci.remoting.RoleChecker;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -97,6 +98,73 @@ public class TestNGExtension extends ResultFieldsDetectionExtension {
 		return null;
 	}
 
+	@Override
+	public void contributeToScan(Run<?, ?> build, WorkspaceScan.Request request) {
+		for (String testResultsPattern : getJUnitResultsPatterns(build)) {
+			request.addReportPattern(testResultsPattern, TESTNG_RESULT_FILE);
+		}
+		for (MavenBuild mavenBuild : getMavenBuildsWithTests(build)) {
+			String moduleFolder = request.relativize(mavenBuild.getWorkspace());
+			if (moduleFolder != null) {
+				for (String locationInWorkspace : supportedReportFileLocations) {
+					request.addLocation(moduleFolder + locationInWorkspace);
+				}
+			}
+		}
+	}
+
+	@Override
+	public ResultFields detect(Run<?, ?> build, WorkspaceScan.Manifest manifest) throws IOException, InterruptedException {
+		if (manifest == null) {
+			return detect(build);
+		}
+
+		if (!getJUnitResultsPatterns(build).isEmpty() && manifest.isMarkerFileFound(TESTNG_RESULT_FILE)) {
+			return new ResultFields(TESTNG, null, null);
+		}
+
+		for (MavenBuild mavenBuild : getMavenBuildsWithTests(build)) {
+			String moduleFolder = manifest.relativize(mavenBuild.getWorkspace());
+			boolean found = false;
+			if (moduleFolder == null) {
+				//module workspace is outside of the scanned workspace
+				found = mavenBuild.getWorkspace() != null && mavenBuild.getWorkspace().act(new TestNgResultsFileMavenFinder());
+			} else {
+				for (String locationInWorkspace : supportedReportFileLocations) {
+					found = found || manifest.exists(moduleFolder + locationInWorkspace);
+				}
+			}
+			if (found) {
+				return new ResultFields(TESTNG, null, null);
+			}
+		}
+		return null;
+	}
+
+	private static List<String> getJUnitResultsPatterns(Run<?, ?> build) {
+		List<String> patterns = new ArrayList<>();
+		if (build instanceof AbstractBuild) {
+			for (Object publisher : ((AbstractBuild<?, ?>) build).getProject().getPublishersList().toList()) {
+				if ("hudson.tasks.junit.JUnitResultArchiver".equals(publisher.getClass().getName())) {
+					patterns.add(((JUnitResultArchiver) publisher).getTestResults());
+				}
+			}
+		}
+		return patterns;
+	}
+
+	private static List<MavenBuild> getMavenBuildsWithTests(Run<?, ?> build) {
+		List<MavenBuild> mavenBuilds = new ArrayList<>();
+		if ("hudson.maven.MavenBuild".equals(build.getClass().getName())) {
+			mavenBuilds.add((MavenBuild) build);
+		} else if ("hudson.maven.MavenModuleSetBuild".equals(build.getClass().getName())) {
+			mavenBuilds.addAll(((MavenModuleSetBuild) build).getModuleLastBuilds().values());
+		}
+		//try finding only if the maven build includes tests
+		mavenBuilds.removeIf(mavenBuild -> mavenBuild.getAction(AbstractTestResultAction.class) == null);
+		return mavenBuilds;
+	}
+
 	boolean findTestNgResultsFile(MavenBuild mavenBuild) throws IOException, InterruptedException {
 		AbstractTestResultAction action = mavenBuild.getAction(AbstractTestResultAction.class);
 		//try finding only if the maven build includes tests
@@ -0,0 +1,209 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.detection;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.lang.StringUtils;
+import org.apache.tools.ant.DirectoryScanner;
+import org.apache.tools.ant.types.FileSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Single agent side pass over a build workspace, collecting the files needed by all the detection extensions.
+ * Extensions add what they look for to a {@link Request}, the workspace is scanned once and every extension
+ * gets its answers from the returned {@link Manifest}.
+ */
+public final class WorkspaceScan {
+
+	private WorkspaceScan() {
+	}
+
+	public static Manifest scan(Request request) throws IOException, InterruptedException {
+		Manifest manifest = request.isEmpty() ?
+				new Manifest(Collections.emptySet(), Collections.emptySet()) :
+				request.getWorkspace().act(new ScanCallable(request.reportPatterns, request.markerFiles, request.locations));
+		manifest.workspace = request.getWorkspace();
+		return manifest;
+	}
+
+	/**
+	 * @return path of the given folder relative to the workspace ending with '/', or null if it is not inside of it
+	 */
+	static String relativize(FilePath workspace, FilePath folder) {
+		if (workspace == null || folder == null || folder.getChannel() != workspace.getChannel()) {
+			return null;
+		}
+		String root = workspace.getRemote();
+		String remote = folder.getRemote();
+		if (remote.equals(root)) {
+			return "";
+		}
+		if (remote.startsWith(root) && (remote.charAt(root.length()) == '/' || remote.charAt(root.length()) == '\\')) {
+			return remote.substring(root.length() + 1).replace('\\', '/') + "/";
+		}
+		return null;
+	}
+
+	/**
+	 * What the extensions look for in the workspace
+	 */
+	public static final class Request {
+		private final FilePath workspace;
+		private final Set<String> reportPatterns = new LinkedHashSet<>();
+		private final Set<String> markerFiles = new LinkedHashSet<>();
+		private final Set<String> locations = new LinkedHashSet<>();
+
+		public Request(FilePath workspace) {
+			this.workspace = workspace;
+		}
+
+		public FilePath getWorkspace() {
+			return workspace;
+		}
+
+		/**
+		 * @param pattern    ant pattern of test reports, relative to the workspace
+		 * @param markerFile file name looked up in the folders of the matching reports
+		 */
+		public Request addReportPattern(String pattern, String markerFile) {
+			if (StringUtils.isNotEmpty(pattern)) {
+				reportPatterns.add(pattern);
+				markerFiles.add(markerFile);
+			}
+			return this;
+		}
+
+		/**
+		 * @param location path relative to the workspace, its existence is reported in the manifest
+		 */
+		public Request addLocation(String location) {
+			locations.add(location);
+			return this;
+		}
+
+		/**
+		 * @return path of the given folder relative to the scanned workspace, or null if it is not inside of it
+		 */
+		public String relativize(FilePath folder) {
+			return WorkspaceScan.relativize(workspace, folder);
+		}
+
+		public boolean isEmpty() {
+			return reportPatterns.isEmpty() && locations.isEmpty();
+		}
+	}
+
+	/**
+	 * Result of the scan
+	 */
+	public static final class Manifest implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final Set<String> markerFilesFound;
+		private final Set<String> existingLocations;
+		private transient FilePath workspace;
+
+		Manifest(Set<String> markerFilesFound, Set<String> existingLocations) {
+			this.markerFilesFound = markerFilesFound;
+			this.existingLocations = existingLocations;
+		}
+
+		/**
+		 * @return true if the marker file was found next to at least one report
+		 */
+		public boolean isMarkerFileFound(String markerFile) {
+			return markerFilesFound.contains(markerFile);
+		}
+
+		public boolean exists(String location) {
+			return existingLocations.contains(location);
+		}
+
+		/**
+		 * @return path of the given folder relative to the scanned workspace, or null if it is not inside of it
+		 */
+		public String relativize(FilePath folder) {
+			return WorkspaceScan.relativize(workspace, folder);
+		}
+	}
+
+	private static final class ScanCallable extends MasterToSlaveFileCallable<Manifest> {
+		private static final long serialVersionUID = 1L;
+		private final Set<String> reportPatterns;
+		private final Set<String> markerFiles;
+		private final Set<String> locations;
+
+		private ScanCallable(Set<String> reportPatterns, Set<String> markerFiles, Set<String> locations) {
+			this.reportPatterns = reportPatterns;
+			this.markerFiles = markerFiles;
+			this.locations = locations;
+		}
+
+		@Override
+		public Manifest invoke(File workspace, VirtualChannel channel) {
+			Set<String> markerFilesFound = new HashSet<>();
+			if (!reportPatterns.isEmpty() && workspace.isDirectory()) {
+				//all the patterns are matched in a single walk of the workspace
+				FileSet fs = Util.createFileSet(workspace, String.join(",", reportPatterns));
+				DirectoryScanner ds = fs.getDirectoryScanner();
+				Set<File> reportFolders = new HashSet<>();
+				for (String path : ds.getIncludedFiles()) {
+					File reportFolder = new File(ds.getBasedir(), path).getParentFile();
+					if (reportFolders.add(reportFolder)) {
+						for (String markerFile : markerFiles) {
+							if (!markerFilesFound.contains(markerFile) && new File(reportFolder, markerFile).exists()) {
+								markerFilesFound.add(markerFile);
+							}
+						}
+					}
+					if (markerFilesFound.size() == markerFiles.size()) {
+						break;
+					}
+				}
+			}
+
+			Set<String> existingLocations = new HashSet<>();
+			for (String location : locations) {
+				if (new File(workspace, location).exists()) {
+					existingLocations.add(location);
+				}
+			}
+			return new Manifest(markerFilesFound, existingLocations);
+		}
+	}
+}
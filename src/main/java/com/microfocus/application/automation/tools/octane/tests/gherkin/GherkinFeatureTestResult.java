@@ -0,0 +1,100 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.gherkin;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Single gherkin feature, kept as the xml events read from the results file and replayed into mqmTests.xml
+ */
+public class GherkinFeatureTestResult implements XmlWritableTestResult {
+
+	private final String name;
+	private final long duration;
+	private final TestResultStatus status;
+	private final List<XMLEvent> featureEvents;
+
+	public GherkinFeatureTestResult(String name, long duration, TestResultStatus status, List<XMLEvent> featureEvents) {
+		this.name = name;
+		this.duration = duration;
+		this.status = status;
+		this.featureEvents = featureEvents;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	public TestResultStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public void writeXmlElement(XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement("gherkin_test_run");
+		writer.writeAttribute("name", name);
+		writer.writeAttribute("duration", String.valueOf(duration));
+		writer.writeAttribute("status", status.toPrettyName());
+		for (XMLEvent event : featureEvents) {
+			if (event.isStartElement()) {
+				StartElement startElement = event.asStartElement();
+				writer.writeStartElement(startElement.getName().getLocalPart());
+				Iterator<?> attributes = startElement.getAttributes();
+				while (attributes.hasNext()) {
+					Attribute attribute = (Attribute) attributes.next();
+					writer.writeAttribute(attribute.getName().getLocalPart(), attribute.getValue());
+				}
+			} else if (event.isEndElement()) {
+				writer.writeEndElement();
+			} else if (event.isCharacters()) {
+				Characters characters = event.asCharacters();
+				if (characters.isCData()) {
+					writer.writeCData(characters.getData());
+				} else {
+					writer.writeCharacters(characters.getData());
+				}
+			}
+		}
+		writer.writeEndElement(); // gherkin_test_run
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.gherkin;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import hudson.util.IOUtils;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates gherkin features over several results files, a file is opened only when the previous one is exhausted.
+ * The root element of all files is checked when the iterator is created, so a wrong file fails before any result is written.
+ */
+public class GherkinResultsIterator implements Iterator<XmlWritableTestResult> {
+
+	private final Iterator<File> files;
+	private GherkinXmlIterator current;
+
+	public GherkinResultsIterator(List<File> files) {
+		for (File file : files) {
+			if (file.exists()) {
+				GherkinXmlIterator iterator = open(file);
+				try {
+					iterator.validateRoot();
+				} catch (XMLStreamException e) {
+					throw new IllegalStateException("Error while processing gherkin test results", e);
+				} finally {
+					iterator.close();
+				}
+			}
+		}
+		this.files = files.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			while (current == null || !current.hasNext()) {
+				current = null;
+				if (!files.hasNext()) {
+					return false;
+				}
+				File file = files.next();
+				if (file.exists()) {
+					current = open(file);
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			closeCurrent();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while processing gherkin test results", e);
+		} catch (XMLStreamException | IOException e) {
+			closeCurrent();
+			throw new IllegalStateException("Error while processing gherkin test results", e);
+		} catch (RuntimeException e) {
+			closeCurrent();
+			throw e;
+		}
+	}
+
+	@Override
+	public XmlWritableTestResult next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		try {
+			return current.next();
+		} catch (InterruptedException e) {
+			closeCurrent();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while processing gherkin test results", e);
+		} catch (XMLStreamException | IOException e) {
+			closeCurrent();
+			throw new IllegalStateException("Error while processing gherkin test results", e);
+		} catch (RuntimeException e) {
+			closeCurrent();
+			throw e;
+		}
+	}
+
+	private static GherkinXmlIterator open(File file) {
+		InputStream is = null;
+		try {
+			is = new BufferedInputStream(new FileInputStream(file));
+			return new GherkinXmlIterator(is);
+		} catch (XMLStreamException | IOException e) {
+			IOUtils.closeQuietly(is);
+			throw new IllegalStateException("Error while processing gherkin test results", e);
+		}
+	}
+
+	private void closeCurrent() {
+		if (current != null) {
+			current.close();
+			current = null;
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
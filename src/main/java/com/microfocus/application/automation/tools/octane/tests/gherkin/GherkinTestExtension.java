@@ -29,7 +29,6 @@
 package com.microfocus.application.automation.tools.octane.tests.gherkin;
 
 import com.hp.octane.integrations.testresults.GherkinUtils;
-import com.hp.octane.integrations.testresults.XmlWritableTestResult;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberResultsService;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberTestResultsAction;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
@@ -66,10 +65,7 @@ public class GherkinTestExtension extends OctaneTestsExtension {
 		try {
 			List<File> gherkinFiles = GherkinUtils.findGherkinFilesByTemplateWithCounter(build.getRootDir().getAbsolutePath(),
 					CucumberResultsService.GHERKIN_NGA_RESULTS + "%s.xml", 0);
-			List<XmlWritableTestResult> testResults = GherkinUtils.parseFiles(gherkinFiles);
-			return new TestResultContainer(testResults.iterator(), null);
-		} catch (IOException e) {
-			throw e;
+			return new TestResultContainer(new GherkinResultsIterator(gherkinFiles), null);
 		} catch (Exception e) {
 			throw new TestProcessingException("Error while processing gherkin test results", e);
 		}
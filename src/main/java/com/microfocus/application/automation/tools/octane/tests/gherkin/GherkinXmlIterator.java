@@ -0,0 +1,273 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.gherkin;
+
+import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
+import com.microfocus.application.automation.tools.octane.tests.xml.AbstractXmlIterator;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Octane gherkin results parser, emits one feature at a time so only the feature being read is held in memory.
+ * Embedded attachments are dropped and other texts (except the feature file itself) are capped.
+ */
+public class GherkinXmlIterator extends AbstractXmlIterator<GherkinFeatureTestResult> {
+
+	static final String XML_VERSION = "1";
+	static final int MAX_TEXT_LENGTH = Integer.getInteger("GherkinXmlIterator.MaxTextLength", 64 * 1024);
+	private static final Set<String> EMBEDDED_ELEMENTS = new HashSet<>(Arrays.asList("embeddings", "embedding", "attachments", "attachment"));
+
+	private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+	private boolean rootValidated;
+
+	private List<XMLEvent> featureEvents;
+	private String featureName;
+	private int featureDepth;
+	private int skippedDepth;
+	private boolean inFeatureFile;
+	private int textLength;
+
+	private long featureDuration;
+	private TestResultStatus featureStatus;
+	private boolean inBackground;
+	private long backgroundDuration;
+	private TestResultStatus backgroundStatus;
+	private boolean inScenario;
+	private long scenarioDuration;
+	private TestResultStatus scenarioStatus;
+
+	public GherkinXmlIterator(InputStream is) throws XMLStreamException {
+		super(is);
+	}
+
+	/**
+	 * Reads up to the root element and checks it, without reading any feature
+	 */
+	public void validateRoot() throws XMLStreamException {
+		while (!rootValidated && reader.hasNext()) {
+			onEvent(reader.nextEvent());
+		}
+	}
+
+	@Override
+	protected void onEvent(XMLEvent event) {
+		if (!rootValidated) {
+			if (event.isStartElement()) {
+				validateRoot(event.asStartElement());
+				rootValidated = true;
+			}
+		} else if (featureEvents != null) {
+			onFeatureEvent(event);
+		} else if (event.isStartElement() && "feature".equals(localName(event.asStartElement()))) {
+			startFeature(event.asStartElement());
+		}
+	}
+
+	private static void validateRoot(StartElement root) {
+		if (!"features".equals(localName(root))) {
+			throw new IllegalArgumentException("The file does not contain Octane Gherkin results. Configuration error?");
+		}
+		String version = getAttribute(root, "version");
+		if (!XML_VERSION.equals(version)) {
+			throw new IllegalArgumentException("Incompatible xml version received from the Octane formatter: expected version = " +
+					XML_VERSION + ", actual version = " + version + ". You may need to update the octane formatter version to the correct version in order to work with this jenkins plugin");
+		}
+	}
+
+	private void startFeature(StartElement feature) {
+		featureEvents = new ArrayList<>();
+		featureEvents.add(feature);
+		featureName = getAttribute(feature, "name");
+		featureDepth = 1;
+		textLength = 0;
+		featureDuration = 0;
+		featureStatus = TestResultStatus.PASSED;
+		backgroundDuration = 0;
+		backgroundStatus = TestResultStatus.PASSED;
+	}
+
+	private void onFeatureEvent(XMLEvent event) {
+		if (skippedDepth > 0) {
+			if (event.isStartElement()) {
+				skippedDepth++;
+			} else if (event.isEndElement()) {
+				skippedDepth--;
+			}
+		} else if (event.isStartElement()) {
+			onStartElement(event.asStartElement());
+		} else if (event.isEndElement()) {
+			onEndElement(event.asEndElement());
+		} else if (event.isCharacters()) {
+			onCharacters(event.asCharacters());
+		}
+	}
+
+	private void onStartElement(StartElement element) {
+		String name = localName(element);
+		if (EMBEDDED_ELEMENTS.contains(name)) {
+			skippedDepth = 1;
+			return;
+		}
+		featureDepth++;
+		textLength = 0;
+		featureEvents.add(element);
+		switch (name) {
+			case "file":
+				inFeatureFile = true;
+				break;
+			case "background":
+				inBackground = true;
+				break;
+			case "scenario":
+				inScenario = true;
+				scenarioDuration = backgroundDuration;
+				scenarioStatus = backgroundStatus;
+				break;
+			case "step":
+				onStep(element);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void onStep(StartElement step) {
+		long stepDuration = parseDuration(getAttribute(step, "duration"));
+		TestResultStatus stepStatus = parseStepStatus(getAttribute(step, "status"));
+		if (inBackground) {
+			backgroundDuration += stepDuration;
+			backgroundStatus = worse(backgroundStatus, stepStatus);
+		} else if (inScenario) {
+			scenarioDuration += stepDuration;
+			scenarioStatus = worse(scenarioStatus, stepStatus);
+		}
+	}
+
+	private void onEndElement(EndElement element) {
+		featureDepth--;
+		textLength = 0;
+		featureEvents.add(element);
+		switch (localName(element)) {
+			case "file":
+				inFeatureFile = false;
+				break;
+			case "background":
+				inBackground = false;
+				break;
+			case "scenario":
+				inScenario = false;
+				featureDuration += scenarioDuration;
+				featureStatus = worse(featureStatus, scenarioStatus);
+				break;
+			default:
+				break;
+		}
+		if (featureDepth == 0) {
+			addItem(new GherkinFeatureTestResult(featureName, featureDuration, featureStatus, featureEvents));
+			featureEvents = null;
+		}
+	}
+
+	private void onCharacters(Characters characters) {
+		if (inFeatureFile) {
+			featureEvents.add(characters);
+			return;
+		}
+		int remaining = MAX_TEXT_LENGTH - textLength;
+		if (remaining <= 0) {
+			return;
+		}
+		String data = characters.getData();
+		if (data.length() <= remaining) {
+			featureEvents.add(characters);
+			textLength += data.length();
+		} else {
+			String capped = data.substring(0, remaining);
+			featureEvents.add(characters.isCData() ? eventFactory.createCData(capped) : eventFactory.createCharacters(capped));
+			textLength = MAX_TEXT_LENGTH;
+		}
+	}
+
+	private static long parseDuration(String duration) {
+		if (duration == null || duration.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(duration);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static TestResultStatus parseStepStatus(String status) {
+		if ("failed".equalsIgnoreCase(status)) {
+			return TestResultStatus.FAILED;
+		} else if ("skipped".equalsIgnoreCase(status) || "pending".equalsIgnoreCase(status) || "undefined".equalsIgnoreCase(status)) {
+			return TestResultStatus.SKIPPED;
+		} else {
+			return TestResultStatus.PASSED;
+		}
+	}
+
+	private static TestResultStatus worse(TestResultStatus first, TestResultStatus second) {
+		if (first == TestResultStatus.FAILED || second == TestResultStatus.FAILED) {
+			return TestResultStatus.FAILED;
+		} else if (first == TestResultStatus.SKIPPED || second == TestResultStatus.SKIPPED) {
+			return TestResultStatus.SKIPPED;
+		} else {
+			return TestResultStatus.PASSED;
+		}
+	}
+
+	private static String localName(StartElement element) {
+		return element.getName().getLocalPart();
+	}
+
+	private static String localName(EndElement element) {
+		return element.getName().getLocalPart();
+	}
+
+	private static String getAttribute(StartElement element, String name) {
+		Attribute attribute = element.getAttributeByName(new QName(name));
+		return attribute != null ? attribute.getValue() : null;
+	}
+}
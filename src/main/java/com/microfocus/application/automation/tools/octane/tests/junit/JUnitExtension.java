@@ -60,10 +60,6 @@ import org.jenkinsci.remoting.RoleChecker;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -180,7 +176,6 @@ public class JUnitExtension extends OctaneTestsExtension {
 			this.stripPackageAndClass = stripPackageAndClass;
 			this.hpRunnerType = hpRunnerType;
 			this.jenkinsRootUrl = jenkinsRootUrl;
-			String buildRootDir = build.getRootDir().getCanonicalPath();
 			this.sharedCheckOutDirectory = CheckOutSubDirEnvContributor.getSharedCheckOutDirectory(build.getParent());
 			if (sharedCheckOutDirectory == null && (HPRunnerType.UFT.equals(hpRunnerType) || HPRunnerType.UFT_MBT.equals(hpRunnerType))) {
 				ParametersAction parameterAction = build.getAction(ParametersAction.class);
@@ -199,26 +194,12 @@ public class JUnitExtension extends OctaneTestsExtension {
 
 			if (HPRunnerType.UFT.equals(hpRunnerType) || HPRunnerType.UFT_MBT.equals(hpRunnerType)) {
 
-				//extract folder names for created tests
-				String reportFolder = buildRootDir + "/archive/UFTReport";
-				List<String> testFolderNames = new ArrayList<>();
-				testFolderNames.add(build.getRootDir().getAbsolutePath());
-				File reportFolderFile = new File(reportFolder);
-				if (reportFolderFile.exists()) {
-					File[] children = reportFolderFile.listFiles();
-					if (children != null) {
-						for (File child : children) {
-							testFolderNames.add(child.getName());
-						}
-					}
-				}
-				additionalContext = testFolderNames;
+				//index folder names for created tests
+				additionalContext = UftReportFolderIndex.create(build.getRootDir());
 			}
 			if (HPRunnerType.StormRunnerLoad.equals(hpRunnerType)) {
 				try {
-					File file = new File(build.getRootDir(), "log");
-					Path path = Paths.get(file.getPath());
-					additionalContext = Files.readAllLines(path, StandardCharsets.UTF_8);
+					additionalContext = getStormRunnerReportUrls(build);
 				} catch (Exception e) {
 					logger.error("Failed to add log file for StormRunnerLoad :" + e.getMessage());
 				}
@@ -240,6 +221,23 @@ public class JUnitExtension extends OctaneTestsExtension {
 
 		}
 
+		/**
+		 * Scans the build log line by line and keeps only the StormRunner report links,
+		 * so memory depends on the number of links and not on the log size
+		 */
+		private static List<String> getStormRunnerReportUrls(Run<?, ?> build) throws IOException {
+			List<String> reportUrls = new ArrayList<>();
+			try (BufferedReader reader = new BufferedReader(build.getLogReader())) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.regionMatches(true, 0, JUnitXmlIterator.SRL_VIEW_REPORT_PREFIX, 0, JUnitXmlIterator.SRL_VIEW_REPORT_PREFIX.length())) {
+						reportUrls.add(line.substring(JUnitXmlIterator.SRL_VIEW_REPORT_PREFIX.length()).trim());
+					}
+				}
+			}
+			return reportUrls;
+		}
+
 		@Override
 		public FilePath invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
 			OutputStream os = filePath.write();
@@ -32,7 +32,6 @@ import com.hp.octane.integrations.dto.DTOFactory;
 import com.hp.octane.integrations.dto.tests.Property;
 import com.hp.octane.integrations.dto.tests.TestSuite;
 import com.hp.octane.integrations.executor.converters.MfUftConverter;
-import com.hp.octane.integrations.uft.ufttestresults.UftTestResultsUtils;
 import com.hp.octane.integrations.utils.SdkConstants;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
@@ -52,9 +51,9 @@ import java.io.InputStream;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.text.ParseException;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -81,7 +80,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 	private String errorType;
 	private String errorMsg;
 	private String externalURL;
-	private String uftResultFilePath;
+	private String uftReportFolder;
 	private String description;
 	private List<ModuleDetection> moduleDetection;
 	private String jenkinsRootUrl;
@@ -89,8 +88,13 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 	private Object additionalContext;
 	private String filePath;
 	public static final String SRL_REPORT_URL = "reportUrl";
+	//console contains link to report, link starts with "View report at:"
+	public static final String SRL_VIEW_REPORT_PREFIX = "view report at:";
 	private Pattern testParserRegEx;
 	private String externalRunId;
+	private final Map<String, String> canonicalPaths = new HashMap<>();
+	private String uftTestPathPrefix;
+	private final Map<String, String> stormRunnerReportUrls = new HashMap<>();
 
 	public JUnitXmlIterator(InputStream read, List<ModuleDetection> moduleDetection, FilePath workspace, String sharedCheckOutDirectory, String jobName, String buildId, long buildStarted, boolean stripPackageAndClass, HPRunnerType hpRunnerType, String jenkinsRootUrl, Object additionalContext,Pattern testParserRegEx) throws XMLStreamException {
 		super(read);
@@ -148,7 +152,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 				errorMsg = "";
 				externalURL = "";
 				description = "";
-				uftResultFilePath = "";
+				uftReportFolder = null;
 				moduleName = moduleNameFromFile;
 			} else if ("className".equals(localName)) { // NON-NLS
 				String fqn = readNextValue();
@@ -184,7 +188,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
                 if (hpRunnerType.equals(HPRunnerType.UFT)|| hpRunnerType.equals(HPRunnerType.UFT_MBT)) {
 					if (testName != null && testName.contains("..")) { //resolve existence of ../ - for example c://a/../b => c://b
-						testName = new File(testName).getCanonicalPath();
+						testName = getCanonicalPath(testName);
 					}
 
                     String myPackageName = packageName;
@@ -195,7 +199,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
 					// if workspace is prefix of the method name, cut it off
 					// currently this handling is needed for UFT tests
-					int uftTextIndexStart = getUftTestIndexStart(workspace, sharedCheckOutDirectory, testName);
+					int uftTextIndexStart = getUftTestIndexStart(testName);
 					if (uftTextIndexStart != -1) {
 						String path = testName.substring(uftTextIndexStart).replace(SdkConstants.FileSystem.LINUX_PATH_SPLITTER, SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);;
 						if(path.startsWith(MfUftConverter.MBT_PARENT_SUB_DIR)){//remove MBT prefix
@@ -219,23 +223,19 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
 					String cleanedTestName = cleanTestName(testName);
 					boolean testReportCreated = true;
-					if (additionalContext != null && additionalContext instanceof List) {
+					if (additionalContext instanceof UftReportFolderIndex) {
 						//test folders are appear in the following format GUITest1[1], while [1] number of test. It possible that tests with the same name executed in the same job
 						//by adding [1] or [2] we can differentiate between different instances.
-						//We assume that test folders are sorted so in this section, once we found the test folder, we remove it from collection , in order to find the second instance in next iteration
-						List<String> createdTests = (List<String>) additionalContext;
-						String searchFor = cleanedTestName + "[";
-						Optional<String> optional = createdTests.stream().filter(str -> str.startsWith(searchFor)).findFirst();
-						if (optional.isPresent()) {
-							cleanedTestName = optional.get();
-							createdTests.remove(cleanedTestName);
+						//once we found the test folder, the index removes it, in order to find the second instance in next iteration
+						String reportFolder = ((UftReportFolderIndex) additionalContext).pollReportFolder(cleanedTestName);
+						if (reportFolder != null) {
+							cleanedTestName = reportFolder;
 						}
-						testReportCreated = optional.isPresent();
+						testReportCreated = reportFolder != null;
 					}
 
-					//workspace.createTextTempFile("build" + buildId + "." + cleanTestName(testName) + ".", "", "Created  " + testReportCreated);
 					if (testReportCreated) {
-						uftResultFilePath = ((List<String>) additionalContext).get(0) +"\\archive\\UFTReport\\" + cleanedTestName + "\\run_results.xml";
+						uftReportFolder = additionalContext instanceof UftReportFolderIndex ? cleanedTestName : null;
 						externalURL = jenkinsRootUrl + "job/" + jobName + "/" + buildId + "/artifact/UFTReport/" + cleanedTestName + "/run_results.html";
 					} else {
 						//if UFT didn't created test results page - add reference to Jenkins test results page
@@ -244,9 +244,9 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 				} else if (hpRunnerType.equals(HPRunnerType.PerformanceCenter)) {
 					externalURL = jenkinsRootUrl + "job/" + jobName + "/" + buildId + "/artifact/performanceTestsReports/pcRun/Report.html";
 				} else if (hpRunnerType.equals(HPRunnerType.StormRunnerLoad)) {
-					externalURL = tryGetStormRunnerReportURLFromJunitFile(filePath);
-					if (StringUtils.isEmpty(externalURL) && additionalContext != null && additionalContext instanceof Collection) {
-						externalURL = tryGetStormRunnerReportURLFromLog((Collection) additionalContext);
+					externalURL = stormRunnerReportUrls.computeIfAbsent(filePath, JUnitXmlIterator::tryGetStormRunnerReportURLFromJunitFile);
+					if (StringUtils.isEmpty(externalURL) && additionalContext instanceof List && !((List) additionalContext).isEmpty()) {
+						externalURL = (String) ((List) additionalContext).get(0);
 					}
 				}
 			} else if ("duration".equals(localName)) { // NON-NLS
@@ -310,36 +310,26 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
 
 	private void parseUftErrorMessages() {
-		try {
-			if (StringUtils.isNotEmpty(uftResultFilePath)) {
-				String msg = UftTestResultsUtils.getAggregatedErrorMessage(UftTestResultsUtils.getErrorData(new File(uftResultFilePath)));
-				if (msg.length() >= 255) {
-					msg = msg.substring(0, 250) +" ...";
-				}
-				if (StringUtils.isNotEmpty(msg)) {
-					errorMsg = msg;
-				}
+		if (uftReportFolder != null) {
+			String msg = ((UftReportFolderIndex) additionalContext).getErrorMessage(uftReportFolder);
+			if (StringUtils.isNotEmpty(msg)) {
+				errorMsg = msg;
 			}
-		} catch (Exception e) {
-			logger.error("Failed to parseUftErrorMessages" + e.getMessage());
 		}
 	}
 
-	private static String tryGetStormRunnerReportURLFromLog(Collection logLines) {
-		//console contains link to report
-		//link start with "View report:"
-		String VIEW_REPORT_PREFIX = "view report at:";
-		for (Object str : logLines) {
-			if (str instanceof String && ((String) str).toLowerCase().startsWith(VIEW_REPORT_PREFIX)) {
-				return  ((String) str).substring(VIEW_REPORT_PREFIX.length()).trim();
-			}
+	private String getCanonicalPath(String path) throws IOException {
+		String canonicalPath = canonicalPaths.get(path);
+		if (canonicalPath == null) {
+			canonicalPath = new File(path).getCanonicalPath();
+			canonicalPaths.put(path, canonicalPath);
 		}
-		return "";
+		return canonicalPath;
 	}
 
 	private static String tryGetStormRunnerReportURLFromJunitFile(String path) {
 		try {
-			String srUrl = null;
+			String srUrl = "";
 			File srReport = new File(path);
 			if (srReport.exists()) {
 				TestSuite testSuite = DTOFactory.getInstance().dtoFromXmlFile(srReport, TestSuite.class);
@@ -368,24 +358,14 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 		return result;
 	}
 
-	private int getUftTestIndexStart(FilePath workspace, String sharedCheckOutDirectory, String testName) {
+	private int getUftTestIndexStart(String testName) {
 		int returnIndex = -1;
 		try {
-			if (sharedCheckOutDirectory == null) {
-				sharedCheckOutDirectory = "";
+			if (uftTestPathPrefix == null) {
+				uftTestPathPrefix = getUftTestPathPrefix();
 			}
-			String pathToTest;
-			if (StringUtils.isEmpty(sharedCheckOutDirectory)) {
-				pathToTest = workspace.getRemote();
-			} else {
-				pathToTest = Paths.get(sharedCheckOutDirectory).isAbsolute() ?
-						sharedCheckOutDirectory :
-						Paths.get(workspace.getRemote(), sharedCheckOutDirectory).toFile().getCanonicalPath();
-			}
-
-
-			if (testName.toLowerCase().startsWith(pathToTest.toLowerCase())) {
-				returnIndex = pathToTest.length() + 1;
+			if (testName.regionMatches(true, 0, uftTestPathPrefix, 0, uftTestPathPrefix.length())) {
+				returnIndex = uftTestPathPrefix.length() + 1;
 			}
 		} catch (Exception e) {
 			logger.error(String.format("Failed to getUftTestIndexStart for testName '%s' and sharedCheckOutDirectory '%s' : %s", testName, sharedCheckOutDirectory, e.getMessage()), e);
@@ -393,6 +373,15 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 		return returnIndex;
 	}
 
+	private String getUftTestPathPrefix() throws IOException {
+		if (StringUtils.isEmpty(sharedCheckOutDirectory)) {
+			return workspace.getRemote();
+		}
+		return Paths.get(sharedCheckOutDirectory).isAbsolute() ?
+				sharedCheckOutDirectory :
+				getCanonicalPath(Paths.get(workspace.getRemote(), sharedCheckOutDirectory).toString());
+	}
+
 	private String cleanTestName(String testName) {
 		// subfolder\testname
 		if (testName.contains("\\")) {
@@ -0,0 +1,109 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.uft.ufttestresults.UftTestResultsUtils;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Index of the UFT report folders of a build (archive/UFTReport), built once per build.
+ * Report folders are named after the test with an instance suffix, for example GUITest1[1], GUITest1[2],
+ * so tests with the same name executed in the same job can be differentiated.
+ */
+public class UftReportFolderIndex implements Serializable {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(UftReportFolderIndex.class);
+	private static final String UFT_REPORT_FOLDER = "archive" + File.separator + "UFTReport";
+	private static final String RUN_RESULTS_XML = "run_results.xml";
+	private static final int MAX_ERROR_MESSAGE_LENGTH = 255;
+
+	private final String reportFolder;
+	private final Map<String, Deque<String>> foldersByTestName = new HashMap<>();
+	private final Map<String, String> errorMessages = new HashMap<>();
+
+	UftReportFolderIndex(String reportFolder, Collection<String> folderNames) {
+		this.reportFolder = reportFolder;
+		for (String folderName : folderNames) {
+			int instanceIndex = folderName.lastIndexOf('[');
+			if (instanceIndex >= 0) {
+				foldersByTestName.computeIfAbsent(folderName.substring(0, instanceIndex), k -> new ArrayDeque<>()).add(folderName);
+			}
+		}
+	}
+
+	public static UftReportFolderIndex create(File buildRootDir) {
+		File reportFolderFile = new File(buildRootDir, UFT_REPORT_FOLDER);
+		List<String> folderNames = new ArrayList<>();
+		File[] children = reportFolderFile.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				folderNames.add(child.getName());
+			}
+		}
+		return new UftReportFolderIndex(reportFolderFile.getAbsolutePath(), folderNames);
+	}
+
+	/**
+	 * Returns the next report folder created for the test and removes it from the index,
+	 * so the next instance of a test with the same name gets the next folder.
+	 *
+	 * @return folder name or null if UFT did not create a report for the test
+	 */
+	public String pollReportFolder(String testName) {
+		Deque<String> folders = foldersByTestName.get(testName);
+		return folders == null ? null : folders.poll();
+	}
+
+	/**
+	 * Returns the aggregated error message of the run_results.xml found in the report folder.
+	 * Each run_results.xml is parsed at most once.
+	 */
+	public String getErrorMessage(String folderName) {
+		return errorMessages.computeIfAbsent(folderName, this::parseErrorMessage);
+	}
+
+	private String parseErrorMessage(String folderName) {
+		try {
+			File runResults = new File(new File(reportFolder, folderName), RUN_RESULTS_XML);
+			String msg = UftTestResultsUtils.getAggregatedErrorMessage(UftTestResultsUtils.getErrorData(runResults));
+			if (msg.length() >= MAX_ERROR_MESSAGE_LENGTH) {
+				msg = msg.substring(0, 250) + " ...";
+			}
+			return msg;
+		} catch (Exception e) {
+			logger.error("Failed to parseUftErrorMessages" + e.getMessage());
+			return StringUtils.EMPTY;
+		}
+	}
+}
@@ -63,18 +63,22 @@ public abstract class AbstractXmlIterator<E> {
             if (reader.hasNext()) {
                 onEvent(reader.nextEvent());
             } else {
-                try {
-                    reader.close();
-                } catch (XMLStreamException e) {
-                    // close quietly
-                }
-                IOUtils.closeQuietly(is);
-                closed = true;
+                close();
             }
         }
         return !queue.isEmpty();
     }
 
+    public void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // close quietly
+        }
+        IOUtils.closeQuietly(is);
+        closed = true;
+    }
+
     public E next() throws XMLStreamException, IOException, InterruptedException {
         if (!hasNext()) {
             throw new NoSuchElementException();
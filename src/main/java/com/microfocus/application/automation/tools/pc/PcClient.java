@@ -36,6 +36,7 @@ package com.microfocus.application.automation.tools.pc;
 
 import com.cloudbees.plugins.credentials.common.UsernamePasswordCredentials;
 import com.microfocus.application.automation.tools.pc.helper.DateFormatter;
+import com.microfocus.application.automation.tools.pc.helper.ZipStreamExtractor;
 import com.microfocus.application.automation.tools.run.PcBuilder;
 import hudson.FilePath;
 
@@ -56,19 +57,22 @@ import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
 
 public class PcClient {
 
+    private static final int REPORT_DOWNLOAD_ATTEMPTS = 3;
+
     private PcModel model;
     private PcRestProxy restProxy;
     private boolean loggedIn;
+    private UsernamePasswordCredentials credentials;
     private PrintStream logger;
     private DateFormatter dateFormatter = new DateFormatter("");
+    private final PcMetadataCache metadataCache = PcMetadataCache.getInstance();
 
-    public PcClient(PcModel pcModel, PrintStream logger) {
+    public PcClient(PcModel pcModel, PrintStream logger, UsernamePasswordCredentials credentials, UsernamePasswordCredentials proxyCredentials) {
         try {
             model = pcModel;
-            String credentialsProxyId = model.getCredentialsProxyId(true);
-            UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy = PcBuilder.getCredentialsId(credentialsProxyId);
-            String proxyOutUser = (usernamePCPasswordCredentialsForProxy == null || model.getProxyOutURL(true).isEmpty()) ? "" : usernamePCPasswordCredentialsForProxy.getUsername();
-            String proxyOutPassword= (usernamePCPasswordCredentialsForProxy == null || model.getProxyOutURL(true).isEmpty()) ? "" : usernamePCPasswordCredentialsForProxy.getPassword().getPlainText();
+            this.credentials = credentials;
+            String proxyOutUser = (proxyCredentials == null || model.getProxyOutURL(true).isEmpty()) ? "" : proxyCredentials.getUsername();
+            String proxyOutPassword= (proxyCredentials == null || model.getProxyOutURL(true).isEmpty()) ? "" : proxyCredentials.getPassword().getPlainText();
             if(model.getProxyOutURL(true) != null && !model.getProxyOutURL(true).isEmpty()) {
                 logger.println(String.format("%s - %s: %s", dateFormatter.getDate(), Messages.UsingProxy(), model.getProxyOutURL(true)));
                 if(!proxyOutUser.isEmpty()) {
@@ -78,7 +82,7 @@ public class PcClient {
                         logger.println(String.format("%s - %s %s.", dateFormatter.getDate(), Messages.UsingProxyCredentialsConfiguration(), proxyOutUser));
                 }
             }
-            restProxy = new PcRestProxy(model.isHTTPSProtocol(), model.getPcServerName(true), model.isAuthenticateWithToken(), model.getAlmDomain(true), model.getAlmProject(true), model.getProxyOutURL(true),proxyOutUser,proxyOutPassword);
+            restProxy = new PcStreamingRestProxy(model.isHTTPSProtocol(), model.getPcServerName(true), model.isAuthenticateWithToken(), model.getAlmDomain(true), model.getAlmProject(true), model.getProxyOutURL(true),proxyOutUser,proxyOutPassword);
             this.logger = logger;
         }catch (PcException e){
             logger.println(String.format("%s - %s", dateFormatter.getDate(), e.getMessage()));
@@ -87,26 +91,28 @@ public class PcClient {
     }
 
     public <T extends PcRestProxy> PcClient(PcModel pcModel, PrintStream logger, T proxy) {
+        this(pcModel, logger, proxy, null);
+    }
+
+    public <T extends PcRestProxy> PcClient(PcModel pcModel, PrintStream logger, T proxy, UsernamePasswordCredentials credentials) {
         model = pcModel;
         restProxy = proxy;
         this.logger = logger;
+        this.credentials = credentials;
     }
 
     public boolean login() {
         try {
-            String credentialsId = model.getCredentialsId(true);
-            UsernamePasswordCredentials usernamePCPasswordCredentials = PcBuilder.getCredentialsId(credentialsId);
-            if(usernamePCPasswordCredentials != null) {
+            if(credentials != null) {
                 if(model.getCredentialsId().startsWith("$"))
                     logger.println(String.format("%s - %s", dateFormatter.getDate(), Messages.UsingPCCredentialsBuildParameters()));
                 else
                     logger.println(String.format("%s - %s", dateFormatter.getDate(), Messages.UsingPCCredentialsConfiguration()));
-                logger.println(String.format("%s - %s\n[LRE Server='%s://%s/loadtest/%s', %s='%s']", dateFormatter.getDate(), Messages.TryingToLogin(), model.isHTTPSProtocol(), restProxy.GetPcServer(), restProxy.GetTenant(), model.isAuthenticateWithToken() ? "ClientIdKey" : "User", usernamePCPasswordCredentials.getUsername()));
-                loggedIn = restProxy.authenticate(usernamePCPasswordCredentials.getUsername(), usernamePCPasswordCredentials.getPassword().getPlainText());
+                logger.println(String.format("%s - %s\n[LRE Server='%s://%s/loadtest/%s', %s='%s']", dateFormatter.getDate(), Messages.TryingToLogin(), model.isHTTPSProtocol(), restProxy.GetPcServer(), restProxy.GetTenant(), model.isAuthenticateWithToken() ? "ClientIdKey" : "User", credentials.getUsername()));
+                loggedIn = restProxy.authenticate(credentials.getUsername(), credentials.getPassword().getPlainText());
             }
             else {
-                logger.println(String.format("%s - %s\n[LRE Server='%s://%s/loadtest/%s', %s='%s']", dateFormatter.getDate(), Messages.TryingToLogin(), model.isHTTPSProtocol(), restProxy.GetPcServer(), restProxy.GetTenant(), model.isAuthenticateWithToken() ? "ClientIdKey" : "User", PcBuilder.usernamePCPasswordCredentials.getUsername()));
-                loggedIn = restProxy.authenticate(PcBuilder.usernamePCPasswordCredentials.getUsername(), PcBuilder.usernamePCPasswordCredentials.getPassword().getPlainText());
+                logger.println(String.format("%s - %s: %s", dateFormatter.getDate(), Messages.CannotFindCredentials(), model.getCredentialsId(true)));
             }
         } catch (PcException e) {
             logger.println(String.format("%s - %s", dateFormatter.getDate(), e.getMessage()));
@@ -166,6 +172,10 @@ public class PcClient {
         }  catch (IOException ex) {
             logger.println(String.format("%s - %s. IOException Error: %s", dateFormatter.getDate(), Messages.StartRunFailed(), ex.getMessage()));
         }
+        if ("AUTO".equals(model.getAutoTestInstanceID())) {
+            // the instance may have been deleted on the server, resolve it again for the next run
+            metadataCache.invalidate(PcMetadataCache.testInstanceKey(metadataKey(), testID));
+        }
         if (!("RETRY".equals(model.getRetry()))) {
             return 0;
         }
@@ -242,72 +252,105 @@ public class PcClient {
     }
 
 
-    private int getCorrectTestInstanceID(int testID) throws IOException, PcException {
+    private int getCorrectTestInstanceID(final int testID) throws IOException, PcException {
         if("AUTO".equals(model.getAutoTestInstanceID())){
             try {
             logger.println(String.format("%s - %s.",
                     dateFormatter.getDate(),
                     Messages.SearchingTestInstance()));
-            PcTestInstances pcTestInstances = null;
-            try {
-                pcTestInstances = restProxy.getTestInstancesByTestId(testID);
-            } catch (PcException ex) {
-                logger.println(String.format("%s - getTestInstancesByTestId %s. Error: %s",
+            int testInstanceID = metadataCache.get(PcMetadataCache.testInstanceKey(metadataKey(), testID),
+                    new PcMetadataCache.Loader<Integer>() {
+                        @Override
+                        public Integer load() throws IOException, PcException {
+                            return findOrCreateTestInstance(testID);
+                        }
+                    });
+            logger.println(String.format("%s - %s: %s",
+                    dateFormatter.getDate(),
+                    Messages.FoundTestInstanceID(),
+                    testInstanceID));
+            return testInstanceID;
+            } catch (Exception e){
+                logger.println(String.format("%s - getCorrectTestInstanceID %s. %s: %s",
                         dateFormatter.getDate(),
                         Messages.Failure(),
                         Messages.Error(),
-                        ex.getMessage()));
+                        e.getMessage()));
+                return Integer.parseInt(null);
             }
+        }
+        return Integer.parseInt(model.getTestInstanceId(true));
+    }
 
-            int testInstanceID;
-            if (pcTestInstances != null && pcTestInstances.getTestInstancesList() != null){
-                PcTestInstance pcTestInstance = pcTestInstances.getTestInstancesList().get(pcTestInstances.getTestInstancesList().size()-1);
-                testInstanceID = pcTestInstance.getInstanceId();
-                logger.println(String.format("%s - %s: %s",
-                        dateFormatter.getDate(),
-                        Messages.FoundTestInstanceID(),
-                        testInstanceID));
-            } else {
-                logger.println(String.format("%s - %s",
-                        dateFormatter.getDate(),
-                        Messages.NotFoundTestInstanceID()));
+    private int findOrCreateTestInstance(int testID) throws IOException, PcException {
+        PcTestInstances pcTestInstances = null;
+        try {
+            pcTestInstances = restProxy.getTestInstancesByTestId(testID);
+        } catch (PcException ex) {
+            logger.println(String.format("%s - getTestInstancesByTestId %s. Error: %s",
+                    dateFormatter.getDate(),
+                    Messages.Failure(),
+                    ex.getMessage()));
+        }
+        if (pcTestInstances != null && pcTestInstances.getTestInstancesList() != null && !pcTestInstances.getTestInstancesList().isEmpty()){
+            PcTestInstance pcTestInstance = pcTestInstances.getTestInstancesList().get(pcTestInstances.getTestInstancesList().size()-1);
+            return pcTestInstance.getInstanceId();
+        }
+        logger.println(String.format("%s - %s",
+                dateFormatter.getDate(),
+                Messages.NotFoundTestInstanceID()));
+        int testSetID = getDesignatedTestSetID();
+        logger.println(String.format("%s - %s (testID: %s, TestSetID: %s)",
+                dateFormatter.getDate(),
+                Messages.CreatingNewTestInstance(),
+                testID,
+                testSetID));
+        int testInstanceID;
+        try {
+            testInstanceID = restProxy.createTestInstance(testID, testSetID);
+        } catch (IOException|PcException|RuntimeException ex) {
+            // the test set may have been removed since it was picked, look it up again next time
+            metadataCache.invalidate(PcMetadataCache.testSetKey(metadataKey()));
+            throw ex;
+        }
+        logger.println(String.format("%s - %s: %s",
+                dateFormatter.getDate(),
+                Messages.TestInstanceCreatedSuccessfully(),
+                testInstanceID));
+        return testInstanceID;
+    }
+
+    private int getDesignatedTestSetID() throws IOException, PcException {
+        return metadataCache.get(PcMetadataCache.testSetKey(metadataKey()), new PcMetadataCache.Loader<Integer>() {
+            @Override
+            public Integer load() throws IOException, PcException {
                 logger.println(String.format("%s - %s",
                         dateFormatter.getDate(),
                         Messages.SearchingAvailableTestSet()));
-                // Get a random TestSet
                 PcTestSets pcTestSets = restProxy.GetAllTestSets();
-                if (pcTestSets !=null && pcTestSets.getPcTestSetsList() !=null){
-                    PcTestSet pcTestSet = pcTestSets.getPcTestSetsList().get(pcTestSets.getPcTestSetsList().size()-1);
-                    int testSetID = pcTestSet.getTestSetID();
-                    logger.println(String.format("%s - %s (testID: %s, TestSetID: %s)",
-                            dateFormatter.getDate(),
-                            Messages.CreatingNewTestInstance(),
-                            testID,
-                            testSetID));
-                    testInstanceID = restProxy.createTestInstance(testID,testSetID);
-                    logger.println(String.format("%s - %s: %s",
-                            dateFormatter.getDate(),
-                            Messages.TestInstanceCreatedSuccessfully(),
-                            testInstanceID));
-                } else {
+                if (pcTestSets == null || pcTestSets.getPcTestSetsList() == null || pcTestSets.getPcTestSetsList().isEmpty()) {
                     String msg = Messages.NoTestSetAvailable();
                     logger.println(String.format("%s - %s",
                             dateFormatter.getDate(),
                             msg));
                     throw new PcException(msg);
                 }
+                return pcTestSets.getPcTestSetsList().get(pcTestSets.getPcTestSetsList().size()-1).getTestSetID();
             }
-            return testInstanceID;
-            } catch (Exception e){
-                logger.println(String.format("%s - getCorrectTestInstanceID %s. %s: %s",
-                        dateFormatter.getDate(),
-                        Messages.Failure(),
-                        Messages.Error(),
-                        e.getMessage()));
-                return Integer.parseInt(null);
+        });
+    }
+
+    private PcTest getTestData(final int testID) throws IOException, PcException {
+        return metadataCache.get(PcMetadataCache.testDataKey(metadataKey(), testID), new PcMetadataCache.Loader<PcTest>() {
+            @Override
+            public PcTest load() throws IOException, PcException {
+                return restProxy.getTestData(testID);
             }
-        }
-        return Integer.parseInt(model.getTestInstanceId(true));
+        });
+    }
+
+    private String metadataKey() {
+        return PcMetadataCache.projectKey(model);
     }
 
     private void setCorrectTrendReportID() throws IOException, PcException {
@@ -316,7 +359,7 @@ public class PcClient {
                 Messages.PleaseTurnAutomaticTrendOn() + "\n" +
                 Messages.PleaseTurnAutomaticTrendOnAlternative();
         if (("ASSOCIATED").equals(model.getAddRunToTrendReport()) && model.getPostRunAction() != PostRunAction.DO_NOTHING) {
-            PcTest pcTest = restProxy.getTestData(Integer.parseInt(model.getTestId(true)));
+            PcTest pcTest = getTestData(Integer.parseInt(model.getTestId(true)));
             //if the trend report ID is parametrized
             if(!model.getTrendReportId().startsWith("$")) {
                 if (pcTest.getTrendReportId() > -1)
@@ -343,7 +386,7 @@ public class PcClient {
     public String getTestName()  throws IOException, PcException{
 
         try {
-            PcTest pcTest = restProxy.getTestData(Integer.parseInt(model.getTestId(true)));
+            PcTest pcTest = getTestData(Integer.parseInt(model.getTestId(true)));
             return pcTest.getTestName();
         } catch (IOException|PcException ex) {
             logger.println(String.format("%s - getTestData %s (testId : %s)", dateFormatter.getDate(), Messages.Failure(), model.getTestId(true)));
@@ -373,71 +416,8 @@ public class PcClient {
     }
 
 
-    private PcRunResponse waitForRunState(int runId, RunState completionState, int interval) throws InterruptedException,
-            ClientProtocolException, PcException, IOException {
-
-        int counter = 0;
-        RunState[] states = {RunState.BEFORE_COLLATING_RESULTS,RunState.BEFORE_CREATING_ANALYSIS_DATA};
-        PcRunResponse response = null;
-        RunState lastState = RunState.UNDEFINED;
-        int threeStrikes = 3;
-        do {
-            try {
-
-                if (threeStrikes < 3) {
-                    logger.println(String.format("%s - Cannot get response from LRE about the state of the Run (ID=%s) %s time(s) consecutively",
-                            dateFormatter.getDate(),
-                            runId,
-                            (3 - threeStrikes)));
-                    if(threeStrikes==0) {
-                        logger.println(String.format("%s - %s: %s",
-                                dateFormatter.getDate(),
-                                Messages.StoppingMonitoringOnRun(),
-                                runId));
-                        break;
-                    }
-                    Thread.sleep(2000);
-                    login();
-                }
-                response = restProxy.getRunData(runId);
-                RunState currentState = RunState.get(response.getRunState());
-                if (lastState.ordinal() < currentState.ordinal()) {
-                    lastState = currentState;
-                    logger.println(String.format("%s - RunID: %s - State = %s",
-                            dateFormatter.getDate(),
-                            runId,
-                            currentState.value()));
-                }
-
-                // In case we are in state before collate or before analyze, we will wait 1 minute for the state to change otherwise we exit
-                // because the user probably stopped the run from LRE or timeslot has reached the end.
-                if (Arrays.asList(states).contains(currentState)) {
-                    counter++;
-                    Thread.sleep(1000);
-                    if (counter > 60) {
-                        logger.println(String.format("%s - Run ID: %s  - %s = %s",
-                                dateFormatter.getDate(),
-                                runId,
-                                Messages.StoppedFromPC(),
-                                currentState.value()));
-                        break;
-                    }
-                } else {
-                    counter = 0;
-                    Thread.sleep(interval);
-                }
-                threeStrikes = 3;
-            }
-            catch(InterruptedException e)
-            {
-                throw e;
-            }
-            catch(PcException e)
-            {
-                threeStrikes--;
-            }
-        } while (lastState.ordinal() < completionState.ordinal());
-        return response;
+    private PcRunResponse waitForRunState(int runId, RunState completionState, int interval) throws InterruptedException {
+        return new PcRunMonitor(this, restProxy, logger, runId, interval).waitForState(completionState);
     }
 
     public FilePath publishRunReport(int runId, String reportDirectory) throws IOException, PcException, InterruptedException {
@@ -447,13 +427,12 @@ public class PcClient {
                 if (result.getName().equals(PcBuilder.pcReportArchiveName)) {
                     File dir = new File(reportDirectory);
                     dir.mkdirs();
-                    String reportArchiveFullPath = dir.getCanonicalPath() + IOUtils.DIR_SEPARATOR + PcBuilder.pcReportArchiveName;
                     logger.println(String.format("%s - %s", dateFormatter.getDate(), Messages.PublishingAnalysisReport()));
-                    restProxy.GetRunResultData(runId, result.getID(), reportArchiveFullPath);
-                    FilePath fp = new FilePath(new File(reportArchiveFullPath));
-                    fp.unzip(fp.getParent());
-                    fp.delete();
-                    FilePath reportFile = fp.sibling(PcBuilder.pcReportFileName);
+                    if (restProxy instanceof PcStreamingRestProxy)
+                        extractRunReport((PcStreamingRestProxy) restProxy, runId, result.getID(), dir);
+                    else
+                        downloadAndExtractRunReport(runId, result.getID(), dir);
+                    FilePath reportFile = new FilePath(new File(dir, PcBuilder.pcReportFileName));
                     if (reportFile.exists())
                         return reportFile;
                 }
@@ -463,6 +442,38 @@ public class PcClient {
         return null;
     }
 
+    // The report archive is unzipped while it is downloaded. If the transfer breaks, the download is
+    // requested again and the entries already extracted by the previous attempt are skipped.
+    private void extractRunReport(PcStreamingRestProxy streamingProxy, int runId, int resultId, File dir) throws IOException, PcException {
+        ZipStreamExtractor extractor = new ZipStreamExtractor(dir);
+        for (int attempt = 1; ; attempt++) {
+            try (InputStream in = streamingProxy.getRunResultDataStream(runId, resultId)) {
+                extractor.extract(in);
+                return;
+            } catch (IOException ex) {
+                if (attempt >= REPORT_DOWNLOAD_ATTEMPTS)
+                    throw ex;
+                logger.println(String.format("%s - %s (%s/%s, %s %s). %s: %s",
+                        dateFormatter.getDate(),
+                        Messages.FailedToGetRunReport(),
+                        attempt,
+                        REPORT_DOWNLOAD_ATTEMPTS,
+                        extractor.getExtractedEntriesCount(),
+                        Messages.ReportEntriesExtracted(),
+                        Messages.Error(),
+                        ex.getMessage()));
+            }
+        }
+    }
+
+    private void downloadAndExtractRunReport(int runId, int resultId, File dir) throws IOException, PcException, InterruptedException {
+        String reportArchiveFullPath = dir.getCanonicalPath() + IOUtils.DIR_SEPARATOR + PcBuilder.pcReportArchiveName;
+        restProxy.GetRunResultData(runId, resultId, reportArchiveFullPath);
+        FilePath fp = new FilePath(new File(reportArchiveFullPath));
+        fp.unzip(fp.getParent());
+        fp.delete();
+    }
+
     public boolean logout() {
         if (!loggedIn)
             return true;
@@ -0,0 +1,144 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+
+/*
+ * Metadata of a Performance Center project (test data, test instances, the test set new
+ * instances are created in) shared by all builds working against the same server and project.
+ * Values are kept for a limited time, failed loads are not kept at all, and builds asking
+ * for the same missing value at the same time wait for a single request to the server.
+ */
+public final class PcMetadataCache {
+
+    private static final long TTL_MILLIS = Long.getLong("PcMetadataCache.TtlMillis", TimeUnit.MINUTES.toMillis(10));
+
+    private static final PcMetadataCache INSTANCE = new PcMetadataCache(TTL_MILLIS);
+
+    interface Loader<T> {
+        T load() throws IOException, PcException;
+    }
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    PcMetadataCache(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public static PcMetadataCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static String projectKey(PcModel model) {
+        return String.format("%s://%s|%s|%s", model.isHTTPSProtocol(), model.getPcServerName(true),
+                model.getAlmDomain(true), model.getAlmProject(true));
+    }
+
+    static String testDataKey(String projectKey, int testId) {
+        return projectKey + "|test|" + testId;
+    }
+
+    static String testInstanceKey(String projectKey, int testId) {
+        return projectKey + "|testInstance|" + testId;
+    }
+
+    static String testSetKey(String projectKey) {
+        return projectKey + "|testSet";
+    }
+
+    /**
+     * Returns the value kept for the key, loading it with the given loader when it is missing or expired.
+     * Only one loader runs per key at a time; concurrent callers wait for its result.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String key, final Loader<T> loader) throws IOException, PcException {
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.isExpired(ttlNanos)) {
+                Entry loading = new Entry(loader);
+                boolean owner = entry == null ? entries.putIfAbsent(key, loading) == null : entries.replace(key, entry, loading);
+                if (!owner) {
+                    continue;
+                }
+                entry = loading;
+                entry.task.run();
+            }
+            try {
+                return (T) entry.task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PcException("Interrupted while waiting for " + key);
+            } catch (ExecutionException e) {
+                entries.remove(key, entry);
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof PcException) {
+                    throw (PcException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new PcException(String.valueOf(cause));
+            }
+        }
+    }
+
+    void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    private static final class Entry {
+
+        private final FutureTask<Object> task;
+        private volatile long loadedAt;
+
+        Entry(final Loader<?> loader) {
+            task = new FutureTask<>(() -> {
+                Object value = loader.load();
+                loadedAt = System.nanoTime();
+                return value;
+            });
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return task.isDone() && System.nanoTime() - loadedAt >= ttlNanos;
+        }
+    }
+}
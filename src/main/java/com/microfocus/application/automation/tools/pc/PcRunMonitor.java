@@ -0,0 +1,189 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.*;
+import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
+import com.microfocus.application.automation.tools.pc.helper.DateFormatter;
+
+/*
+ * Follows a run until it reaches a state: the run state is polled quickly after it changes and
+ * less often while it does not, the event log is read at most once per the longest interval and
+ * only the events that were not printed yet are printed. Transient errors are retried on the same
+ * session; the client logs in again only once the retries are exhausted.
+ */
+class PcRunMonitor {
+
+    private static final int MIN_INTERVAL = Integer.getInteger("PcRunMonitor.MinIntervalMillis", 1000);
+    private static final int MAX_FAILURES = 3;
+    private static final int FAILURE_DELAY = 2000;
+    // time a run may stay before collate / before analyze before we assume it was stopped from LRE
+    private static final long STALL_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+    private static final List<RunState> WAITING_STATES =
+            Arrays.asList(RunState.BEFORE_COLLATING_RESULTS, RunState.BEFORE_CREATING_ANALYSIS_DATA);
+
+    private final PcClient client;
+    private final PcRestProxy restProxy;
+    private final PrintStream logger;
+    private final DateFormatter dateFormatter = new DateFormatter("");
+    private final int runId;
+    private final int minInterval;
+    private final int maxInterval;
+
+    private int lastEventId = -1;
+    private long lastEventLogRead;
+    private boolean eventLogFailureReported;
+
+    PcRunMonitor(PcClient client, PcRestProxy restProxy, PrintStream logger, int runId, int interval) {
+        this(client, restProxy, logger, runId, Math.min(MIN_INTERVAL, interval), interval);
+    }
+
+    PcRunMonitor(PcClient client, PcRestProxy restProxy, PrintStream logger, int runId, int minInterval, int maxInterval) {
+        this.client = client;
+        this.restProxy = restProxy;
+        this.logger = logger;
+        this.runId = runId;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    PcRunResponse waitForState(RunState completionState) throws InterruptedException {
+        PcRunResponse response = null;
+        RunState lastState = RunState.UNDEFINED;
+        int failures = 0;
+        boolean loggedInAgain = false;
+        long stalledSince = 0;
+        int interval = minInterval;
+        while (lastState.ordinal() < completionState.ordinal()) {
+            try {
+                response = restProxy.getRunData(runId);
+                failures = 0;
+                loggedInAgain = false;
+            } catch (PcException|IOException e) {
+                failures++;
+                logger.println(String.format("%s - Cannot get response from LRE about the state of the Run (ID=%s) %s time(s) consecutively",
+                        dateFormatter.getDate(),
+                        runId,
+                        failures));
+                if (failures >= MAX_FAILURES) {
+                    if (loggedInAgain) {
+                        logger.println(String.format("%s - %s: %s",
+                                dateFormatter.getDate(),
+                                Messages.StoppingMonitoringOnRun(),
+                                runId));
+                        break;
+                    }
+                    // the session may have expired during a long run
+                    client.login();
+                    loggedInAgain = true;
+                    failures = 0;
+                }
+                Thread.sleep(FAILURE_DELAY);
+                continue;
+            }
+
+            RunState currentState = RunState.get(response.getRunState());
+            boolean changed = false;
+            if (lastState.ordinal() < currentState.ordinal()) {
+                lastState = currentState;
+                changed = true;
+                logger.println(String.format("%s - RunID: %s - State = %s",
+                        dateFormatter.getDate(),
+                        runId,
+                        currentState.value()));
+            }
+            if (lastState.ordinal() >= completionState.ordinal()) {
+                // the events of the last cycle are printed whatever the cadence
+                printNewEvents();
+                break;
+            }
+            if (System.currentTimeMillis() - lastEventLogRead >= maxInterval) {
+                printNewEvents();
+            }
+
+            if (WAITING_STATES.contains(currentState)) {
+                long now = System.currentTimeMillis();
+                if (stalledSince == 0) {
+                    stalledSince = now;
+                } else if (now - stalledSince > STALL_TIMEOUT) {
+                    logger.println(String.format("%s - Run ID: %s  - %s = %s",
+                            dateFormatter.getDate(),
+                            runId,
+                            Messages.StoppedFromPC(),
+                            currentState.value()));
+                    break;
+                }
+                interval = minInterval;
+            } else {
+                stalledSince = 0;
+                interval = changed ? minInterval : Math.min(interval * 2, maxInterval);
+            }
+            Thread.sleep(interval);
+        }
+        return response;
+    }
+
+    private void printNewEvents() {
+        lastEventLogRead = System.currentTimeMillis();
+        PcRunEventLog eventLog;
+        try {
+            eventLog = restProxy.getRunEventLog(runId);
+            eventLogFailureReported = false;
+        } catch (PcException|IOException e) {
+            if (!eventLogFailureReported) {
+                logger.println(String.format("%s - Cannot get the event log of the Run (ID=%s): %s",
+                        dateFormatter.getDate(),
+                        runId,
+                        e.getMessage()));
+                eventLogFailureReported = true;
+            }
+            return;
+        }
+        if (eventLog != null && eventLog.getRecordsList() != null) {
+            for (PcRunEventLogRecord record : eventLog.getRecordsList()) {
+                if (record.getID() > lastEventId) {
+                    lastEventId = record.getID();
+                    logger.println(String.format("%s - RunID: %s - Event %s | %s | %s | %s",
+                            dateFormatter.getDate(),
+                            runId,
+                            record.getID(),
+                            record.getType(),
+                            record.getTime(),
+                            record.getDescription()));
+                }
+            }
+        }
+    }
+}
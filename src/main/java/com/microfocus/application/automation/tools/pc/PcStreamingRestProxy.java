@@ -0,0 +1,64 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.HttpGet;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
+
+/*
+ * PcRestProxy that can hand out the body of a run result download as a stream
+ * instead of writing it to a local file first.
+ */
+public class PcStreamingRestProxy extends PcRestProxy {
+
+    public PcStreamingRestProxy(String webProtocolName, String pcServerName, boolean authenticateWithToken, String almDomain,
+                                String almProject, String proxyOutURL, String proxyUser, String proxyPassword) throws PcException {
+        super(webProtocolName, pcServerName, authenticateWithToken, almDomain, almProject, proxyOutURL, proxyUser, proxyPassword);
+    }
+
+    /**
+     * Opens the content of a run result (e.g. the HTML report archive) for reading.
+     * The caller is responsible for closing the returned stream, which releases the connection.
+     */
+    public InputStream getRunResultDataStream(int runId, int resultId) throws PcException, ClientProtocolException, IOException {
+        String url = String.format(getBaseURL() + "/%s/%s/%s/%s/data", RUNS_RESOURCE_NAME, runId, RESULTS_RESOURCE_NAME, resultId);
+        HttpResponse response = executeRequest(new HttpGet(url));
+        if (response.getEntity() == null) {
+            throw new PcException(String.format("Run result %s of run %s has no content", resultId, runId));
+        }
+        return response.getEntity().getContent();
+    }
+}
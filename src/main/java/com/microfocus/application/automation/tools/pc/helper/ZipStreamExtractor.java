@@ -0,0 +1,112 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/*
+ * Extracts a zip archive while it is being read (e.g. straight from an HTTP response body),
+ * so the archive itself never has to be stored on disk.
+ * The same instance can be fed the archive again after a failed attempt: entries that were
+ * fully extracted in a previous attempt are skipped instead of being rewritten.
+ */
+public class ZipStreamExtractor {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final File destination;
+    private final String destinationPath;
+    private final Set<String> extractedEntries = new HashSet<>();
+
+    public ZipStreamExtractor(File destination) throws IOException {
+        this.destination = destination;
+        this.destinationPath = destination.getCanonicalPath() + File.separator;
+    }
+
+    /**
+     * Extracts the archive read from the stream into the destination folder.
+     * The stream is not closed.
+     *
+     * @return the number of entries written by this call
+     */
+    public int extract(InputStream in) throws IOException {
+        int written = 0;
+        ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            File target = resolve(entry.getName());
+            if (entry.isDirectory()) {
+                mkdirs(target);
+            } else if (!extractedEntries.contains(entry.getName())) {
+                mkdirs(target.getParentFile());
+                File partial = new File(target.getPath() + PARTIAL_SUFFIX);
+                try (OutputStream out = Files.newOutputStream(partial.toPath())) {
+                    IOUtils.copy(zip, out);
+                }
+                Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                if (entry.getTime() > 0) {
+                    target.setLastModified(entry.getTime());
+                }
+                extractedEntries.add(entry.getName());
+                written++;
+            }
+            zip.closeEntry();
+        }
+        return written;
+    }
+
+    public int getExtractedEntriesCount() {
+        return extractedEntries.size();
+    }
+
+    private File resolve(String entryName) throws IOException {
+        File target = new File(destination, entryName);
+        if (!target.getCanonicalPath().startsWith(destinationPath)) {
+            throw new IOException("Archive entry is outside of the target folder: " + entryName);
+        }
+        return target;
+    }
+
+    private static void mkdirs(File dir) throws IOException {
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Failed to create folder " + dir);
+        }
+    }
+}
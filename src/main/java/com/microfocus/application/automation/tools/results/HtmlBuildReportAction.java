@@ -31,39 +31,43 @@ package com.microfocus.application.automation.tools.results;
 import hudson.model.Action;
 import hudson.model.Run;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-
+import java.util.Collections;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 /**
  * Created by betzalel on 28/06/2015.
+ * <p>
+ * The report metadata is read from its file in the build folder once and kept until the file changes.
  */
 public class HtmlBuildReportAction implements Action {
+    private static final Logger logger = Logger.getLogger(HtmlBuildReportAction.class.getName());
+
     private Run build;
+    // only set for builds recorded when the metadata was kept in build.xml
     private List<ReportMetaData> reportMetaDataList;
     private Integer index;
+    private String reportName;
+    private transient volatile LoadedReports loadedReports;
 
     //NOTE: if parameter has BuildListener, the build cannot be serialize normally.
-    public HtmlBuildReportAction(Run<?, ?> build, String reportName, Integer index) throws IOException, SAXException, ParserConfigurationException {
+    public HtmlBuildReportAction(Run<?, ?> build, String reportName, Integer index) throws IOException {
         this.build = build;
-
-        File reportMetaData_XML = new File(build.getRootDir(), reportName);
-        if (reportMetaData_XML.exists()) {
-            this.reportMetaDataList = readReportFromXMLFile(reportMetaData_XML.getAbsolutePath());
-        }
+        this.reportName = reportName;
         this.index = index;
+        loadReports();
     }
 
 
@@ -97,51 +101,85 @@ public class HtmlBuildReportAction implements Action {
 
     // other property of the report
     public List<ReportMetaData> getAllReports() {
-        return reportMetaDataList;
+        return getReportMetaDataList();
     }
 
-    public List<ReportMetaData> getReportMetaDataList(){
-        return this.reportMetaDataList;
+    public List<ReportMetaData> getReportMetaDataList() {
+        if (reportName == null) {
+            return reportMetaDataList;
+        }
+        try {
+            return loadReports();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the report metadata of " + build, e);
+            return Collections.emptyList();
+        }
     }
 
+    private List<ReportMetaData> loadReports() throws IOException {
+        File reportMetaDataXml = new File(build.getRootDir(), reportName);
+        if (!reportMetaDataXml.exists()) {
+            return Collections.emptyList();
+        }
+        long lastModified = reportMetaDataXml.lastModified();
+        long length = reportMetaDataXml.length();
+        LoadedReports loaded = loadedReports;
+        if (loaded == null || loaded.lastModified != lastModified || loaded.length != length) {
+            loaded = new LoadedReports(lastModified, length,
+                    Collections.unmodifiableList(readReportFromXMLFile(reportMetaDataXml)));
+            loadedReports = loaded;
+        }
+        return loaded.reports;
+    }
 
-   private List<ReportMetaData> readReportFromXMLFile(String filename) throws ParserConfigurationException, IOException, SAXException {
+    private static List<ReportMetaData> readReportFromXMLFile(File file) throws IOException {
         List<ReportMetaData> listReport = new ArrayList<>();
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(filename);
-
-        Element root = doc.getDocumentElement();
-        NodeList reportList = root.getElementsByTagName("report");
-        for (int i = 0; i < reportList.getLength(); i++) {
-            ReportMetaData reportmetadata = new ReportMetaData();
-            Node nNode = reportList.item(i);
-            if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element report = (Element) nNode;
-                String disPlayName = report.getAttribute("disPlayName");
-                String urlName = report.getAttribute("urlName");
-                String resourceURL = report.getAttribute("resourceURL");
-                String dateTime = report.getAttribute("dateTime");
-                String status = report.getAttribute("status");
-                String isHtmlreport = report.getAttribute("isHtmlreport");
-                String isParallelRunnerReport = report.getAttribute("isParallelRunnerReport");
-                String archiveUrl = report.getAttribute("archiveUrl");
-
-                reportmetadata.setDisPlayName(disPlayName);
-                reportmetadata.setUrlName(urlName);
-                reportmetadata.setResourceURL(resourceURL);
-                reportmetadata.setDateTime(dateTime);
-                reportmetadata.setStatus(status);
-                reportmetadata.setIsHtmlReport("true".equals(isHtmlreport));
-                reportmetadata.setIsParallelRunnerReport("true".equals(isParallelRunnerReport));
-                reportmetadata.setArchiveUrl(archiveUrl);
-                listReport.add(reportmetadata);
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && RunResultRecorder.REPORT_NAME_FIELD.equals(reader.getLocalName())) {
+                        ReportMetaData reportmetadata = new ReportMetaData();
+                        reportmetadata.setDisPlayName(getAttribute(reader, "disPlayName"));
+                        reportmetadata.setUrlName(getAttribute(reader, "urlName"));
+                        reportmetadata.setResourceURL(getAttribute(reader, "resourceURL"));
+                        reportmetadata.setDateTime(getAttribute(reader, "dateTime"));
+                        reportmetadata.setStatus(getAttribute(reader, "status"));
+                        reportmetadata.setIsHtmlReport("true".equals(getAttribute(reader, "isHtmlreport")));
+                        reportmetadata.setIsParallelRunnerReport(
+                                "true".equals(getAttribute(reader, "isParallelRunnerReport")));
+                        reportmetadata.setArchiveUrl(getAttribute(reader, "archiveUrl"));
+                        listReport.add(reportmetadata);
+                    }
+                }
+            } finally {
+                reader.close();
             }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to parse " + file, e);
         }
 
         return listReport;
     }
 
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
 
+    private static final class LoadedReports {
+        private final long lastModified;
+        private final long length;
+        private final List<ReportMetaData> reports;
 
+        private LoadedReports(long lastModified, long length, List<ReportMetaData> reports) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.reports = reports;
+        }
+    }
 }
@@ -28,17 +28,14 @@
 
 package com.microfocus.application.automation.tools.results;
 
-import com.microfocus.application.automation.tools.results.projectparser.performance.AvgTransactionResponseTime;
 import com.microfocus.application.automation.tools.results.projectparser.performance.LrProjectScenarioResults;
-import com.microfocus.application.automation.tools.results.projectparser.performance.PercentileTransactionWholeRun;
-import com.microfocus.application.automation.tools.results.projectparser.performance.TimeRangeResult;
-import com.microfocus.application.automation.tools.results.projectparser.performance.WholeRunResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrScenarioSeries;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrScenarioSeries.Metric;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -85,293 +82,147 @@ public final class LrGraphUtils {
                     " This graph helps you determine whether the performance of the server is within " +
                     "acceptable minimum and maximum transaction performance time ranges defined for your " +
                     "system.";
+    private static final String HITS_GRAPH_DESCRIPTION =
+            "Displays the number of hits made on the Web server by Vusers " +
+                    "during each second of the load test. This graph helps you evaluate the amount of load " +
+                    "Vusers generate, in terms of the number of hits.";
+    private static final String THROUGHPUT_GRAPH_DESCRIPTION =
+            " Displays the amount of throughput (in bytes) on the Web server during the load test. " +
+                    "Throughput represents the amount of data that the Vusers received from the server at" +
+                    " any given second. This graph helps you to evaluate the amount of load Vusers " +
+                    "generate, in terms of server throughput.\n";
     public static final String SERIES = "series";
 
     private LrGraphUtils() {
     }
 
     /**
-     * creates dataset for Percentile transaction graph
+     * Creates the SLA graphs of a scenario in a single pass over its series.
      *
-     * @param scenarioResults   the relative scenario results to create the graph
+     * @param series            the scenario series
      * @param scenarioGraphData the target graph data set
      */
-    static void constructPercentileTransactionGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                                    JSONObject scenarioGraphData) {
-        Map<Integer, TreeMap<String, PercentileTransactionWholeRun>> percentileTransactionResults =
-                scenarioResults.getValue().getPercentileTransactionResults();
-        JSONObject percentileTransactionResultsGraphSet =
-                extractPercentileTransactionSet(percentileTransactionResults,
-                        scenarioResults.getValue().getTransactions());
-        if (!percentileTransactionResultsGraphSet.getJSONArray(LABELS).isEmpty()) {
-            percentileTransactionResultsGraphSet
-                    .put(TITLE, PERCENTILE_TRANSACTION_RESPONSE_TIME);
-            percentileTransactionResultsGraphSet
-                    .put(X_AXIS_TITLE, BUILD_NUMBER);
-            percentileTransactionResultsGraphSet.put(Y_AXIS_TITLE,
-                    TRANSACTIONS_RESPONSE_TIME_SECONDS);
-            percentileTransactionResultsGraphSet
-                    .put(DESCRIPTION, PRECENTILE_GRAPH_DESCRIPTION);
-            scenarioGraphData.put("percentileTransaction", percentileTransactionResultsGraphSet);
+    static void constructScenarioGraphs(LrScenarioSeries series, JSONObject scenarioGraphData) {
+        Metric[] metrics = Metric.values();
+        JSONArray[] metricLabels = new JSONArray[metrics.length];
+        JSONArray[] metricData = new JSONArray[metrics.length];
+        for (Metric metric : metrics) {
+            metricLabels[metric.ordinal()] = new JSONArray();
+            metricData[metric.ordinal()] = new JSONArray();
         }
-    }
-
-    private static JSONObject extractPercentileTransactionSet(
-            Map<Integer, TreeMap<String, PercentileTransactionWholeRun>> graphData, HashSet<String> transactions) {
-        JSONObject graphDataSet = new JSONObject();
-        JSONArray labels = new JSONArray();
-
-        HashMap<String, ArrayList<Number>> percentileTrtData = new HashMap<String, ArrayList<Number>>(0);
-        for (String transaction : transactions) {
-            percentileTrtData.put(transaction, new ArrayList<Number>(0));
+        int transactionCount = series.getTransactionCount();
+        JSONArray avgTrtLabels = new JSONArray();
+        JSONArray percentileTrtLabels = new JSONArray();
+        JSONArray[] avgTrtData = new JSONArray[transactionCount];
+        JSONArray[] percentileTrtData = new JSONArray[transactionCount];
+        for (int transaction = 0; transaction < transactionCount; transaction++) {
+            avgTrtData[transaction] = new JSONArray();
+            percentileTrtData[transaction] = new JSONArray();
         }
 
-        for (Map.Entry<Integer, TreeMap<String, PercentileTransactionWholeRun>> result : graphData.entrySet()) {
-            labels.add(result.getKey());
-
-            for (String transaction : transactions) {
-                if (!result.getValue().containsKey(transaction)) {
-                    percentileTrtData.get(transaction).add(null);
-                    // TODO:change to null
-                    continue;
+        for (int i = 0; i < series.size(); i++) {
+            int build = series.getBuild(i);
+            for (Metric metric : metrics) {
+                if (series.hasMetric(metric, i)) {
+                    metricLabels[metric.ordinal()].add(build);
+                    metricData[metric.ordinal()].add(series.getMetric(metric, i));
                 }
-                percentileTrtData.get(transaction).add((result.getValue()).get(transaction).getActualValue());
             }
-        }
-
-        graphDataSet.put(LABELS, labels);
-        graphDataSet.put(SERIES, createGraphDatasets(percentileTrtData));
-
-        return graphDataSet;
-    }
-
-    private static JSONArray createGraphDatasets(Map<String, ArrayList<Number>> datasets) {
-        JSONArray graphSeries = new JSONArray();
-        for (Map.Entry<String, ArrayList<Number>> transactionData : datasets.entrySet()) {
-            JSONObject dataset = new JSONObject();
-            dataset.put("name", transactionData.getKey());
-            JSONArray data = new JSONArray();
-            data.addAll(transactionData.getValue());
-            dataset.put("data", data);
-            graphSeries.add(dataset);
-        }
-        return graphSeries;
-    }
 
-    /**
-     * Construct avg transaction graph.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructAvgTransactionGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                             JSONObject scenarioGraphData) {
-        Map<Integer, TreeMap<String, AvgTransactionResponseTime>> avgTransactionResponseTimeResults =
-                scenarioResults.getValue().getAvgTransactionResponseTimeResults();
-        JSONObject avgTransactionResponseTimeGraphSet =
-                extractAvgTrtData(avgTransactionResponseTimeResults, scenarioResults.getValue().getTransactions());
-        if (!avgTransactionResponseTimeGraphSet.getJSONArray(LABELS).isEmpty()) {
-            avgTransactionResponseTimeGraphSet.put(TITLE, "Average Transaction Response Time");
-            avgTransactionResponseTimeGraphSet.put(X_AXIS_TITLE, "Build number");
-            avgTransactionResponseTimeGraphSet
-                    .put(Y_AXIS_TITLE, "Time (Sec.)");
-            avgTransactionResponseTimeGraphSet.put(DESCRIPTION,
-                    "Displays the average time taken to perform transactions during each second of the load test." +
-                            " This graph helps you determine whether the performance of the server is within " +
-                            "acceptable minimum and maximum transaction performance time ranges defined for your " +
-                            "system.");
-            scenarioGraphData.put("averageTransactionResponseTime", avgTransactionResponseTimeGraphSet);
-        }
-    }
-
-    private static JSONObject extractAvgTrtData(Map<Integer, TreeMap<String, AvgTransactionResponseTime>> graphData,
-                                                HashSet<String> transactions) {
-        HashMap<String, ArrayList<Number>> averageTRTData = new HashMap<String, ArrayList<Number>>(0);
-        JSONObject graphDataSet = new JSONObject();
-
-        JSONArray labels = new JSONArray();
-
-        for (String transaction : transactions) {
-            averageTRTData.put(transaction, new ArrayList<Number>(0));
-        }
-
-        for (Map.Entry<Integer, TreeMap<String, AvgTransactionResponseTime>> result : graphData.entrySet()) {
-            labels.add(result.getKey());
-
-            for (String transaction : transactions) {
-                if (!result.getValue().containsKey(transaction)) {
-                    averageTRTData.get(transaction).add(null);
-                    // TODO:change to null
-                    continue;
+            boolean hasAvgTrt = false;
+            boolean hasPercentileTrt = false;
+            for (int transaction = 0; transaction < transactionCount; transaction++) {
+                hasAvgTrt |= series.hasAverageTrt(transaction, i);
+                hasPercentileTrt |= series.hasPercentileTrt(transaction, i);
+            }
+            if (hasAvgTrt) {
+                avgTrtLabels.add(build);
+                for (int transaction = 0; transaction < transactionCount; transaction++) {
+                    avgTrtData[transaction].add(series.hasAverageTrt(transaction, i) ?
+                            series.getAverageTrt(transaction, i) : null);
                 }
-                averageTRTData.get(transaction).add((result.getValue()).get(transaction).getActualValueAvg());
             }
-        }
-
-        graphDataSet.put(LABELS, labels);
-        JSONArray datasets = createGraphDatasets(averageTRTData);
-        graphDataSet.put(SERIES, datasets);
-        return graphDataSet;
-    }
-
-    /**
-     * Construct error graph.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructErrorGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                    JSONObject scenarioGraphData) {
-        Map<Integer, TimeRangeResult> errPerSecResults = scenarioResults.getValue().getErrPerSecResults();
-        JSONObject errPerSecResultsResultsGraphSet =
-                extractTimeRangeResult(errPerSecResults);
-        if (!errPerSecResultsResultsGraphSet.getJSONArray(LABELS).isEmpty()) {
-            errPerSecResultsResultsGraphSet.put(TITLE, "Total errors per second");
-            errPerSecResultsResultsGraphSet.put(X_AXIS_TITLE, "Build number");
-            errPerSecResultsResultsGraphSet.put(Y_AXIS_TITLE, "Errors");
-            errPerSecResultsResultsGraphSet.put(DESCRIPTION, "");
-            scenarioGraphData.put("errorPerSecResults", errPerSecResultsResultsGraphSet);
-        }
-    }
-
-    private static JSONObject extractTimeRangeResult(Map<Integer, TimeRangeResult> graphData) {
-        JSONObject graphDataSet;
-        graphDataSet = new JSONObject();
-
-        JSONArray labels = new JSONArray();
-        JSONArray datasets = new JSONArray();
-        JSONArray data = new JSONArray();
-
-        for (Map.Entry<Integer, TimeRangeResult> result : graphData.entrySet()) {
-            if (result.getValue().getTimeRanges().isEmpty()) {
-                labels.add(result.getKey());
-                data.add(result.getValue().getActualValueAvg());
+            if (hasPercentileTrt) {
+                percentileTrtLabels.add(build);
+                for (int transaction = 0; transaction < transactionCount; transaction++) {
+                    percentileTrtData[transaction].add(series.hasPercentileTrt(transaction, i) ?
+                            series.getPercentileTrt(transaction, i) : null);
+                }
             }
         }
 
-        graphDataSet.put(LABELS, labels);
-        datasets.add(data);
-        graphDataSet.put(SERIES, datasets);
-        return graphDataSet;
+        putGraph(scenarioGraphData, "totalHits", metricLabels[Metric.TotalHits.ordinal()],
+                namedSeries("Hits", metricData[Metric.TotalHits.ordinal()]),
+                "Total Hits", "Hits", HITS_GRAPH_DESCRIPTION);
+        putGraph(scenarioGraphData, "avgHitsPerSec", metricLabels[Metric.AverageHitsPerSecond.ordinal()],
+                namedSeries("Hits/Sec", metricData[Metric.AverageHitsPerSecond.ordinal()]),
+                "Average Hits per Second", "Hits", HITS_GRAPH_DESCRIPTION);
+        putGraph(scenarioGraphData, "totalThroughput", metricLabels[Metric.TotalThroughput.ordinal()],
+                namedSeries("Bytes", metricData[Metric.TotalThroughput.ordinal()]),
+                "Total Throughput", "Bytes", THROUGHPUT_GRAPH_DESCRIPTION);
+        putGraph(scenarioGraphData, "averageThroughput", metricLabels[Metric.AverageThroughput.ordinal()],
+                namedSeries("Bytes/Sec", metricData[Metric.AverageThroughput.ordinal()]),
+                "Average Throughput per second", "Bytes", THROUGHPUT_GRAPH_DESCRIPTION);
+
+        JSONArray errorSeries = new JSONArray();
+        errorSeries.add(metricData[Metric.ErrorsPerSecond.ordinal()]);
+        putGraph(scenarioGraphData, "errorPerSecResults", metricLabels[Metric.ErrorsPerSecond.ordinal()],
+                errorSeries, "Total errors per second", "Errors", "");
+
+        putGraph(scenarioGraphData, "averageTransactionResponseTime", avgTrtLabels,
+                transactionSeries(series, avgTrtData), "Average Transaction Response Time", "Time (Sec.)",
+                PRECENTILE_GRAPH_DESCRIPTION);
+        putGraph(scenarioGraphData, "percentileTransaction", percentileTrtLabels,
+                transactionSeries(series, percentileTrtData), PERCENTILE_TRANSACTION_RESPONSE_TIME,
+                TRANSACTIONS_RESPONSE_TIME_SECONDS, PRECENTILE_GRAPH_DESCRIPTION);
     }
 
-    /**
-     * Construct average throughput.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructAverageThroughput(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                           JSONObject scenarioGraphData) {
-        Map<Integer, WholeRunResult> averageThroughputResults = scenarioResults.getValue().getAverageThroughputResults();
-        JSONObject averageThroughputResultsGraphSet =
-                extractWholeRunSlaResult(averageThroughputResults, "Bytes/Sec");
-        if (!averageThroughputResultsGraphSet.getJSONArray(LABELS).isEmpty()) {
-            averageThroughputResultsGraphSet.put(TITLE, "Average Throughput per second");
-            averageThroughputResultsGraphSet.put(X_AXIS_TITLE, "Build number");
-            averageThroughputResultsGraphSet.put(Y_AXIS_TITLE, "Bytes");
-            averageThroughputResultsGraphSet.put(DESCRIPTION,
-                    " Displays the amount of throughput (in bytes) on the Web server during the load test. " +
-                            "Throughput represents the amount of data that the Vusers received from the server at" +
-                            " any given second. This graph helps you to evaluate the amount of load Vusers " +
-                            "generate, in terms of server throughput.\n");
-            scenarioGraphData.put("averageThroughput", averageThroughputResultsGraphSet);
+    private static void putGraph(JSONObject scenarioGraphData, String graphName, JSONArray labels, JSONArray series,
+                                 String title, String yAxisTitle, String description) {
+        if (labels.isEmpty()) {
+            return;
         }
+        JSONObject graphDataSet = new JSONObject();
+        graphDataSet.put(LABELS, labels);
+        graphDataSet.put(SERIES, series);
+        graphDataSet.put(TITLE, title);
+        graphDataSet.put(X_AXIS_TITLE, BUILD_NUMBER);
+        graphDataSet.put(Y_AXIS_TITLE, yAxisTitle);
+        graphDataSet.put(DESCRIPTION, description);
+        scenarioGraphData.put(graphName, graphDataSet);
     }
 
-    /**
-     * @param graphData
-     * @return
-     */
-    private static JSONObject extractWholeRunSlaResult(Map<Integer, WholeRunResult> graphData, String seriesName) {
-        JSONObject graphDataSet;
-        graphDataSet = new JSONObject();
+    private static JSONArray namedSeries(String seriesName, JSONArray data) {
         JSONObject wholeRunSlaResults = new JSONObject();
-        JSONArray labels = new JSONArray();
+        wholeRunSlaResults.put("name", seriesName);
+        wholeRunSlaResults.put("data", data);
         JSONArray datasets = new JSONArray();
-        JSONArray data = new JSONArray();
-        for (Map.Entry<Integer, WholeRunResult> result : graphData.entrySet()) {
-            labels.add(result.getKey());
-            data.add(result.getValue().getActualValue());
-        }
-        graphDataSet.put(LABELS, labels);
-        wholeRunSlaResults.put("name",seriesName);
-        wholeRunSlaResults.put("data",data);
         datasets.add(wholeRunSlaResults);
-        graphDataSet.put(SERIES, datasets);
-        return graphDataSet;
+        return datasets;
     }
 
-    /**
-     * Construct total throughput graph.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructTotalThroughputGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                              JSONObject scenarioGraphData) {
-        Map<Integer, WholeRunResult> totalThroughputResults = scenarioResults.getValue().getTotalThroughtputResults();
-        JSONObject totalThroughputResultsGraphSet =
-                extractWholeRunSlaResult(totalThroughputResults, "Bytes");
-        if (!totalThroughputResultsGraphSet.getJSONArray(LABELS).isEmpty()) {
-            totalThroughputResultsGraphSet.put(TITLE, "Total Throughput");
-            totalThroughputResultsGraphSet.put(X_AXIS_TITLE, "Build number");
-            totalThroughputResultsGraphSet.put(Y_AXIS_TITLE, "Bytes");
-            totalThroughputResultsGraphSet.put(DESCRIPTION,
-                    " Displays the amount of throughput (in bytes) on the Web server during the load test. " +
-                            "Throughput represents the amount of data that the Vusers received from the server at" +
-                            " any given second. This graph helps you to evaluate the amount of load Vusers " +
-                            "generate, in terms of server throughput.\n");
-            scenarioGraphData.put("totalThroughput", totalThroughputResultsGraphSet);
-        }
-    }
-
-    /**
-     * Construct avg hits graph.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructAvgHitsGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                      JSONObject scenarioGraphData) {
-        Map<Integer, WholeRunResult> avgHitsPerSec = scenarioResults.getValue().getAverageHitsPerSecondResults();
-        JSONObject avgHitsPerSecGraphSet = extractWholeRunSlaResult(avgHitsPerSec, "Hits/Sec");
-        if (!avgHitsPerSecGraphSet.getJSONArray(LABELS).isEmpty()) {
-            avgHitsPerSecGraphSet.put(TITLE, "Average Hits per Second");
-            avgHitsPerSecGraphSet.put(X_AXIS_TITLE, "Build number");
-            avgHitsPerSecGraphSet.put(Y_AXIS_TITLE, "Hits");
-            avgHitsPerSecGraphSet.put(DESCRIPTION,
-                    "Displays the number of hits made on the Web server by Vusers " +
-                            "during each second of the load test. This graph helps you evaluate the amount of load " +
-                            "Vusers" +
-                            " " +
-                            "generate, in terms of the number of hits.");
-            scenarioGraphData.put("avgHitsPerSec", avgHitsPerSecGraphSet);
+    private static JSONArray transactionSeries(LrScenarioSeries series, JSONArray[] transactionData) {
+        JSONArray graphSeries = new JSONArray();
+        for (int transaction = 0; transaction < transactionData.length; transaction++) {
+            JSONObject dataset = new JSONObject();
+            dataset.put("name", series.getTransaction(transaction));
+            dataset.put("data", transactionData[transaction]);
+            graphSeries.add(dataset);
         }
+        return graphSeries;
     }
 
-    /**
-     * Construct total hits graph.
-     *
-     * @param scenarioResults   the scenario results
-     * @param scenarioGraphData the scenario graph data
-     */
-    static void constructTotalHitsGraph(Map.Entry<String, LrProjectScenarioResults> scenarioResults,
-                                        JSONObject scenarioGraphData) {
-        Map<Integer, WholeRunResult> totalHitsResults = scenarioResults.getValue().getTotalHitsResults();
-        JSONObject totalHitsGraphSet = extractWholeRunSlaResult(totalHitsResults, "Hits");
-        if (!totalHitsGraphSet.getJSONArray(LABELS).isEmpty()) {
-            totalHitsGraphSet.put(TITLE, "Total Hits");
-            totalHitsGraphSet.put(X_AXIS_TITLE, "Build number");
-            totalHitsGraphSet.put(Y_AXIS_TITLE, "Hits");
-            totalHitsGraphSet.put(DESCRIPTION,
-                    "Displays the number of hits made on the Web server by Vusers " +
-                            "during each second of the load test. This graph helps you evaluate the amount of load " +
-                            "Vusers" +
-                            " " +
-                            "generate, in terms of the number of hits.");
-            scenarioGraphData.put("totalHits", totalHitsGraphSet);
+    private static JSONArray createGraphDatasets(Map<String, ArrayList<Number>> datasets) {
+        JSONArray graphSeries = new JSONArray();
+        for (Map.Entry<String, ArrayList<Number>> transactionData : datasets.entrySet()) {
+            JSONObject dataset = new JSONObject();
+            dataset.put("name", transactionData.getKey());
+            JSONArray data = new JSONArray();
+            data.addAll(transactionData.getValue());
+            dataset.put("data", data);
+            graphSeries.add(dataset);
         }
+        return graphSeries;
     }
 
     private static JSONObject extractVuserResult(Map<Integer, TreeMap<String, Integer>> graphData) {
@@ -33,54 +33,121 @@ import com.microfocus.application.automation.tools.results.projectparser.perform
 import hudson.model.Action;
 import hudson.model.InvisibleAction;
 import hudson.model.Run;
+import jenkins.model.RunAction2;
 import jenkins.tasks.SimpleBuildStep;
 import net.minidev.json.JSONObject;
 
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
  * Holds LoadRunner infomation on a specific Job Run / Build
+ * <p>
+ * Only a summary is kept in build.xml; the full results live in a compressed file next to it
+ * and are loaded when first needed, so loading a build does not pay for them.
  */
-public class PerformanceJobReportAction extends InvisibleAction implements SimpleBuildStep.LastBuildAction {
+public class PerformanceJobReportAction extends InvisibleAction implements SimpleBuildStep.LastBuildAction, RunAction2 {
 
-    private Run<?, ?> build;
+    private static final Logger logger = Logger.getLogger(PerformanceJobReportAction.class.getName());
+
+    static final String RESULTS_FILE_NAME = "lrJobResults.xml.gz";
+
+    private transient Run<?, ?> build;
     private JSONObject jobDataSet;
+    // results of builds recorded before they were moved to RESULTS_FILE_NAME, migrated on load
     private LrJobResults _resultFiles;
+    private List<String> scenarioNames;
+    private int totalErrors;
+    private int totalFailures;
+    private transient SoftReference<LrJobResults> results;
 
     /**
      * Instantiates a new Performance job report action.
      *
      * @param build       the build
      * @param resultFiles the result dataset
+     * @throws IOException if the results cannot be stored with the build
      */
-    public PerformanceJobReportAction(Run<?, ?> build, LrJobResults resultFiles) {
+    public PerformanceJobReportAction(Run<?, ?> build, LrJobResults resultFiles) throws IOException {
         this.build = build;
-        this._resultFiles = resultFiles;
+        store(resultFiles);
     }
 
     /**
      * Merge results of several runs - especially useful in pipeline jobs with multiple LR steps
      *
      * @param resultFiles the result files
+     * @throws IOException if the results cannot be stored with the build
      */
-    public void mergeResults(LrJobResults resultFiles)
+    public synchronized void mergeResults(LrJobResults resultFiles) throws IOException
     {
+        // fails if the stored results can't be read, rather than overwriting them with the merged runs alone
+        LrJobResults merged = _resultFiles != null ? _resultFiles : getCachedOrLoad();
         for(JobLrScenarioResult scenarioResult : resultFiles.getLrScenarioResults().values())
         {
-            this._resultFiles.addScenario(scenarioResult);
+            merged.addScenario(scenarioResult);
         }
+        store(merged);
     }
 
     /**
-     * Gets lr result build dataset.
+     * Gets lr result build dataset, reading it from the build folder if it is not in memory.
      *
      * @return the lr result build dataset
      */
-    public LrJobResults getLrResultBuildDataset() {
-        return _resultFiles;
+    public synchronized LrJobResults getLrResultBuildDataset() {
+        if (_resultFiles != null) {
+            return _resultFiles;
+        }
+        try {
+            return getCachedOrLoad();
+        } catch (IOException e) {
+            // not cached, so the results are read again once the file is readable
+            logger.log(Level.WARNING, "Failed to read the LoadRunner results of " + build + " from " + getResultsFile(), e);
+            return new LrJobResults();
+        }
+    }
+
+    private LrJobResults getCachedOrLoad() throws IOException {
+        LrJobResults loaded = results != null ? results.get() : null;
+        if (loaded == null) {
+            loaded = load();
+            results = new SoftReference<>(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the names of the scenarios of the build, without loading the full results.
+     *
+     * @return the scenario names
+     */
+    public synchronized List<String> getScenarioNames() {
+        if (scenarioNames == null) {
+            return new ArrayList<>(getLrResultBuildDataset().getLrScenarioResults().keySet());
+        }
+        return Collections.unmodifiableList(scenarioNames);
+    }
+
+    public int getTotalErrors() {
+        return totalErrors;
+    }
+
+    public int getTotalFailures() {
+        return totalFailures;
     }
 
     /**
@@ -93,6 +160,9 @@ public class PerformanceJobReportAction extends InvisibleAction implements Simpl
         return jobDataSet;
     }
 
+    public Run<?, ?> getBuild() {
+        return build;
+    }
 
     @Override
     public Collection<? extends Action> getProjectActions() {
@@ -100,4 +170,56 @@ public class PerformanceJobReportAction extends InvisibleAction implements Simpl
         projectActions.add(new PerformanceProjectAction(build.getParent()));
         return projectActions;
     }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        build = r;
+    }
+
+    @Override
+    public synchronized void onLoad(Run<?, ?> r) {
+        build = r;
+        if (_resultFiles == null) {
+            return;
+        }
+        try {
+            store(_resultFiles);
+            _resultFiles = null;
+            r.save();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to move the LoadRunner results of " + r + " out of build.xml", e);
+        }
+    }
+
+    private void store(LrJobResults resultFiles) throws IOException {
+        File file = getResultsFile();
+        File temp = new File(file.getParentFile(), RESULTS_FILE_NAME + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(temp)), StandardCharsets.UTF_8))) {
+            Run.XSTREAM2.toXML(resultFiles, writer);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        scenarioNames = new ArrayList<>(new TreeSet<>(resultFiles.getLrScenarioResults().keySet()));
+        totalErrors = resultFiles.getTotalErrors();
+        totalFailures = resultFiles.getTotalFailures();
+        results = new SoftReference<>(resultFiles);
+    }
+
+    private LrJobResults load() throws IOException {
+        File file = getResultsFile();
+        if (!file.isFile()) {
+            return new LrJobResults();
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            return (LrJobResults) Run.XSTREAM2.fromXML(reader);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted LoadRunner results " + file, e);
+        }
+    }
+
+    private File getResultsFile() {
+        return new File(build.getRootDir(), RESULTS_FILE_NAME);
+    }
 }
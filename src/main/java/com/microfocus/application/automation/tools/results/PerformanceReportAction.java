@@ -39,8 +39,10 @@ import org.kohsuke.stapler.StaplerResponse;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -77,7 +79,7 @@ public class PerformanceReportAction implements Action, SimpleBuildStep.LastBuil
     }
 
     private void createPreformanceIndexFile(Run<?, ?> build, File indexFile, DirectoryBrowserSupport dbs) throws IOException {
-        BufferedReader br = new BufferedReader(new FileReader(indexFile));
+        BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8));
         String line;
         boolean rolling = true;
         while ((line = br.readLine()) != null) {
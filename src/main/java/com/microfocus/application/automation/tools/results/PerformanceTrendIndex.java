@@ -0,0 +1,224 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrScenarioSeries;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrTrendSeries;
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Run;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The LoadRunner trend of a job, kept per job and saved in the job folder.
+ * <p>
+ * Builds are added to the series once, when they are first seen completed, and the graph data
+ * is only generated again after a new build was added.
+ */
+final class PerformanceTrendIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(PerformanceTrendIndex.class.getName());
+    static final String FILE_NAME = "lrTrendSeries.xml";
+
+    private static final Map<Job<?, ?>, PerformanceTrendIndex> INDEXES =
+            new WeakHashMap<Job<?, ?>, PerformanceTrendIndex>();
+
+    private final Job<?, ?> job;
+    private final int maxBuilds;
+    private LrTrendSeries series;
+    private JSONObject graphData;
+    private JSONArray scenarioList;
+
+    PerformanceTrendIndex(Job<?, ?> job, int maxBuilds) {
+        this.job = job;
+        this.maxBuilds = maxBuilds;
+    }
+
+    /**
+     * Gets the trend index of a job.
+     *
+     * @param job       the job
+     * @param maxBuilds the number of builds displayed per scenario
+     * @return the trend index
+     */
+    static PerformanceTrendIndex of(Job<?, ?> job, int maxBuilds) {
+        synchronized (INDEXES) {
+            PerformanceTrendIndex index = INDEXES.get(job);
+            if (index == null) {
+                index = new PerformanceTrendIndex(job, maxBuilds);
+                INDEXES.put(job, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Adds the builds completed since the last update, rebuilding the series if displayed builds were deleted.
+     */
+    synchronized void update() {
+        boolean changed = false;
+        if (series == null) {
+            series = load();
+            changed = series == null;
+            if (series == null) {
+                series = new LrTrendSeries();
+            }
+        }
+
+        List<Run<?, ?>> completed = new ArrayList<Run<?, ?>>();
+        Set<Integer> present = new HashSet<Integer>();
+        for (Run<?, ?> run : job.getBuilds()) {
+            if (run.isBuilding() || run.getAction(PerformanceJobReportAction.class) == null) {
+                continue;
+            }
+            completed.add(run);
+            present.add(run.getNumber());
+        }
+
+        boolean rebuild = false;
+        for (int build : series.getIndexedBuilds()) {
+            if (!present.contains(build)) {
+                rebuild |= series.removeBuild(build);
+                changed = true;
+            }
+        }
+        if (rebuild) {
+            series = new LrTrendSeries();
+        }
+
+        List<Run<?, ?>> added = new ArrayList<Run<?, ?>>();
+        for (Run<?, ?> run : completed) {
+            if (!series.isIndexed(run.getNumber())) {
+                added.add(run);
+            }
+        }
+        // newest last, so the series only grows at its end
+        Collections.sort(added, new Comparator<Run<?, ?>>() {
+            @Override
+            public int compare(Run<?, ?> left, Run<?, ?> right) {
+                return Integer.compare(left.getNumber(), right.getNumber());
+            }
+        });
+        for (Run<?, ?> run : added) {
+            LrJobResults results = run.getAction(PerformanceJobReportAction.class).getLrResultBuildDataset();
+            series.addBuild(run.getNumber(), results, maxBuilds);
+            changed = true;
+        }
+
+        if (changed) {
+            graphData = null;
+            scenarioList = null;
+            save();
+        }
+    }
+
+    /**
+     * Gets the graph data of all the scenarios, generated once per change of the series.
+     *
+     * @return the graph data
+     */
+    synchronized JSONObject getGraphData() {
+        if (series == null) {
+            return new JSONObject();
+        }
+        if (graphData == null) {
+            JSONObject projectDataSet = new JSONObject();
+            for (LrScenarioSeries scenarioSeries : series.getScenarios().values()) {
+                JSONObject scenarioData = new JSONObject();
+                scenarioData.put("scenarioStats", new JSONObject());
+                JSONObject scenarioGraphData = new JSONObject();
+                LrGraphUtils.constructScenarioGraphs(scenarioSeries, scenarioGraphData);
+                scenarioData.put("scenarioData", scenarioGraphData);
+                projectDataSet.put(scenarioSeries.getScenarioName(), scenarioData);
+            }
+            graphData = projectDataSet;
+        }
+        return graphData;
+    }
+
+    /**
+     * Gets the names of the scenarios in the trend.
+     *
+     * @return the scenario list
+     */
+    synchronized JSONArray getScenarioList() {
+        if (series == null) {
+            return new JSONArray();
+        }
+        if (scenarioList == null) {
+            JSONArray scenarios = new JSONArray();
+            for (String scenarioName : series.getScenarios().keySet()) {
+                JSONObject scenario = new JSONObject();
+                scenario.put("ScenarioName", scenarioName);
+                scenarios.add(scenario);
+            }
+            scenarioList = scenarios;
+        }
+        return scenarioList;
+    }
+
+    private LrTrendSeries load() {
+        XmlFile file = getFile();
+        if (file.exists()) {
+            try {
+                return (LrTrendSeries) file.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the LoadRunner trend of " + job + " from " + file, e);
+            }
+        }
+        return null;
+    }
+
+    private void save() {
+        try {
+            getFile().write(series);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save the LoadRunner trend of " + job, e);
+        }
+    }
+
+    private XmlFile getFile() {
+        return new XmlFile(Run.XSTREAM2, new File(job.getRootDir(), FILE_NAME));
+    }
+}
@@ -32,7 +32,7 @@ import com.microfocus.application.automation.tools.common.RuntimeUtils;
 import com.microfocus.application.automation.tools.model.EnumDescription;
 import com.microfocus.application.automation.tools.model.ResultsPublisherModel;
 import com.microfocus.application.automation.tools.results.projectparser.performance.*;
-import com.microfocus.application.automation.tools.run.PcBuilder;
+import com.microfocus.application.automation.tools.run.PcRunResultsAction;
 import com.microfocus.application.automation.tools.run.RunFromAlmBuilder;
 import com.microfocus.application.automation.tools.run.RunFromFileBuilder;
 import com.microfocus.application.automation.tools.run.SseBuilder;
@@ -67,13 +67,11 @@ import javax.annotation.Nonnull;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static com.microfocus.application.automation.tools.results.projectparser.performance.XmlParserUtil.getNode;
@@ -108,7 +106,6 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
     private static final String NO_RICH_REPORTS_ERROR = "Template contains no rich reports.";
     private static final String NO_TRANSACTION_SUMMARY_REPORT_ERROR = "Template contains no transaction summary " +
             "report.";
-    private static final String PARALLEL_RESULT_FILE = "parallelrun_results.html";
     private static final String REPORT_ARCHIVE_SUFFIX = "_Report.zip";
 	private static final String EXTERNAL_REPORT_FOLDER = "StRes";
 
@@ -213,12 +210,9 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 			@Nonnull TaskListener listener, List<String> mergedResultNames, List<String> fileSystemResultNames)
 			throws InterruptedException, IOException {
 
-		for (String resultFile : mergedResultNames) {
-			JUnitResultArchiver jUnitResultArchiver = new JUnitResultArchiver(resultFile);
-			jUnitResultArchiver.setKeepLongStdio(true);
-			jUnitResultArchiver.setAllowEmptyResults(true);
-			jUnitResultArchiver.perform(build, workspace, launcher, listener);
-		}
+		// a single archiver run, so the build's test result is parsed, merged and saved once
+		JUnitResultArchiver jUnitResultArchiver = createJUnitResultArchiver(getJUnitResultsPattern(mergedResultNames));
+		jUnitResultArchiver.perform(build, workspace, launcher, listener);
 
 		final TestResultAction tempAction = build.getAction(TestResultAction.class);
 
@@ -258,6 +252,29 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		publishLrReports(build);
 	}
 
+	/**
+	 * Joins the result files into one comma separated include pattern, each file once.
+	 *
+	 * @param resultFiles the result files, relative to the workspace
+	 * @return the pattern to archive
+	 */
+	static String getJUnitResultsPattern(Collection<String> resultFiles) {
+		return String.join(",", new LinkedHashSet<String>(resultFiles));
+	}
+
+	/**
+	 * Creates the archiver that records the JUnit results of the run
+	 *
+	 * @param resultsPattern
+	 * @return the archiver
+	 */
+	JUnitResultArchiver createJUnitResultArchiver(String resultsPattern) {
+		JUnitResultArchiver jUnitResultArchiver = new JUnitResultArchiver(resultsPattern);
+		jUnitResultArchiver.setKeepLongStdio(true);
+		jUnitResultArchiver.setAllowEmptyResults(true);
+		return jUnitResultArchiver;
+	}
+
 	/**
 	 * Adds the html reports actions to the left side menu.
 	 *
@@ -289,18 +306,6 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		}
 	}
 
-	/**
-	 * checks if the given report path is a parallel runner report
-	 *
-	 * @param reportPath the path containing the report files
-	 * @throws IOException
-	 * @throws InterruptedException
-	 */
-	private boolean isParallelRunnerReportPath(FilePath reportPath) throws IOException, InterruptedException {
-		FilePath parallelRunnerResultsFile = new FilePath(reportPath, PARALLEL_RESULT_FILE);
-		return parallelRunnerResultsFile.exists();
-	}
-
 	/**
 	 * copies, archives and creates the Test reports of LR and UFT runs.
 	 *
@@ -352,7 +357,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 		// add previous report names for aggregation when using pipelines.
 		PerformanceJobReportAction performanceJobReportAction = build.getAction(PerformanceJobReportAction.class);
 		if (performanceJobReportAction != null) {
-			reportNames.addAll(performanceJobReportAction.getLrResultBuildDataset().getLrScenarioResults().keySet());
+			reportNames.addAll(performanceJobReportAction.getScenarioNames());
 		}
 		EnvVars env = build.getEnvironment(listener);
 		hudson.model.Node node =  Jenkins.get().getNode(env.get("NODE_NAME"));
@@ -435,215 +440,185 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 				boolean reportIsHtml = false;
 				NodeList testCasesNodes = ((Element) testSuiteNode).getElementsByTagName("testcase");
 				Map<String, Integer> fileNameCount = new HashMap<>();
+				List<Element> testCaseElements = new ArrayList<>();
+				List<UftReportFoldersProbe.TestCase> testCases = new ArrayList<>();
 				for (int i = 0; i < testCasesNodes.getLength(); i++) {
 					Node nNode = testCasesNodes.item(i);
-
-					if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-
+					if (nNode.getNodeType() == Node.ELEMENT_NODE && ((Element) nNode).hasAttribute(REPORT_NAME_FIELD)) {
 						Element eElement = (Element) nNode;
-
-						if (!eElement.hasAttribute(REPORT_NAME_FIELD)) {
-							continue;
-						}
-
-						String reportFolderPath = eElement.getAttribute(REPORT_NAME_FIELD); // e.g. "C:\UFTTest\GuiTest1\Report"
-
 						String testFolderPath = eElement.getAttribute("name"); // e.g. "C:\UFTTest\GuiTest1"
-						String testStatus = eElement.getAttribute("status"); // e.g. "pass"
-						Node nodeSystemInfo = eElement.getElementsByTagName("system-out").item(0);
-						String sysInfo = nodeSystemInfo.getFirstChild().getNodeValue();
-						String testDateTime = sysInfo.substring(0, 19);
-						String reportIndex = "";
-						FilePath testFileFullName = new FilePath(channel, testFolderPath);
-						if(!testFileFullName.exists()){
-							break;
-						}
-
-						String testName = testFileFullName.getName();
-						int nameCount = 1;
-						if (fileNameCount.containsKey(testName)) {
-							nameCount = fileNameCount.get(testName) + 1;
-						}
+						String testName = new FilePath(channel, testFolderPath).getName();
 						// update the count for this file
-						fileNameCount.put(testName, nameCount);
+						fileNameCount.merge(testName, 1, Integer::sum);
+						testCaseElements.add(eElement);
+						testCases.add(new UftReportFoldersProbe.TestCase(testFolderPath, eElement.getAttribute(REPORT_NAME_FIELD),
+								Integer.toString(fileNameCount.get(testName))));
+					}
+				}
 
-						if (fileNameCount.get(testName) != null) {
-							reportIndex = Integer.toString(fileNameCount.get(testName));
-						} else {
-							reportIndex = "1";
-						}
+				// resolve all the report folders with a single call to the node
+				List<UftReportFoldersProbe.ReportFolder> probedFolders = UftReportFoldersProbe.probe(channel, testCases);
+				Map<String, Integer> externalReportIndexes = new HashMap<>();
+				fileNameCount.clear();
+				for (int i = 0; i < testCaseElements.size(); i++) {
+					Element eElement = testCaseElements.get(i);
+					UftReportFoldersProbe.ReportFolder probedFolder = probedFolders.get(i);
+
+					String reportFolderPath = eElement.getAttribute(REPORT_NAME_FIELD); // e.g. "C:\UFTTest\GuiTest1\Report"
+
+					String testFolderPath = eElement.getAttribute("name"); // e.g. "C:\UFTTest\GuiTest1"
+					String testStatus = eElement.getAttribute("status"); // e.g. "pass"
+					Node nodeSystemInfo = eElement.getElementsByTagName("system-out").item(0);
+					String sysInfo = nodeSystemInfo.getFirstChild().getNodeValue();
+					String testDateTime = sysInfo.substring(0, 19);
+					if (!probedFolder.isTestFolderExists()) {
+						break;
+					}
 
-						FilePath reportFolder = new FilePath(channel, reportFolderPath + reportIndex);
-							if (!reportFolder.exists()) {
-								reportFolder = new FilePath(channel, reportFolderPath);
-							}
-							if(!reportFolder.exists()){
-								listener.getLogger().println("report folder does not exist");
-							}
-							boolean isParallelRunnerReport = isParallelRunnerReportPath(reportFolder);
-							reportFolders.add(reportFolder);
-
-							String archiveTestResultMode = _resultsPublisherModel.getArchiveTestResultsMode();
-							boolean archiveTestResult;
-
-							// check for the new html report
-							FilePath htmlReport = new FilePath(reportFolder,
-									isParallelRunnerReport ? PARALLEL_RESULT_FILE : "run_results.html");
-							ReportMetaData reportMetaData = new ReportMetaData();
-							if (htmlReport.exists()) {
-								reportIsHtml = true;
-								String htmlReportDir = reportFolder.getRemote();
-								reportMetaData.setFolderPath(htmlReportDir);
-								reportMetaData.setIsHtmlReport(true);
-								reportMetaData.setDateTime(testDateTime);
-								reportMetaData.setStatus(testStatus);
-								reportMetaData.setIsParallelRunnerReport(isParallelRunnerReport); // we need to handle
-								// the type for this report
-								testFileFullName = new FilePath(channel, testFolderPath);
-								testName = testFileFullName.getName();
-								testName += "[" + nameCount + "]";
-								String resourceUrl = "artifact/UFTReport/" + testName;
-
-								reportMetaData.setResourceURL(resourceUrl);
-								reportMetaData.setDisPlayName(testName); // use the name, not the full path
-
-								// don't know reportMetaData's URL path yet, we will generate it later.
-								ReportInfoToCollect.add(reportMetaData);
-							}
+					String testName = new FilePath(channel, testFolderPath).getName();
+					int nameCount = fileNameCount.merge(testName, 1, Integer::sum);
 
-							archiveTestResult = isArchiveTestResult(testStatus, archiveTestResultMode);
-							if (archiveTestResult) {
-								if (reportFolder.exists()) {
-									FilePath testFolder = new FilePath(channel, testFolderPath);
-									String zipFileName = getUniqueZipFileNameInFolder(zipFileNames, testFolder.getName(), "UFT");
-									zipFileNames.add(zipFileName);
-									ByteArrayOutputStream outstr = new ByteArrayOutputStream();
+					FilePath reportFolder = new FilePath(channel, probedFolder.getPath());
+					if (!probedFolder.isExists()) {
+						listener.getLogger().println("report folder does not exist");
+					}
+					boolean isParallelRunnerReport = probedFolder.isParallelRunnerReport();
+					reportFolders.add(reportFolder);
+
+					String archiveTestResultMode = _resultsPublisherModel.getArchiveTestResultsMode();
+					boolean archiveTestResult;
+
+					// check for the new html report
+					ReportMetaData reportMetaData = new ReportMetaData();
+					if (probedFolder.isHtmlReport()) {
+						reportIsHtml = true;
+						String htmlReportDir = reportFolder.getRemote();
+						externalReportIndexes.put(htmlReportDir, probedFolder.getExternalReportIndex());
+						reportMetaData.setFolderPath(htmlReportDir);
+						reportMetaData.setIsHtmlReport(true);
+						reportMetaData.setDateTime(testDateTime);
+						reportMetaData.setStatus(testStatus);
+						reportMetaData.setIsParallelRunnerReport(isParallelRunnerReport); // we need to handle
+						// the type for this report
+						testName += "[" + nameCount + "]";
+						String resourceUrl = "artifact/UFTReport/" + testName;
+
+						reportMetaData.setResourceURL(resourceUrl);
+						reportMetaData.setDisPlayName(testName); // use the name, not the full path
+
+						// don't know reportMetaData's URL path yet, we will generate it later.
+						ReportInfoToCollect.add(reportMetaData);
+					}
 
-									// don't use FileFilter for zip, or it will cause bug when files are on slave
-									reportFolder.zip(outstr);
+					archiveTestResult = isArchiveTestResult(testStatus, archiveTestResultMode);
+					if (archiveTestResult) {
+						if (probedFolder.isExists()) {
+							FilePath testFolder = new FilePath(channel, testFolderPath);
+							String zipFileName = getUniqueZipFileNameInFolder(zipFileNames, testFolder.getName(), "UFT");
+							zipFileNames.add(zipFileName);
+							ByteArrayOutputStream outstr = new ByteArrayOutputStream();
 
-									/*
-									 * I did't use copyRecursiveTo or copyFrom due to bug in
-									 * jekins:https://issues.jenkins-ci.org/browse /JENKINS-9189 //(which is
-									 * cleaimed to have been fixed, but not. So I zip the folder to stream and copy
-									 * it to the master.
-									 */
+							// don't use FileFilter for zip, or it will cause bug when files are on slave
+							reportFolder.zip(outstr);
 
-									ByteArrayInputStream instr = new ByteArrayInputStream(outstr.toByteArray());
+							/*
+							 * I did't use copyRecursiveTo or copyFrom due to bug in
+							 * jekins:https://issues.jenkins-ci.org/browse /JENKINS-9189 //(which is
+							 * cleaimed to have been fixed, but not. So I zip the folder to stream and copy
+							 * it to the master.
+							 */
 
-									FilePath archivedFile = new FilePath(new FilePath(artifactsDir), zipFileName);
-									archivedFile.copyFrom(instr);
+							ByteArrayInputStream instr = new ByteArrayInputStream(outstr.toByteArray());
 
-									outstr.close();
-									instr.close();
+							FilePath archivedFile = new FilePath(new FilePath(artifactsDir), zipFileName);
+							archivedFile.copyFrom(instr);
 
-									// add to Report list
-									String zipFileUrlName = "artifact/" + zipFileName;
-									reportMetaData.setArchiveUrl(zipFileUrlName);
+							outstr.close();
+							instr.close();
 
-								} else {
-									listener.getLogger().println("No report folder was found in: " + reportFolderPath);
-								}
-							}
+							// add to Report list
+							String zipFileUrlName = "artifact/" + zipFileName;
+							reportMetaData.setArchiveUrl(zipFileUrlName);
 
+						} else {
+							listener.getLogger().println("No report folder was found in: " + reportFolderPath);
 						}
 					}
 
-					if (reportIsHtml && !ReportInfoToCollect.isEmpty()) {
-						collectAndPrepareHtmlReports(build, listener, ReportInfoToCollect, runWorkspace);
-					}
+				}
 
-					if (!ReportInfoToCollect.isEmpty()) {
-						int index = 1;
-						String reportName = "report_metadata" + "_" + index + ".xml";
-						// serialize report metadata
-						synchronized (HtmlBuildReportAction.class) {
-							while (new File(artifactsDir.getParent(), reportName).exists()) {
-								index++;
-								reportName = "report_metadata" + "_" + index + ".xml";
-							}
-							File reportMetaDataXmlFile = new File(artifactsDir.getParent(), reportName);
-							String reportMetaDataXml = reportMetaDataXmlFile.getAbsolutePath();
-							writeReportMetaData2XML(ReportInfoToCollect, reportMetaDataXml, listener);
-
-							// Add UFT report action
-							try {
-								listener.getLogger().println("Adding a report action to the current build.");
-								HtmlBuildReportAction reportAction = new HtmlBuildReportAction(build, reportName, index);
-								build.addAction(reportAction);
-							} catch (IOException | SAXException | ParserConfigurationException ex) {
-								listener.getLogger().println("a problem adding action: " + ex);
-							}
+				if (reportIsHtml && !ReportInfoToCollect.isEmpty()) {
+					collectAndPrepareHtmlReports(build, listener, ReportInfoToCollect, runWorkspace, externalReportIndexes);
+				}
+
+				if (!ReportInfoToCollect.isEmpty()) {
+					int index = 1;
+					String reportName = "report_metadata" + "_" + index + ".xml";
+					// serialize report metadata
+					synchronized (HtmlBuildReportAction.class) {
+						while (new File(artifactsDir.getParent(), reportName).exists()) {
+							index++;
+							reportName = "report_metadata" + "_" + index + ".xml";
+						}
+						File reportMetaDataXmlFile = new File(artifactsDir.getParent(), reportName);
+						String reportMetaDataXml = reportMetaDataXmlFile.getAbsolutePath();
+						writeReportMetaData2XML(ReportInfoToCollect, reportMetaDataXml, listener);
+
+						// Add UFT report action
+						try {
+							listener.getLogger().println("Adding a report action to the current build.");
+							HtmlBuildReportAction reportAction = new HtmlBuildReportAction(build, reportName, index);
+							build.addAction(reportAction);
+						} catch (IOException ex) {
+							listener.getLogger().println("a problem adding action: " + ex);
 						}
 					}
 				}
 			}
+		}
 	}
 
 	private void writeReportMetaData2XML(List<ReportMetaData> htmlReportsInfo, String xmlFile, TaskListener _logger) {
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = null;
-		try {
-			builder = dbf.newDocumentBuilder();
-		} catch (ParserConfigurationException e) {
-			_logger.error("Failed creating xml doc report: " + e);
-			return;
-		}
-		Document doc = builder.newDocument();
-		Element root = doc.createElement("reports_data");
-		doc.appendChild(root);
-		int currentReport = 1;
-		for (ReportMetaData htmlReportInfo : htmlReportsInfo) {
-			String disPlayName = htmlReportInfo.getDisPlayName();
-			String urlName = htmlReportInfo.getUrlName();
-			String resourceURL = htmlReportInfo.getResourceURL();
-			String dateTime = htmlReportInfo.getDateTime();
-			String status = htmlReportInfo.getStatus();
-			String isHtmlReport = htmlReportInfo.getIsHtmlReport() ? "true" : "false";
-			String isParallelRunnerReport = htmlReportInfo.getIsParallelRunnerReport() ? "true" : "false";
-			String archiveUrl = htmlReportInfo.getArchiveUrl();
-			Element elmReport = doc.createElement(REPORT_NAME_FIELD);
-			elmReport.setAttribute("disPlayName", disPlayName);
-			elmReport.setAttribute("urlName", urlName);
-			elmReport.setAttribute("resourceURL", resourceURL);
-			elmReport.setAttribute("dateTime", dateTime);
-			elmReport.setAttribute("status", status);
-			elmReport.setAttribute("isHtmlreport", isHtmlReport);
-			elmReport.setAttribute("isParallelRunnerReport", isParallelRunnerReport);
-			elmReport.setAttribute("archiveUrl", archiveUrl);
-			root.appendChild(elmReport);
-			currentReport++;
-		}
-
-		try {
-			write2XML(doc, xmlFile);
-		} catch (TransformerException e) {
-			_logger.error("Failed transforming xml file: " + e);
-			_logger.getLogger().println("Failed transforming xml file: " + e);
-		} catch (FileNotFoundException e) {
-			_logger.error("Failed to find " + xmlFile + ": " + e);
-			_logger.getLogger().println("Failed to find " + xmlFile + ": " + e);
+		// streamed, so batches with thousands of reports are not held as a DOM
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(xmlFile))) {
+			XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeCharacters("\n");
+			writer.writeStartElement("reports_data");
+			for (ReportMetaData htmlReportInfo : htmlReportsInfo) {
+				writer.writeCharacters("\n    ");
+				writer.writeEmptyElement(REPORT_NAME_FIELD);
+				writeMetaDataAttribute(writer, "disPlayName", htmlReportInfo.getDisPlayName());
+				writeMetaDataAttribute(writer, "urlName", htmlReportInfo.getUrlName());
+				writeMetaDataAttribute(writer, "resourceURL", htmlReportInfo.getResourceURL());
+				writeMetaDataAttribute(writer, "dateTime", htmlReportInfo.getDateTime());
+				writeMetaDataAttribute(writer, "status", htmlReportInfo.getStatus());
+				writeMetaDataAttribute(writer, "isHtmlreport", htmlReportInfo.getIsHtmlReport() ? "true" : "false");
+				writeMetaDataAttribute(writer, "isParallelRunnerReport",
+						htmlReportInfo.getIsParallelRunnerReport() ? "true" : "false");
+				writeMetaDataAttribute(writer, "archiveUrl", htmlReportInfo.getArchiveUrl());
+			}
+			writer.writeCharacters("\n");
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.flush();
+			writer.close();
+		} catch (XMLStreamException e) {
+			_logger.error("Failed writing xml file: " + e);
+			_logger.getLogger().println("Failed writing xml file: " + e);
+		} catch (IOException e) {
+			_logger.error("Failed to write " + xmlFile + ": " + e);
+			_logger.getLogger().println("Failed to write " + xmlFile + ": " + e);
 		}
 	}
 
-	private void write2XML(Document document, String filename)
-			throws TransformerException, FileNotFoundException {
-		document.normalize();
-
-		TransformerFactory tFactory = TransformerFactory.newInstance();
-		Transformer transformer = tFactory.newTransformer();
-		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-		DOMSource source = new DOMSource(document);
-		PrintWriter pw = new PrintWriter(new FileOutputStream(filename));
-		StreamResult result = new StreamResult(pw);
-		transformer.transform(source, result);
-
+	private static void writeMetaDataAttribute(XMLStreamWriter writer, String name, String value)
+			throws XMLStreamException {
+		writer.writeAttribute(name, value != null ? value : "");
 	}
 
 	private Boolean collectAndPrepareHtmlReports(Run build, TaskListener listener, List<ReportMetaData> htmlReportsInfo,
-			FilePath runWorkspace) throws IOException, InterruptedException {
+			FilePath runWorkspace, Map<String, Integer> externalReportIndexes) throws IOException, InterruptedException {
 		File reportDir = new File(new File(build.getRootDir(), "archive"), "UFTReport");
 
 		FilePath rootTarget = new FilePath(reportDir);
@@ -658,8 +633,11 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 
 				String htmlReportDir = htmlReportInfo.getFolderPath(); // C:\UFTTest\GuiTest1\Report
 				try {
-					EnvVars env = build.getEnvironment(listener);
-					long indexFolder = getIndexOfReportFolder(new File(htmlReportDir), EXTERNAL_REPORT_FOLDER, env.get("NODE_NAME"));
+					Integer indexFolder = externalReportIndexes.get(htmlReportDir);
+					if (indexFolder == null) {
+						EnvVars env = build.getEnvironment(listener);
+						indexFolder = getIndexOfReportFolder(new File(htmlReportDir), EXTERNAL_REPORT_FOLDER, env.get("NODE_NAME"));
+					}
 					if(indexFolder > 0) {
 						String innerHtmlReportDir = htmlReportDir.substring(0, htmlReportDir.lastIndexOf('\\')) + "\\" + EXTERNAL_REPORT_FOLDER + indexFolder;
 
@@ -700,11 +678,8 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 				// fill in the urlName of this report. we need a network path not a FS path
 				String resourceUrl = htmlReportInfo.getResourceURL();
 
-				//paraller runner
-				FilePath source = new FilePath(runWorkspace, htmlReportDir);
-
 				// if it's a parallel runner report path, we must change the resFileName
-				boolean isParallelRunner = isParallelRunnerReportPath(source);
+				boolean isParallelRunner = Boolean.TRUE.equals(htmlReportInfo.getIsParallelRunnerReport());
 
 				String resFileName = isParallelRunner ? "/parallelrun_results.html" : "/run_results.html";
 
@@ -949,30 +924,36 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 	}
 
 	private void createRichReportHtml(File reportDirectory, List<String> richReportNames) throws IOException {
-		String htmlFileContents = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" + "<HTML><HEAD>"
-				+ "<meta http-equiv=\"content-type\" content=\"text/html; charset=UTF-8\">"
-				+ "<TITLE>Rich Report</TITLE>" + "</HEAD>" + "<BODY>";
-
-		if (richReportNames.size() == 0) {
-			htmlFileContents += NO_RICH_REPORTS_ERROR;
-		} else {
-			for (String richReportName : richReportNames) {
-				htmlFileContents += "<iframe src=\"./" + richReportName + "\" width=\"100%%\" height=\"800px\" "
-						+ "frameBorder=\"0\"></iframe>";
-			}
-		}
+		File richReportsHtml = new File(reportDirectory, HTML_REPORT_FOLDER + ".html");
+		try (Writer writer = newHtmlWriter(richReportsHtml)) {
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" + "<HTML><HEAD>"
+					+ "<meta http-equiv=\"content-type\" content=\"text/html; charset=UTF-8\">"
+					+ "<TITLE>Rich Report</TITLE>" + "</HEAD>" + "<BODY>");
 
-		htmlFileContents += "</BODY>";
+			if (richReportNames.size() == 0) {
+				writer.write(NO_RICH_REPORTS_ERROR);
+			} else {
+				for (String richReportName : richReportNames) {
+					writer.write("<iframe src=\"./" + richReportName + "\" width=\"100%%\" height=\"800px\" "
+							+ "frameBorder=\"0\"></iframe>");
+				}
+			}
 
-		File richReportsHtml = new File(reportDirectory, HTML_REPORT_FOLDER + ".html");
-		writeToFile(richReportsHtml, htmlFileContents);
+			writer.write("</BODY>");
+		}
 	}
 
 	private void writeToFile(File file, String contents) throws IOException {
-		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-		writer.write(contents);
-		writer.flush();
-		writer.close();
+		try (Writer writer = newHtmlWriter(file)) {
+			writer.write(contents);
+		}
+	}
+
+	/**
+	 * The generated html and index files are always written as UTF-8, as declared in their headers.
+	 */
+	private static Writer newHtmlWriter(File file) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
 	}
 
 	/**
@@ -989,7 +970,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 			return;
 		}
 		File htmlIndexFile = new File(reportDirectory, INDEX_HTML_NAME);
-		BufferedWriter writer = new BufferedWriter(new FileWriter(htmlIndexFile));
+		Writer writer = newHtmlWriter(htmlIndexFile);
 		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>%n");
 		writer.write("<HTML><HEAD>%n");
 		writer.write("<meta http-equiv=\"content-type\" content=\"text/html; charset=UTF-8\">%n");
@@ -1025,7 +1006,7 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
 
 		File indexFile = new File(reportDirectory, REPORT_INDEX_NAME);
 		try {
-			writer = new BufferedWriter(new FileWriter(indexFile));
+			writer = newHtmlWriter(indexFile);
 			Iterator<SuiteResult> resultIterator = null;
 			if ((testResult != null) && (!testResult.getSuites().isEmpty())) {
 				resultIterator = testResult.getSuites().iterator();// get the first
@@ -1439,13 +1420,12 @@ public class RunResultRecorder extends Recorder implements Serializable, MatrixA
                 if (resultsFileName != null) {
                     almSSEResultNames.add(resultsFileName);
                 }
-            } else if (builder instanceof PcBuilder) {
-                String resultsFileName = ((PcBuilder) builder).getRunResultsFileName();
-                if (resultsFileName != null) {
-                    pcResultNames.add(resultsFileName);
-                }
             }
         }
+        // the builders are shared by all the builds of the job, the load test results are kept on the build
+        for (PcRunResultsAction pcRunResults : build.getActions(PcRunResultsAction.class)) {
+            pcResultNames.add(pcRunResults.getResultsFileName());
+        }
 
 		IOFileFilter byBuildNumberFileFilter = new WildcardFileFilter(String.format("*_%d.xml", build.getNumber()));
 		IOFileFilter byBuildStartedFileFilter = new AgeFileFilter(build.getStartTimeInMillis(), false);
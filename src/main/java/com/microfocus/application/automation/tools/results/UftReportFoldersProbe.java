@@ -0,0 +1,174 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import hudson.remoting.VirtualChannel;
+import jenkins.security.MasterToSlaveCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the report folders of all the UFT test cases of a result file in a single call to the node running the tests,
+ * instead of several remote file system calls per test case.
+ */
+public class UftReportFoldersProbe extends MasterToSlaveCallable<List<UftReportFoldersProbe.ReportFolder>, IOException> {
+	private static final long serialVersionUID = 1L;
+
+	static final String RUN_RESULT_FILE = "run_results.html";
+	static final String PARALLEL_RESULT_FILE = "parallelrun_results.html";
+	static final String EXTERNAL_REPORT_FOLDER = "StRes";
+
+	private final List<TestCase> testCases;
+
+	public UftReportFoldersProbe(List<TestCase> testCases) {
+		this.testCases = testCases;
+	}
+
+	public static List<ReportFolder> probe(VirtualChannel channel, List<TestCase> testCases) throws IOException, InterruptedException {
+		UftReportFoldersProbe probe = new UftReportFoldersProbe(testCases);
+		return channel != null ? channel.call(probe) : probe.call();
+	}
+
+	@Override
+	public List<ReportFolder> call() {
+		List<ReportFolder> result = new ArrayList<>(testCases.size());
+		for (TestCase testCase : testCases) {
+			result.add(probe(testCase));
+		}
+		return result;
+	}
+
+	private static ReportFolder probe(TestCase testCase) {
+		ReportFolder reportFolder = new ReportFolder();
+		reportFolder.testFolderExists = new File(testCase.testFolderPath).exists();
+		if (!reportFolder.testFolderExists) {
+			return reportFolder;
+		}
+
+		reportFolder.path = testCase.reportFolderPath + testCase.reportIndex;
+		File folder = new File(reportFolder.path);
+		if (!folder.exists()) {
+			reportFolder.path = testCase.reportFolderPath;
+			folder = new File(reportFolder.path);
+		}
+		reportFolder.exists = folder.exists();
+		reportFolder.parallelRunnerReport = new File(folder, PARALLEL_RESULT_FILE).exists();
+		reportFolder.htmlReport = new File(folder, reportFolder.parallelRunnerReport ? PARALLEL_RESULT_FILE : RUN_RESULT_FILE).exists();
+		if (reportFolder.htmlReport) {
+			reportFolder.externalReportIndex = getIndexOfExternalReportFolder(reportFolder.path);
+		}
+		return reportFolder;
+	}
+
+	/**
+	 * @return highest index of the external report folders (StRes1, StRes2...) next to the report folder, 0 if there is none
+	 */
+	static int getIndexOfExternalReportFolder(String reportFolderPath) {
+		int index = 0;
+		int separator = reportFolderPath.lastIndexOf('\\');
+		if (separator < 0) {
+			return index;
+		}
+		File[] folders = new File(reportFolderPath.substring(0, separator)).listFiles(File::isDirectory);
+		if (folders == null) {
+			return index;
+		}
+		for (File folder : folders) {
+			String name = folder.getName();
+			if (name.startsWith(EXTERNAL_REPORT_FOLDER)) {
+				try {
+					index = Math.max(index, Integer.parseInt(name.substring(EXTERNAL_REPORT_FOLDER.length())));
+				} catch (NumberFormatException e) {
+					// not an external report folder
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Test case of the result file, as read on the master
+	 */
+	public static class TestCase implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private final String testFolderPath;
+		private final String reportFolderPath;
+		private final String reportIndex;
+
+		public TestCase(String testFolderPath, String reportFolderPath, String reportIndex) {
+			this.testFolderPath = testFolderPath;
+			this.reportFolderPath = reportFolderPath;
+			this.reportIndex = reportIndex;
+		}
+	}
+
+	/**
+	 * Report folder of a test case as found on the node
+	 */
+	public static class ReportFolder implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private boolean testFolderExists;
+		private String path;
+		private boolean exists;
+		private boolean parallelRunnerReport;
+		private boolean htmlReport;
+		private int externalReportIndex;
+
+		public boolean isTestFolderExists() {
+			return testFolderExists;
+		}
+
+		/**
+		 * @return the indexed report folder (e.g. Report2) if it exists, the report folder from the result file otherwise
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public boolean isExists() {
+			return exists;
+		}
+
+		public boolean isParallelRunnerReport() {
+			return parallelRunnerReport;
+		}
+
+		public boolean isHtmlReport() {
+			return htmlReport;
+		}
+
+		public int getExternalReportIndex() {
+			return externalReportIndex;
+		}
+	}
+}
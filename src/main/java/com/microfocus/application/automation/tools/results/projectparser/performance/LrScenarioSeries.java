@@ -0,0 +1,303 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.projectparser.performance;
+
+import java.util.Arrays;
+
+/**
+ * The SLA results of one scenario over the builds of a job, kept column by column: one primitive
+ * array per metric and per transaction, aligned with the sorted array of build numbers.
+ */
+public class LrScenarioSeries {
+
+    /**
+     * The whole run metrics of a scenario.
+     */
+    public enum Metric {
+        TotalHits, AverageHitsPerSecond, TotalThroughput, AverageThroughput, ErrorsPerSecond
+    }
+
+    private final String scenarioName;
+    private int[] builds = new int[0];
+    // [metric][build]
+    private double[][] metrics = new double[Metric.values().length][0];
+    private boolean[][] hasMetric = new boolean[Metric.values().length][0];
+    private String[] transactions = new String[0];
+    // [transaction][build]
+    private double[][] averageTrt = new double[0][];
+    private boolean[][] hasAverageTrt = new boolean[0][];
+    private double[][] percentileTrt = new double[0][];
+    private boolean[][] hasPercentileTrt = new boolean[0][];
+
+    public LrScenarioSeries(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    /**
+     * Adds the SLA results of a build, keeping only the newest builds.
+     *
+     * @param build     the build number
+     * @param result    the scenario results of the build
+     * @param maxBuilds the number of builds to keep
+     */
+    public void addBuild(int build, JobLrScenarioResult result, int maxBuilds) {
+        int index = Arrays.binarySearch(builds, build);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (builds.length >= maxBuilds && index == 0) {
+            return;
+        }
+
+        insertBuild(index, build);
+        for (GoalResult goalResult : result.scenarioSlaResults) {
+            addGoalResult(index, goalResult);
+        }
+        while (builds.length > maxBuilds) {
+            removeBuildAt(0);
+        }
+    }
+
+    /**
+     * Removes a build from the series.
+     *
+     * @param build the build number
+     * @return true if the build was part of the series
+     */
+    public boolean removeBuild(int build) {
+        int index = Arrays.binarySearch(builds, build);
+        if (index < 0) {
+            return false;
+        }
+        removeBuildAt(index);
+        return true;
+    }
+
+    private void addGoalResult(int index, GoalResult goalResult) {
+        if (goalResult.getStatus().equals(LrTest.SLA_STATUS.NoData)) {
+            return;
+        }
+        switch (goalResult.getSlaGoal()) {
+            case AverageThroughput:
+                setMetric(Metric.AverageThroughput, index, ((WholeRunResult) goalResult).getActualValue());
+                break;
+            case TotalThroughput:
+                setMetric(Metric.TotalThroughput, index, ((WholeRunResult) goalResult).getActualValue());
+                break;
+            case AverageHitsPerSecond:
+                setMetric(Metric.AverageHitsPerSecond, index, ((WholeRunResult) goalResult).getActualValue());
+                break;
+            case TotalHits:
+                setMetric(Metric.TotalHits, index, ((WholeRunResult) goalResult).getActualValue());
+                break;
+            case ErrorsPerSecond:
+                // only the results measured over the whole run are part of the trend
+                TimeRangeResult errors = (TimeRangeResult) goalResult;
+                if (errors.getTimeRanges().isEmpty()) {
+                    setMetric(Metric.ErrorsPerSecond, index, errors.getActualValueAvg());
+                }
+                break;
+            case PercentileTRT:
+                PercentileTransactionWholeRun percentile = (PercentileTransactionWholeRun) goalResult;
+                int percentileTransaction = transactionIndex(percentile.getName());
+                percentileTrt[percentileTransaction][index] = percentile.getActualValue();
+                hasPercentileTrt[percentileTransaction][index] = true;
+                break;
+            case AverageTRT:
+                AvgTransactionResponseTime average = (AvgTransactionResponseTime) goalResult;
+                int averageTransaction = transactionIndex(average.getName());
+                averageTrt[averageTransaction][index] = average.getActualValueAvg();
+                hasAverageTrt[averageTransaction][index] = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void setMetric(Metric metric, int index, double value) {
+        metrics[metric.ordinal()][index] = value;
+        hasMetric[metric.ordinal()][index] = true;
+    }
+
+    private int transactionIndex(String name) {
+        for (int i = 0; i < transactions.length; i++) {
+            if (transactions[i].equals(name)) {
+                return i;
+            }
+        }
+        int index = transactions.length;
+        transactions = Arrays.copyOf(transactions, index + 1);
+        transactions[index] = name.intern();
+        averageTrt = Arrays.copyOf(averageTrt, index + 1);
+        averageTrt[index] = new double[builds.length];
+        hasAverageTrt = Arrays.copyOf(hasAverageTrt, index + 1);
+        hasAverageTrt[index] = new boolean[builds.length];
+        percentileTrt = Arrays.copyOf(percentileTrt, index + 1);
+        percentileTrt[index] = new double[builds.length];
+        hasPercentileTrt = Arrays.copyOf(hasPercentileTrt, index + 1);
+        hasPercentileTrt[index] = new boolean[builds.length];
+        return index;
+    }
+
+    private void insertBuild(int index, int build) {
+        int[] newBuilds = new int[builds.length + 1];
+        System.arraycopy(builds, 0, newBuilds, 0, index);
+        newBuilds[index] = build;
+        System.arraycopy(builds, index, newBuilds, index + 1, builds.length - index);
+        builds = newBuilds;
+        insertColumn(metrics, hasMetric, index);
+        insertColumn(averageTrt, hasAverageTrt, index);
+        insertColumn(percentileTrt, hasPercentileTrt, index);
+    }
+
+    private void removeBuildAt(int index) {
+        int[] newBuilds = new int[builds.length - 1];
+        System.arraycopy(builds, 0, newBuilds, 0, index);
+        System.arraycopy(builds, index + 1, newBuilds, index, newBuilds.length - index);
+        builds = newBuilds;
+        removeColumn(metrics, hasMetric, index);
+        removeColumn(averageTrt, hasAverageTrt, index);
+        removeColumn(percentileTrt, hasPercentileTrt, index);
+        removeUnusedTransactions();
+    }
+
+    private static void insertColumn(double[][] values, boolean[][] present, int index) {
+        for (int row = 0; row < values.length; row++) {
+            int length = values[row].length;
+            double[] newValues = new double[length + 1];
+            System.arraycopy(values[row], 0, newValues, 0, index);
+            System.arraycopy(values[row], index, newValues, index + 1, length - index);
+            values[row] = newValues;
+            boolean[] newPresent = new boolean[length + 1];
+            System.arraycopy(present[row], 0, newPresent, 0, index);
+            System.arraycopy(present[row], index, newPresent, index + 1, length - index);
+            present[row] = newPresent;
+        }
+    }
+
+    private static void removeColumn(double[][] values, boolean[][] present, int index) {
+        for (int row = 0; row < values.length; row++) {
+            int length = values[row].length - 1;
+            double[] newValues = new double[length];
+            System.arraycopy(values[row], 0, newValues, 0, index);
+            System.arraycopy(values[row], index + 1, newValues, index, length - index);
+            values[row] = newValues;
+            boolean[] newPresent = new boolean[length];
+            System.arraycopy(present[row], 0, newPresent, 0, index);
+            System.arraycopy(present[row], index + 1, newPresent, index, length - index);
+            present[row] = newPresent;
+        }
+    }
+
+    private void removeUnusedTransactions() {
+        int kept = 0;
+        for (int i = 0; i < transactions.length; i++) {
+            if (!contains(hasAverageTrt[i]) && !contains(hasPercentileTrt[i])) {
+                continue;
+            }
+            transactions[kept] = transactions[i];
+            averageTrt[kept] = averageTrt[i];
+            hasAverageTrt[kept] = hasAverageTrt[i];
+            percentileTrt[kept] = percentileTrt[i];
+            hasPercentileTrt[kept] = hasPercentileTrt[i];
+            kept++;
+        }
+        if (kept < transactions.length) {
+            transactions = Arrays.copyOf(transactions, kept);
+            averageTrt = Arrays.copyOf(averageTrt, kept);
+            hasAverageTrt = Arrays.copyOf(hasAverageTrt, kept);
+            percentileTrt = Arrays.copyOf(percentileTrt, kept);
+            hasPercentileTrt = Arrays.copyOf(hasPercentileTrt, kept);
+        }
+    }
+
+    private static boolean contains(boolean[] present) {
+        for (boolean value : present) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object readResolve() {
+        for (int i = 0; i < transactions.length; i++) {
+            transactions[i] = transactions[i].intern();
+        }
+        return this;
+    }
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    /**
+     * @return the number of builds in the series
+     */
+    public int size() {
+        return builds.length;
+    }
+
+    public int getBuild(int index) {
+        return builds[index];
+    }
+
+    public boolean hasMetric(Metric metric, int index) {
+        return hasMetric[metric.ordinal()][index];
+    }
+
+    public double getMetric(Metric metric, int index) {
+        return metrics[metric.ordinal()][index];
+    }
+
+    public int getTransactionCount() {
+        return transactions.length;
+    }
+
+    public String getTransaction(int transaction) {
+        return transactions[transaction];
+    }
+
+    public boolean hasAverageTrt(int transaction, int index) {
+        return hasAverageTrt[transaction][index];
+    }
+
+    public double getAverageTrt(int transaction, int index) {
+        return averageTrt[transaction][index];
+    }
+
+    public boolean hasPercentileTrt(int transaction, int index) {
+        return hasPercentileTrt[transaction][index];
+    }
+
+    public double getPercentileTrt(int transaction, int index) {
+        return percentileTrt[transaction][index];
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.projectparser.performance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The scenario series of a job, built incrementally as its builds complete.
+ */
+public class LrTrendSeries {
+
+    // sorted numbers of all the builds added so far, including the ones no longer displayed
+    private int[] indexedBuilds = new int[0];
+    private final SortedMap<String, LrScenarioSeries> scenarios = new TreeMap<String, LrScenarioSeries>();
+
+    /**
+     * Adds the results of a build to the series of its scenarios.
+     *
+     * @param build     the build number
+     * @param results   the results of the build
+     * @param maxBuilds the number of builds to keep per scenario
+     */
+    public void addBuild(int build, LrJobResults results, int maxBuilds) {
+        int index = Arrays.binarySearch(indexedBuilds, build);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        int[] newBuilds = new int[indexedBuilds.length + 1];
+        System.arraycopy(indexedBuilds, 0, newBuilds, 0, index);
+        newBuilds[index] = build;
+        System.arraycopy(indexedBuilds, index, newBuilds, index + 1, indexedBuilds.length - index);
+        indexedBuilds = newBuilds;
+
+        for (Map.Entry<String, JobLrScenarioResult> scenarioResult : results.getLrScenarioResults().entrySet()) {
+            LrScenarioSeries series = scenarios.get(scenarioResult.getKey());
+            if (series == null) {
+                series = new LrScenarioSeries(scenarioResult.getKey());
+                scenarios.put(scenarioResult.getKey(), series);
+            }
+            series.addBuild(build, scenarioResult.getValue(), maxBuilds);
+        }
+    }
+
+    /**
+     * Removes a build from the series.
+     *
+     * @param build the build number
+     * @return true if the build was displayed in any scenario series
+     */
+    public boolean removeBuild(int build) {
+        int index = Arrays.binarySearch(indexedBuilds, build);
+        if (index < 0) {
+            return false;
+        }
+        int[] newBuilds = new int[indexedBuilds.length - 1];
+        System.arraycopy(indexedBuilds, 0, newBuilds, 0, index);
+        System.arraycopy(indexedBuilds, index + 1, newBuilds, index, newBuilds.length - index);
+        indexedBuilds = newBuilds;
+
+        boolean displayed = false;
+        for (LrScenarioSeries series : scenarios.values()) {
+            displayed |= series.removeBuild(build);
+        }
+        return displayed;
+    }
+
+    public boolean isIndexed(int build) {
+        return Arrays.binarySearch(indexedBuilds, build) >= 0;
+    }
+
+    public int[] getIndexedBuilds() {
+        return indexedBuilds.clone();
+    }
+
+    public SortedMap<String, LrScenarioSeries> getScenarios() {
+        return Collections.unmodifiableSortedMap(scenarios);
+    }
+}
@@ -100,9 +100,8 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
     public static final String    ERROR           = "Error";
 
     private PcModel pcModel;
-    public static UsernamePasswordCredentials usernamePCPasswordCredentials;
-    public static UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy;
-    private transient static Run<?, ?> _run;
+    private transient UsernamePasswordCredentials usernamePCPasswordCredentials;
+    private transient UsernamePasswordCredentials usernamePCPasswordCredentialsForProxy;
 
     private final String timeslotDurationHours;
     private final String timeslotDurationMinutes;
@@ -129,13 +128,11 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
     private String retryOccurrences;
     private boolean authenticateWithToken;
 
-    private int runId;
-    private String testName;
-    private FilePath pcReportFile;
-    private String junitResultsFileName;
-    private static PrintStream logger;
-    private File WorkspacePath;
-    private FilePath Workspace;
+    private transient int runId;
+    private transient String testName;
+    private transient FilePath pcReportFile;
+    private transient PrintStream logger;
+    private transient FilePath workspace;
     private DateFormatter dateFormatter = new DateFormatter("");
 
     @DataBoundConstructor
@@ -198,12 +195,6 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
     @Override
     public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
             throws InterruptedException, IOException {
-        if(build.getWorkspace() != null)
-            WorkspacePath =  new File(build.getWorkspace().toURI());
-        else
-            WorkspacePath =  null;
-        if((getPcModel() != null) && (build != null) && (build instanceof AbstractBuild))
-            setPcModelBuildParameters(build, listener);
         if(build.getWorkspace() != null)
             perform(build, build.getWorkspace(), launcher, listener);
         else
@@ -211,7 +202,7 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
         return true;
     }
 
-    private void setPcModelBuildParameters(AbstractBuild<?, ?> build, BuildListener listener) throws IOException, InterruptedException {
+    private void setPcModelBuildParameters(AbstractBuild<?, ?> build, TaskListener listener) throws IOException, InterruptedException {
             Map<String, String> mapParamsAndEnvars = new HashMap<String, String>();
             Map<String, String> buildParameters = build.getBuildVariables();
             mapParamsAndEnvars.putAll(buildParameters);
@@ -229,11 +220,6 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
                 getPcModel().setBuildParameters(buildParametersAndEnvars);
     }
 
-    public File getWorkspacePath(){
-        return WorkspacePath;
-    }
-
-
     public String getCredentialsId() {
         return credentialsId;
     }
@@ -242,21 +228,6 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
         return credentialsProxyId;
     }
 
-    public static UsernamePasswordCredentials getCredentialsId(String credentialsId)
-    {
-        if(credentialsId!=null && _run != null )
-            return getCredentialsById(credentialsId, _run, logger);
-        return null;
-    }
-
-    public static UsernamePasswordCredentials getCredentialsProxyId(String credentialsProxyId)
-    {
-        if(credentialsProxyId!=null && _run != null )
-            return getCredentialsById(credentialsProxyId, _run, logger);
-        return null;
-    }
-
-
     public  void setCredentialsId(String newCredentialsId)
     {
         credentialsId = newCredentialsId;
@@ -289,6 +260,18 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
         return usernamePCPasswordCredentials;
     }
 
+    /**
+     * credentials given by build parameter are looked up first, then the ones from the configuration
+     */
+    private UsernamePasswordCredentials getRunCredentials(String resolvedCredentialsId, String configuredCredentialsId, Run<?, ?> run) {
+        UsernamePasswordCredentials credentials = null;
+        if (StringUtils.isNotBlank(resolvedCredentialsId) && !resolvedCredentialsId.equals(configuredCredentialsId))
+            credentials = getCredentialsById(resolvedCredentialsId, run, logger);
+        if (credentials == null)
+            credentials = getCredentialsById(configuredCredentialsId, run, logger);
+        return credentials;
+    }
+
     //pcModel is intialized here.
     public PcModel getPcModel() {
         if(pcModel == null)
@@ -321,11 +304,6 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
         return pcModel;
     }
     
-    public String getRunResultsFileName() {
-        
-        return junitResultsFileName;
-    }
-    
     public static String getArtifactsDirectoryName() {
         
         return artifactsDirectoryName;
@@ -389,7 +367,6 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
 
     private Testsuites execute(PcClient pcClient, Run<?, ?> build)
             throws InterruptedException,NullPointerException {
-        _run = build;
         try {
             String version = getVersion();
             if(!(version == null || version.equals("unknown")))
@@ -790,7 +767,7 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
         String fileName = measurement.toString().toLowerCase()  + "_" +  pctType.toString().toLowerCase() + ".csv";
         Map<String, String> measurementMap = pcClient.getTrendReportByXML(trendReportID, runId, dataType, pctType, measurement);
         try {
-            FilePath filePath = new FilePath(Workspace.getChannel(), getWorkspacePath().getPath() + "/" + fileName);
+            FilePath filePath = workspace.child(fileName);
             String filepathContent="";
             for (String key : measurementMap.keySet()) {
                 filepathContent += key + ",";
@@ -802,13 +779,13 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
             filePath.write(filepathContent, null);
             return true;
         } catch (InterruptedException e) {
-            if (getWorkspacePath().getPath() != null)
+            if (workspace != null)
                 logger.println(String.format("%s - %s: %s %s: %s. %s: %s",
                         dateFormatter.getDate(),
                         Messages.ErrorSavingFile(),
                         fileName,
                         Messages.ToWorkspacePath(),
-                        getWorkspacePath().getPath(),
+                        workspace.getRemote(),
                         Messages.Error(),
                         e.getMessage()));
             else
@@ -962,23 +939,34 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
     private String getJunitResultsFileName() {
         Format formatter = new SimpleDateFormat("ddMMyyyyHHmmssSSS");
         String time = formatter.format(new Date());
-        junitResultsFileName = String.format("Results%s.xml", time);
-        return junitResultsFileName;
+        return String.format("Results%s.xml", time);
     }
 
     @Override
     public void perform(@Nonnull Run<?, ?> build, @Nonnull FilePath workspace, @Nonnull Launcher launcher,
                         @Nonnull TaskListener listener) throws InterruptedException, IOException {
-        Workspace = workspace;
-        WorkspacePath = new File(workspace.toURI());
+        // the same builder instance is used by all the builds of the job, each run keeps its state in its own copy
+        PcBuilder pcBuilderForRun = copyForRun();
+        pcBuilderForRun.performRun(build, workspace, listener);
+    }
+
+    private PcBuilder copyForRun() {
+        return new PcBuilder(serverAndPort, pcServerName, credentialsId, almDomain, almProject, testId, testInstanceId,
+                autoTestInstanceID, timeslotDurationHours, timeslotDurationMinutes, postRunAction, vudsMode, statusBySLA,
+                description, addRunToTrendReport, trendReportId, HTTPSProtocol, proxyOutURL, credentialsProxyId, retry,
+                retryDelay, retryOccurrences, authenticateWithToken);
+    }
+
+    private void performRun(Run<?, ?> build, FilePath workspace, TaskListener listener) throws InterruptedException, IOException {
+        this.workspace = workspace;
         Result resultStatus = Result.FAILURE;
         //trendReportReady = false;
         logger = listener.getLogger();
-        if(credentialsId != null)
-            usernamePCPasswordCredentials = getCredentialsById(credentialsId, build, logger);
-        if(credentialsProxyId != null && !credentialsProxyId.isEmpty())
-            usernamePCPasswordCredentialsForProxy = getCredentialsById(credentialsProxyId, build, logger);
-        PcClient pcClient = new PcClient(getPcModel(), logger);
+        if (build instanceof AbstractBuild)
+            setPcModelBuildParameters((AbstractBuild<?, ?>) build, listener);
+        usernamePCPasswordCredentials = getRunCredentials(getPcModel().getCredentialsId(true), credentialsId, build);
+        usernamePCPasswordCredentialsForProxy = getRunCredentials(getPcModel().getCredentialsProxyId(true), credentialsProxyId, build);
+        PcClient pcClient = new PcClient(getPcModel(), logger, usernamePCPasswordCredentials, usernamePCPasswordCredentialsForProxy);
         Testsuites testsuites = execute(pcClient, build);
 
 //        // Create Trend Report
@@ -989,7 +977,9 @@ public class PcBuilder extends Builder implements SimpleBuildStep{
 //        }
 //        // End Create Trend Report
 
-        FilePath resultsFilePath = workspace.child(getJunitResultsFileName());
+        String junitResultsFileName = getJunitResultsFileName();
+        build.addAction(new PcRunResultsAction(junitResultsFileName));
+        FilePath resultsFilePath = workspace.child(junitResultsFileName);
         resultStatus = createRunResults(resultsFilePath, testsuites);
         provideStepResultStatus(resultStatus, build);
 
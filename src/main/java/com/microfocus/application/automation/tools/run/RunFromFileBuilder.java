@@ -755,15 +755,13 @@ public class RunFromFileBuilder extends Builder implements SimpleBuildStep {
            }
            //cleanup report folders before running the build
            String selectedNode = env.get("NODE_NAME");
+           List<String> testPaths = new ArrayList<>();
            int index = 1;
            while (mergedProperties.getProperty("Test" + index) != null) {
-               String testPath = mergedProperties.getProperty(("Test" + index));
-               List<String> buildTests = UftToolUtils.getBuildTests(selectedNode, testPath);
-               for(String test : buildTests) {
-                   UftToolUtils.deleteReportFoldersFromNode(selectedNode, test, listener);
-               }
+               testPaths.add(mergedProperties.getProperty("Test" + index));
                index++;
            }
+           UftToolUtils.deleteReportFoldersFromNode(selectedNode, testPaths, listener);
 
            // get properties serialized into a stream
            ByteArrayOutputStream stream = new ByteArrayOutputStream();
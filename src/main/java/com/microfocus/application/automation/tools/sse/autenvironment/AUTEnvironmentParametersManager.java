@@ -50,6 +50,16 @@ public class AUTEnvironmentParametersManager {
 
     public final static String PARAMETER_PATH_DELIMITER = "/";
 
+    /**
+     * Maximal number of folder ids sent in a single folders query, keeps the request URL bounded
+     */
+    private static final int FOLDERS_QUERY_CHUNK_SIZE = 100;
+
+    /**
+     * Maximal number of parameters submitted in a single bulk update request
+     */
+    private static final int PARAMETERS_UPDATE_CHUNK_SIZE = 500;
+
     private Logger logger;
     private Client client;
     private List<AutEnvironmentParameterModel> parametersToAssign;
@@ -99,14 +109,24 @@ public class AUTEnvironmentParametersManager {
 
     public void updateParametersValues(Collection<AUTEnvironmnentParameter> parametersToUpdate) {
 
-        Response response =
-                new PutAutEnvironmentParametersBulkRequest(client, parametersToUpdate).execute();
-        if (!response.isOk()) {
-            throw new SSEException(
-                    String.format(
-                            "Failed to update the parameters of AUT Environment Configuration with ID: [%s]",
-                            autEnvironmentConfigurationId),
-                    response.getFailure());
+        List<AUTEnvironmnentParameter> parametersList =
+                new ArrayList<AUTEnvironmnentParameter>(parametersToUpdate);
+        for (int from = 0; from < parametersList.size(); from += PARAMETERS_UPDATE_CHUNK_SIZE) {
+            int to = Math.min(from + PARAMETERS_UPDATE_CHUNK_SIZE, parametersList.size());
+            Response response =
+                    new PutAutEnvironmentParametersBulkRequest(
+                            client,
+                            parametersList.subList(from, to)).execute();
+            if (!response.isOk()) {
+                throw new SSEException(
+                        String.format(
+                                "Failed to update the parameters [%d-%d] of [%d] of AUT Environment Configuration with ID: [%s]",
+                                from + 1,
+                                to,
+                                parametersList.size(),
+                                autEnvironmentConfigurationId),
+                        response.getFailure());
+            }
         }
         logger.log("Submitted all parameters to ALM");
     }
@@ -147,10 +167,34 @@ public class AUTEnvironmentParametersManager {
 
         Map<String, AUTEnvironmentFolder> parametersFolders =
                 new HashMap<String, AUTEnvironmentFolder>();
-        StringBuilder foldersToGet = new StringBuilder(parametersRootFolderId);
-
+        Set<String> foldersToGet = new LinkedHashSet<String>();
+        foldersToGet.add(parametersRootFolderId);
         for (AUTEnvironmnentParameter parameter : parameters.values()) {
-            foldersToGet.append("%20OR%20" + parameter.getParentId());
+            foldersToGet.add(parameter.getParentId());
+        }
+
+        // the client keeps session cookies in plain maps, so the chunks are queried one after another
+        List<String> folderIds = new ArrayList<String>(foldersToGet);
+        for (int from = 0; from < folderIds.size(); from += FOLDERS_QUERY_CHUNK_SIZE) {
+            List<String> chunk =
+                    folderIds.subList(from, Math.min(from + FOLDERS_QUERY_CHUNK_SIZE, folderIds.size()));
+            addParametersFolders(getParametersFolders(chunk), parametersFolders);
+        }
+
+        for (AUTEnvironmentFolder folder : parametersFolders.values()) {
+            calculatePaths(folder, parametersFolders);
+        }
+        return parametersFolders;
+    }
+
+    private List<Map<String, String>> getParametersFolders(List<String> folderIds) {
+
+        StringBuilder foldersToGet = new StringBuilder();
+        for (String folderId : folderIds) {
+            if (foldersToGet.length() > 0) {
+                foldersToGet.append("%20OR%20");
+            }
+            foldersToGet.append(folderId);
         }
 
         Response response =
@@ -163,7 +207,12 @@ public class AUTEnvironmentParametersManager {
                     response.getFailure());
         }
 
-        List<Map<String, String>> folders = XPathUtils.toEntities(response.toString());
+        return XPathUtils.toEntities(response.toString());
+    }
+
+    private void addParametersFolders(
+            List<Map<String, String>> folders,
+            Map<String, AUTEnvironmentFolder> parametersFolders) {
 
         for (Map<String, String> folder : folders) {
 
@@ -178,31 +227,32 @@ public class AUTEnvironmentParametersManager {
 
             }
         }
-
-        for (AUTEnvironmentFolder folder : parametersFolders.values()) {
-            calculatePaths(folder, parametersFolders);
-        }
-        return parametersFolders;
     }
 
     private String calculatePaths(
             AUTEnvironmentFolder folder,
             Map<String, AUTEnvironmentFolder> parametersFolders) {
 
-        String calculatedPath;
-        if (folder.getId().equals(parametersRootFolderId)) {
-            calculatedPath = folder.getName();
-        } else {
-            calculatedPath =
-                    StringUtils.isNullOrEmpty(folder.getPath())
-                            ? calculatePaths(
-                            parametersFolders.get(folder.getParentId()),
-                            parametersFolders)
-                            + PARAMETER_PATH_DELIMITER
-                            + folder.getName() : folder.getPath();
+        // walk up until a folder with a known path (or the root) and fill the paths on the way back,
+        // so every folder path is built only once
+        Deque<AUTEnvironmentFolder> foldersWithoutPath = new ArrayDeque<AUTEnvironmentFolder>();
+        AUTEnvironmentFolder current = folder;
+        while (StringUtils.isNullOrEmpty(current.getPath())) {
+            if (current.getId().equals(parametersRootFolderId)) {
+                current.setPath(current.getName());
+                break;
+            }
+            foldersWithoutPath.push(current);
+            current = parametersFolders.get(current.getParentId());
+        }
+
+        String calculatedPath = current.getPath();
+        while (!foldersWithoutPath.isEmpty()) {
+            AUTEnvironmentFolder child = foldersWithoutPath.pop();
+            calculatedPath = calculatedPath + PARAMETER_PATH_DELIMITER + child.getName();
+            child.setPath(calculatedPath);
         }
 
-        folder.setPath(calculatedPath);
         return calculatedPath;
     }
 
@@ -247,20 +297,21 @@ public class AUTEnvironmentParametersManager {
 
         Collection<AUTEnvironmnentParameter> valuesToReturn =
                 new ArrayList<AUTEnvironmnentParameter>();
+        Map<String, AUTEnvironmnentParameter> parametersByPath = getParametersByFullPath();
         for (AutEnvironmentParameterModel parameterByModel : parametersToAssign) {
             String parameterPathByModel = parameterByModel.getName();
-            for (AUTEnvironmnentParameter parameter : parameters.values()) {
-                if (parameterPathByModel.equalsIgnoreCase(parameter.getFullPath())) {
-                    String resolvedValue = parameterByModel.getResolvedValue();
-                    parameter.setValue(resolvedValue);
-                    logger.log(String.format(
-                            "Parameter: [%s] of type: [%s] will get the value: [%s] ",
-                            parameter.getFullPath(),
-                            parameterByModel.getParamType(),
-                            resolvedValue));
-                    valuesToReturn.add(parameter);
-                    break;
-                }
+            AUTEnvironmnentParameter parameter = parameterPathByModel == null
+                    ? null
+                    : parametersByPath.get(parameterPathByModel.toLowerCase(Locale.ROOT));
+            if (parameter != null) {
+                String resolvedValue = parameterByModel.getResolvedValue();
+                parameter.setValue(resolvedValue);
+                logger.log(String.format(
+                        "Parameter: [%s] of type: [%s] will get the value: [%s] ",
+                        parameter.getFullPath(),
+                        parameterByModel.getParamType(),
+                        resolvedValue));
+                valuesToReturn.add(parameter);
             }
 
         }
@@ -270,4 +321,18 @@ public class AUTEnvironmentParametersManager {
 
         return valuesToReturn;
     }
+
+    private Map<String, AUTEnvironmnentParameter> getParametersByFullPath() {
+
+        // first parameter wins on a case-insensitive clash, same as the former linear scan
+        Map<String, AUTEnvironmnentParameter> parametersByPath =
+                new HashMap<String, AUTEnvironmnentParameter>(parameters.size() * 2);
+        for (AUTEnvironmnentParameter parameter : parameters.values()) {
+            String key = parameter.getFullPath().toLowerCase(Locale.ROOT);
+            if (!parametersByPath.containsKey(key)) {
+                parametersByPath.put(key, parameter);
+            }
+        }
+        return parametersByPath;
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.uft.utils;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.security.MasterToSlaveCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expands the configured test paths into the build tests and deletes the report folders left in them
+ * by previous runs, in a single call to the node running the tests instead of remote calls per test and folder.
+ */
+public class UftReportFoldersCleaner extends MasterToSlaveCallable<UftReportFoldersCleaner.Result, IOException> {
+    private static final long serialVersionUID = 1L;
+
+    private static final String REPORT_FOLDER_PREFIX = "Report";
+
+    private final List<String> testPaths;
+
+    public UftReportFoldersCleaner(List<String> testPaths) {
+        this.testPaths = new ArrayList<>(testPaths);
+    }
+
+    public static Result clean(VirtualChannel channel, List<String> testPaths) throws IOException, InterruptedException {
+        UftReportFoldersCleaner cleaner = new UftReportFoldersCleaner(testPaths);
+        return channel != null ? channel.call(cleaner) : cleaner.call();
+    }
+
+    @Override
+    public Result call() {
+        List<List<String>> buildTests = UftToolUtils.forEachInParallel(testPaths,
+                testPath -> testPath == null ? new ArrayList<String>() : UftToolUtils.getTests(testPath.replace("\\", "/").trim()));
+        // the same test may be reached from several paths, clean it only once
+        Set<String> tests = new LinkedHashSet<>();
+        for (List<String> pathTests : buildTests) {
+            tests.addAll(pathTests);
+        }
+
+        Result result = new Result();
+        for (Result testResult : UftToolUtils.forEachInParallel(new ArrayList<String>(tests), UftReportFoldersCleaner::deleteReportFolders)) {
+            result.deletedFolders.addAll(testResult.deletedFolders);
+            result.errors.addAll(testResult.errors);
+        }
+        return result;
+    }
+
+    private static Result deleteReportFolders(String test) {
+        Result result = new Result();
+        File[] entries = new File(test).listFiles();
+        if (entries == null) {
+            return result;
+        }
+        for (File entry : entries) {
+            if (!entry.getName().startsWith(REPORT_FOLDER_PREFIX)) {
+                continue;
+            }
+            try {
+                new FilePath(entry).deleteRecursive();
+                result.deletedFolders.add(entry.getPath());
+            } catch (IOException | InterruptedException e) {
+                result.errors.add(String.format("Failed to delete folder %s : %s", entry.getName(), e.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    public static class Result implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> deletedFolders = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        public List<String> getDeletedFolders() {
+            return deletedFolders;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -28,34 +28,52 @@
 
 package com.microfocus.application.automation.tools.uft.utils;
 
-import com.microfocus.application.automation.tools.results.projectparser.performance.XmlParserUtil;
 import com.microfocus.application.automation.tools.uft.model.RerunSettingsModel;
 import hudson.FilePath;
 import hudson.model.Node;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
 import hudson.util.FormValidation;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang.StringUtils;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.ByteArrayInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 public class UftToolUtils {
 
     private static final Logger logger = Logger.getLogger(UftToolUtils.class.getName());
     private static final String ACTION_TAG = "Action";
+    private static final int WALK_THREADS = Integer.getInteger("UftToolUtils.WalkThreads", 8);
+    // optional, for agents that rerun the same (large) test folders over and over
+    private static final boolean CACHE_FOLDER_LISTINGS = Boolean.getBoolean("UftToolUtils.CacheFolderListings");
+    private static final int FOLDER_LISTINGS_CACHE_SIZE = Integer.getInteger("UftToolUtils.FolderListingsCacheSize", 1000);
+    // least recently used folders are evicted first
+    private static final Map<String, FolderListing> folderListings = Collections.synchronizedMap(
+            new LinkedHashMap<String, FolderListing>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FolderListing> eldest) {
+                    return size() > FOLDER_LISTINGS_CACHE_SIZE;
+                }
+            });
+    // one pool shared by all the walks, parallel calls made from a walk thread run in that thread
+    private static final ThreadLocal<Boolean> inWalkThread = new ThreadLocal<>();
+    private static ThreadPoolExecutor walkExecutor;
 
     private UftToolUtils() {
     }
@@ -129,11 +147,11 @@ public class UftToolUtils {
                     buildTests = listFilesForFolder(new File(rawTestString));
                 }
             } else {//list of tests/folders
-                for (String test : tests) {
+                for (List<String> folderTests : forEachInParallel(tests, test -> {
                     File testFile = new File(test.trim());
-                    if(testFile.exists()) {
-                        buildTests = getBuildTests(testFile);
-                    }
+                    return testFile.exists() ? getBuildTests(testFile) : Collections.<String>emptyList();
+                })) {
+                    buildTests.addAll(folderTests);
                 }
             }
         }
@@ -143,26 +161,49 @@ public class UftToolUtils {
     public static List<String> extractTestPathsFromMtbxContent(String mtbxContent) {
         List<String> tests = new ArrayList<>();
 
+        XMLStreamReader reader = null;
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new ByteArrayInputStream(mtbxContent.getBytes()));
-            document.getDocumentElement().normalize();
-            Element root = document.getDocumentElement();
-            NodeList childNodes = root.getChildNodes();
-            for (int x = 0; x < childNodes.getLength(); x++) {
-                org.w3c.dom.Node data = childNodes.item(x);
-                if (data.getNodeName().equalsIgnoreCase("Test")) {
-                    tests.add(XmlParserUtil.getNodeAttr("path", data));
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            reader = factory.createXMLStreamReader(new StringReader(mtbxContent));
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2 && reader.getLocalName().equalsIgnoreCase("Test")) {
+                        tests.add(getAttribute(reader, "path"));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
                 }
             }
-        } catch (IOException | SAXException | ParserConfigurationException e) {
+        } catch (XMLStreamException e) {
             logger.warning("Failed to extractTestPathsFromMtbxContent : " + e.getMessage());
+            tests.clear();
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing left to read
+                }
+            }
         }
 
         return tests;
     }
 
+    private static String getAttribute(XMLStreamReader reader, String attrName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (reader.getAttributeLocalName(i).equalsIgnoreCase(attrName)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return "";
+    }
+
     private static List<String> getTestsFromNode(String nodeName, String path) {
         Node node = Jenkins.get().getNode(nodeName);
         FilePath filePath = new FilePath(node.getChannel(), path);
@@ -179,22 +220,27 @@ public class UftToolUtils {
         return tests;
     }
 
-    public static void deleteReportFoldersFromNode(String nodeName, String testPath, TaskListener listener) {
-        FilePath filePath = getFilePath(nodeName, testPath);
+    /**
+     * Expands all the configured test paths and deletes the report folders of the resulting tests
+     * with a single call to the node running the tests
+     *
+     * @param nodeName  the node running the tests
+     * @param testPaths the configured test paths (mtbx content or file, tests, test folders)
+     * @param listener  the build listener
+     */
+    public static void deleteReportFoldersFromNode(String nodeName, List<String> testPaths, TaskListener listener) {
+        Node node = Jenkins.get().getNode(nodeName);
+        VirtualChannel channel = (Jenkins.get().getNodes().isEmpty() || node == null) ? null : node.getChannel();
         try {
-            List<FilePath> entries = filePath.list();
-            for (FilePath entry : entries) {
-                try {
-                    if (entry.getName().startsWith("Report")) {
-                        entry.deleteRecursive();
-                        listener.getLogger().println(String.format("Folder %s is deleted", entry));
-                    }
-                } catch (Exception e) {
-                    listener.error(String.format("Failed to delete folder %s : %s", entry.getName(), e.getMessage()));
-                }
+            UftReportFoldersCleaner.Result result = UftReportFoldersCleaner.clean(channel, testPaths);
+            for (String deleted : result.getDeletedFolders()) {
+                listener.getLogger().println(String.format("Folder %s is deleted", deleted));
+            }
+            for (String error : result.getErrors()) {
+                listener.error(error);
             }
-        } catch (IOException | InterruptedException e) {
-            listener.error("Failure in clearing report folders for " + testPath +" : " + e.getMessage());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            listener.error("Failure in clearing report folders : " + e.getMessage());
         }
     }
 
@@ -239,6 +285,20 @@ public class UftToolUtils {
      * @return either a single test or a set of tests
      */
     private static List<String> getBuildTests(final File folder){
+        if (!CACHE_FOLDER_LISTINGS) {
+            return listBuildTests(folder);
+        }
+        // the listing only depends on the direct children of the folder, which change its modification time
+        long lastModified = folder.lastModified();
+        FolderListing listing = folderListings.get(folder.getPath());
+        if (listing == null || lastModified == 0 || listing.lastModified != lastModified) {
+            listing = new FolderListing(lastModified, listBuildTests(folder));
+            folderListings.put(folder.getPath(), listing);
+        }
+        return new ArrayList<>(listing.tests);
+    }
+
+    private static List<String> listBuildTests(final File folder){
         List<String> buildTests = new ArrayList<>();
         File[] files = folder.listFiles();
         if (files == null) {
@@ -257,6 +317,71 @@ public class UftToolUtils {
         return buildTests;
     }
 
+    /**
+     * Applies the function to every item using a small shared thread pool, since each call mostly waits on
+     * the (often remote) file system. Calls made from inside the pool are not parallelized again,
+     * so nested walks neither multiply the threads nor wait on the pool they are running in.
+     *
+     * @return the results in the order of the items
+     */
+    static <T, R> List<R> forEachInParallel(List<T> items, final Function<T, R> function) {
+        if (items.size() < 2 || WALK_THREADS < 2 || Boolean.TRUE.equals(inWalkThread.get())) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+        ThreadPoolExecutor executor = getWalkExecutor();
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        try {
+            for (final T item : items) {
+                futures.add(executor.submit(() -> function.apply(item)));
+            }
+            List<R> results = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getWalkExecutor() {
+        if (walkExecutor == null) {
+            walkExecutor = new ThreadPoolExecutor(WALK_THREADS, WALK_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(() -> {
+                            inWalkThread.set(Boolean.TRUE);
+                            runnable.run();
+                        }, "UftToolUtils walk");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            // idle threads end, so an agent that is done with UFT tests does not keep them
+            walkExecutor.allowCoreThreadTimeOut(true);
+        }
+        return walkExecutor;
+    }
+
+    private static final class FolderListing {
+        private final long lastModified;
+        private final List<String> tests;
+
+        FolderListing(long lastModified, List<String> tests) {
+            this.lastModified = lastModified;
+            this.tests = tests;
+        }
+    }
+
     /**
      * Checks if a list of tests contains another test
      *
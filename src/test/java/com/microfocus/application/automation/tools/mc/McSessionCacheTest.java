@@ -0,0 +1,132 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.mc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class McSessionCacheTest {
+
+    private static final String KEY = McSessionCache.key("http://mc:8080", "999999999", "admin", "secret", null);
+
+    @Test(timeout = 10000)
+    public void testConcurrentCallersShareOneLogin() throws Exception {
+        final McSessionCache cache = new McSessionCache(TimeUnit.MINUTES.toMillis(20));
+        final AtomicInteger logins = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final McSessionCache.Login login = () -> {
+            logins.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new McSessionCache.Session("hp4m", "session-1");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<McSessionCache.Session>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(new Callable<McSessionCache.Session>() {
+                    @Override
+                    public McSessionCache.Session call() {
+                        return cache.get(KEY, login);
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            McSessionCache.Session first = results.get(0).get();
+            Assert.assertNotNull(first);
+            for (Future<McSessionCache.Session> result : results) {
+                Assert.assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, logins.get());
+    }
+
+    @Test
+    public void testFailedLoginIsNotKept() {
+        McSessionCache cache = new McSessionCache(TimeUnit.MINUTES.toMillis(20));
+        Assert.assertNull(cache.get(KEY, () -> null));
+        Assert.assertNotNull(cache.get(KEY, () -> new McSessionCache.Session("hp4m", "session-1")));
+    }
+
+    @Test(timeout = 10000)
+    public void testRejectedAndExpiredSessionsLogInAgain() {
+        McSessionCache cache = new McSessionCache(TimeUnit.MINUTES.toMillis(20));
+        McSessionCache.Session first = cache.get(KEY, () -> new McSessionCache.Session("hp4m", "session-1"));
+        Assert.assertSame(first, cache.get(KEY, () -> new McSessionCache.Session("hp4m", "session-2")));
+        cache.invalidate(KEY, first);
+        McSessionCache.Session second = cache.get(KEY, () -> new McSessionCache.Session("hp4m", "session-2"));
+        Map<String, String> headers = new HashMap<>();
+        second.addHeaders(headers);
+        Assert.assertEquals(Constants.JESEEIONEQ + "session-2", headers.get(Constants.COOKIE));
+
+        McSessionCache expiring = new McSessionCache(0);
+        McSessionCache.Session old = expiring.get(KEY, () -> new McSessionCache.Session("hp4m", "session-1"));
+        Assert.assertNotSame(old, expiring.get(KEY, () -> new McSessionCache.Session("hp4m", "session-2")));
+    }
+
+    @Test(timeout = 10000)
+    public void testLoginSlowerThanMaxAgeIsUsed() {
+        McSessionCache cache = new McSessionCache(1);
+        final AtomicInteger logins = new AtomicInteger();
+        McSessionCache.Session session = cache.get(KEY, () -> {
+            logins.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new McSessionCache.Session("hp4m", "session-1");
+        });
+        Assert.assertNotNull(session);
+        Assert.assertEquals(1, logins.get());
+    }
+
+    @Test
+    public void testWrongPasswordDoesNotShareSession() {
+        Assert.assertNotEquals(KEY, McSessionCache.key("http://mc:8080", "999999999", "admin", "wrong", null));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions;
+
+import hudson.model.Run;
+import org.apache.commons.httpclient.HttpStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WebhooksTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Run run;
+
+	@Before
+	public void setUp() {
+		run = mock(Run.class);
+		when(run.getRootDir()).thenReturn(folder.getRoot());
+	}
+
+	@Test
+	public void testDuplicateNotificationIsSuppressedWhileInProgress() {
+		List<Runnable> pending = new ArrayList<>();
+		List<String> handled = new ArrayList<>();
+
+		Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(pending::add, "job#1#project", () -> handled.add("first")));
+		Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(pending::add, "job#1#project", () -> handled.add("duplicate")));
+		Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(pending::add, "job#1#other", () -> handled.add("other")));
+		Assert.assertEquals(2, pending.size());
+
+		pending.forEach(Runnable::run);
+		Assert.assertEquals(2, handled.size());
+		Assert.assertFalse(handled.contains("duplicate"));
+
+		// once handled, the same notification is dispatched again
+		Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(pending::add, "job#1#project", () -> handled.add("again")));
+		Assert.assertEquals(3, pending.size());
+		pending.get(2).run();
+	}
+
+	@Test
+	public void testFullQueueIsRejectedWithServiceUnavailable() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+		try {
+			Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(dispatcher, "job#1#a", () -> {
+				started.countDown();
+				awaitQuietly(release);
+			}));
+			started.await();
+			Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(dispatcher, "job#2#a", () -> {
+			}));
+			Assert.assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, Webhooks.dispatch(dispatcher, "job#3#a", () -> {
+			}));
+
+			release.countDown();
+			dispatcher.shutdown();
+			Assert.assertTrue(dispatcher.awaitTermination(10, TimeUnit.SECONDS));
+			// a rejected notification is not kept as in progress, so sonar can retry it
+			List<Runnable> pending = new ArrayList<>();
+			Assert.assertEquals(HttpStatus.SC_OK, Webhooks.dispatch(pending::add, "job#3#a", () -> {
+			}));
+			Assert.assertEquals(1, pending.size());
+			pending.get(0).run();
+		} finally {
+			release.countDown();
+			dispatcher.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testReceivedCallsAreKeptPerProjectKey() throws Exception {
+		Webhooks webhooks = new Webhooks();
+		Assert.assertFalse(webhooks.isRunAlreadyGotWebhookCall(run, "project1"));
+
+		webhooks.markBuildAsReceivedWebhookCall(run, "project1");
+		webhooks.markBuildAsReceivedWebhookCall(run, "project2");
+
+		Assert.assertTrue(webhooks.isRunAlreadyGotWebhookCall(run, "project1"));
+		Assert.assertTrue(webhooks.isRunAlreadyGotWebhookCall(run, "project2"));
+		Assert.assertFalse(webhooks.isRunAlreadyGotWebhookCall(run, "project3"));
+	}
+
+	@Test
+	public void testLegacyBooleanFileIsRead() throws Exception {
+		Webhooks webhooks = new Webhooks();
+		writeIsExpectingFile(Boolean.TRUE);
+		Assert.assertTrue(webhooks.isRunAlreadyGotWebhookCall(run, "anyProject"));
+
+		writeIsExpectingFile(Boolean.FALSE);
+		Assert.assertFalse(webhooks.isRunAlreadyGotWebhookCall(run, "anyProject"));
+
+		// the legacy file is replaced by the project keys format on the next call
+		webhooks.markBuildAsReceivedWebhookCall(run, "project1");
+		Assert.assertTrue(webhooks.isRunAlreadyGotWebhookCall(run, "project1"));
+		Assert.assertFalse(webhooks.isRunAlreadyGotWebhookCall(run, "project2"));
+	}
+
+	private void writeIsExpectingFile(Object content) throws Exception {
+		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(new File(folder.getRoot(), "is_expecting.txt")))) {
+			oos.writeObject(content);
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
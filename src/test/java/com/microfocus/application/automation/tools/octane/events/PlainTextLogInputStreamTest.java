@@ -0,0 +1,66 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import hudson.console.ConsoleNote;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class PlainTextLogInputStreamTest {
+
+	@Test
+	public void testAnnotationsAreStripped() throws IOException {
+		String note = ConsoleNote.PREAMBLE_STR + "encoded-note" + ConsoleNote.POSTAMBLE_STR;
+		String log = "Started by user admin\n" + note + "Building in workspace\nFinished: SUCCESS";
+
+		Assert.assertEquals("Started by user admin\nBuilding in workspace\nFinished: SUCCESS", readAll(log, new byte[0]));
+	}
+
+	@Test
+	public void testLongLogIsStreamedInChunks() throws IOException {
+		StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			log.append("line ").append(i).append('\n');
+		}
+
+		Assert.assertEquals("header\n" + log, readAll(log.toString(), "header\n".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String readAll(String log, byte[] header) throws IOException {
+		try (InputStream in = new PlainTextLogInputStream(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), header)) {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+}
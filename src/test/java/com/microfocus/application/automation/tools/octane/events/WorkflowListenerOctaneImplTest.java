@@ -0,0 +1,212 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
+import com.microfocus.application.automation.tools.octane.OctaneServerMock;
+import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import hudson.model.Result;
+import hudson.util.Secret;
+import org.jenkinsci.plugins.workflow.actions.ErrorAction;
+import org.jenkinsci.plugins.workflow.actions.WarningAction;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stage results resolved from the end nodes recorded by the run context, compared with the walk over the stage children
+ */
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701", "squid:S2698"})
+public class WorkflowListenerOctaneImplTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	private static WorkflowRun run;
+	private int nodeCounter;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+		//  configure plugin for the server, so the listener tracks the pipeline runs
+		OctaneServerMock serverMock = OctaneServerMock.getInstance();
+		assertTrue(serverMock.isRunning());
+		OctaneServerSettingsModel model = new OctaneServerSettingsModel(
+				"http://127.0.0.1:" + serverMock.getPort() + "/ui?p=1008",
+				"some",
+				Secret.fromString("pass"),
+				"");
+		ConfigurationService.configurePlugin(model);
+
+		WorkflowJob job = rule.jenkins.createProject(WorkflowJob.class, "workflow-listener-case");
+		job.setDefinition(new CpsFlowDefinition("", true));
+		run = rule.assertBuildStatusSuccess(job.scheduleBuild2(0));
+	}
+
+	@Test
+	public void testStageWithFailedChild() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode failedBlock = endNode(context, new ErrorAction(new Exception("error message 123")), null);
+		StepEndNode stage = endNode(context, null, null, failedBlock);
+
+		assertStageFailure(true, context, stage);
+	}
+
+	@Test
+	public void testStageWithFailedGrandChild() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode failedBlock = endNode(context, new ErrorAction(new Exception("error message 123")), null);
+		StepEndNode dirBlock = endNode(context, null, null, failedBlock);
+		StepEndNode stage = endNode(context, null, null, dirBlock);
+
+		assertStageFailure(true, context, stage);
+	}
+
+	@Test
+	public void testFailureBelowLookupDepthIsIgnored() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode failedBlock = endNode(context, new ErrorAction(new Exception("error message 123")), null);
+		StepEndNode innerBlock = endNode(context, null, null, failedBlock);
+		StepEndNode outerBlock = endNode(context, null, null, innerBlock);
+		StepEndNode stage = endNode(context, null, null, outerBlock);
+
+		assertStageFailure(false, context, stage);
+	}
+
+	@Test
+	public void testStageWithFailedParallelBranch() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode passedBranch = endNode(context, null, null);
+		StepEndNode failedBranch = endNode(context, new ErrorAction(new Exception("branch failed")), null);
+		StepEndNode parallel = endNode(context, null, null, passedBranch, failedBranch);
+		StepEndNode stage = endNode(context, null, null, parallel);
+
+		assertStageFailure(true, context, stage);
+	}
+
+	@Test
+	public void testStageWithFailureInsideParallelBranch() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode passedStep = endNode(context, null, null);
+		StepEndNode passedBranch = endNode(context, null, null, passedStep);
+		StepEndNode failedStep = endNode(context, new ErrorAction(new Exception("step failed")), null);
+		StepEndNode failedBranch = endNode(context, null, null, failedStep);
+		StepEndNode parallel = endNode(context, null, null, passedBranch, failedBranch);
+		StepEndNode stage = endNode(context, null, null, parallel);
+
+		assertStageFailure(false, context, stage);
+		assertStageFailure(true, context, parallel);
+	}
+
+	@Test
+	public void testStageWithErrorConvertedToWarning() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		StepEndNode unstableBlock = endNode(context, new ErrorAction(new Exception("err 1")), new WarningAction(Result.UNSTABLE));
+		StepEndNode stage = endNode(context, null, null, unstableBlock);
+
+		assertStageFailure(false, context, stage);
+
+		StepEndNode failedBlock = endNode(context, new ErrorAction(new Exception("err 2")), new WarningAction(Result.FAILURE));
+		StepEndNode failedStage = endNode(context, null, null, failedBlock);
+
+		assertStageFailure(true, context, failedStage);
+	}
+
+	@Test
+	public void testStageWithPassedChildren() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, true);
+		FlowNode failedAtom = mock(FlowNode.class);
+		when(failedAtom.getId()).thenReturn(String.valueOf(++nodeCounter));
+		when(failedAtom.getError()).thenReturn(new ErrorAction(new Exception("not a block")));
+		StepEndNode passedBlock = endNode(context, null, null);
+		StepEndNode stage = endNode(context, null, null, passedBlock, failedAtom);
+
+		assertStageFailure(false, context, stage);
+	}
+
+	@Test
+	public void testContextStartedAfterRunIsNotResolved() {
+		WorkflowRunEventContext context = new WorkflowRunEventContext(run, false);
+		StepEndNode failedBlock = endNode(context, new ErrorAction(new Exception("error message 123")), null);
+		StepEndNode stage = endNode(context, null, null, failedBlock);
+
+		assertNull(context.isChildNodeFailed(stage));
+		assertTrue(WorkflowListenerOctaneImpl.isChildNodeFailed(stage, 0));
+	}
+
+	@Test
+	public void testContextIsRemovedWhenRunCompletes() throws Exception {
+		assertFalse(WorkflowListenerOctaneImpl.runContexts.containsKey(run.getExternalizableId()));
+
+		//  run finished without reaching the end node of the flow
+		WorkflowListenerOctaneImpl.getRunContext(run);
+		assertTrue(WorkflowListenerOctaneImpl.runContexts.containsKey(run.getExternalizableId()));
+		new WorkflowListenerOctaneImpl.RunContextCleaner().onFinalized(run);
+		assertFalse(WorkflowListenerOctaneImpl.runContexts.containsKey(run.getExternalizableId()));
+
+		//  deleted run
+		WorkflowJob job = rule.jenkins.createProject(WorkflowJob.class, "workflow-listener-deleted-case");
+		job.setDefinition(new CpsFlowDefinition("", true));
+		WorkflowRun deletedRun = rule.assertBuildStatusSuccess(job.scheduleBuild2(0));
+		assertFalse(WorkflowListenerOctaneImpl.runContexts.containsKey(deletedRun.getExternalizableId()));
+		WorkflowListenerOctaneImpl.getRunContext(deletedRun);
+		deletedRun.delete();
+		assertFalse(WorkflowListenerOctaneImpl.runContexts.containsKey(deletedRun.getExternalizableId()));
+	}
+
+	private static void assertStageFailure(boolean expected, WorkflowRunEventContext context, StepEndNode stage) {
+		assertEquals(expected, WorkflowListenerOctaneImpl.isChildNodeFailed(stage, 0));
+		assertEquals(expected, context.isChildNodeFailed(stage));
+	}
+
+	/**
+	 * Creates the end node of a block and records it in the context, as the listener does when the node arrives
+	 */
+	private StepEndNode endNode(WorkflowRunEventContext context, ErrorAction error, WarningAction warning, FlowNode... parents) {
+		StepEndNode node = mock(StepEndNode.class);
+		when(node.getId()).thenReturn(String.valueOf(++nodeCounter));
+		when(node.getParents()).thenReturn(Arrays.asList(parents));
+		if (error != null) {
+			when(node.getError()).thenReturn(error);
+		}
+		when(node.getAction(WarningAction.class)).thenReturn(warning);
+		context.recordEndNode(node);
+		return node;
+	}
+}
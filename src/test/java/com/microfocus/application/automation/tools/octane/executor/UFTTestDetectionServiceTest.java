@@ -0,0 +1,190 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.hp.octane.integrations.uft.UftTestDiscoveryUtils;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.OctaneStatus;
+import com.hp.octane.integrations.uft.items.ScmResourceFile;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+import com.hp.octane.integrations.utils.SdkConstants;
+import com.hp.octane.integrations.utils.SdkStringUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UFTTestDetectionServiceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File workspace;
+
+	@Before
+	public void init() throws IOException {
+		workspace = folder.newFolder("workspace");
+	}
+
+	@Test
+	public void testRemoveFalsePositiveDataTablesEqualsLinearScan() {
+		UftTestDiscoveryResult expected = createDeletedItems(50, 50);
+		UftTestDiscoveryResult actual = createDeletedItems(50, 50);
+
+		removeFalsePositiveDataTablesByScan(expected, expected.getDeletedTests(), expected.getDeletedScmResourceFiles());
+		UFTTestDetectionService.removeFalsePositiveDataTables(actual, actual.getDeletedTests(), actual.getDeletedScmResourceFiles());
+
+		Assert.assertEquals(describeDataTables(expected.getAllScmResourceFiles()), describeDataTables(actual.getAllScmResourceFiles()));
+		Assert.assertEquals(expected.getAllTests().size(), actual.getAllTests().size());
+	}
+
+	@Test
+	public void testRemoveFalsePositiveDataTablesScales() {
+		UftTestDiscoveryResult result = createDeletedItems(20000, 20000);
+		int standaloneDataTables = (int) result.getAllScmResourceFiles().stream()
+				.filter(dataTable -> dataTable.getRelativePath().contains("standalone"))
+				.count();
+
+		UFTTestDetectionService.removeFalsePositiveDataTables(result, result.getDeletedTests(), result.getDeletedScmResourceFiles());
+
+		Assert.assertEquals(standaloneDataTables, result.getAllScmResourceFiles().size());
+	}
+
+	@Test
+	public void testRemoveFalsePositiveDataTablesMatchesWholeFolderNames() {
+		UftTestDiscoveryResult expected = createDeletedLoginItems();
+		UftTestDiscoveryResult actual = createDeletedLoginItems();
+
+		removeFalsePositiveDataTablesByScan(expected, expected.getDeletedTests(), expected.getDeletedScmResourceFiles());
+		UFTTestDetectionService.removeFalsePositiveDataTables(actual, actual.getDeletedTests(), actual.getDeletedScmResourceFiles());
+
+		// the former substring match also took the data table of test Login2 as part of deleted test Login
+		Assert.assertTrue(describeDataTables(expected.getAllScmResourceFiles()).isEmpty());
+		List<String> remaining = describeDataTables(actual.getAllScmResourceFiles());
+		Assert.assertEquals(1, remaining.size());
+		Assert.assertTrue(remaining.get(0).contains("Login2"));
+	}
+
+	@Test
+	public void testRemoveTestDuplicatedForUpdateTests() {
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 10; j++) {
+				AutomatedTest test = createTest("area/GUITest" + j);
+				test.setOctaneStatus(OctaneStatus.MODIFIED);
+				result.getAllTests().add(test);
+			}
+		}
+		result.getAllTests().add(createTest("area/GUITest0"));
+
+		UFTTestDetectionService.removeTestDuplicatedForUpdateTests(result);
+
+		Assert.assertEquals(10, result.getUpdatedTests().size());
+		Assert.assertEquals(11, result.getAllTests().size());
+	}
+
+	private UftTestDiscoveryResult createDeletedItems(int testCount, int dataTableCount) {
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		for (int i = 0; i < testCount; i++) {
+			AutomatedTest test = createTest("area" + (i % 10) + "/gui/GUITest" + i);
+			test.setOctaneStatus(OctaneStatus.DELETED);
+			result.getAllTests().add(test);
+		}
+		for (int i = 0; i < dataTableCount; i++) {
+			String path;
+			switch (i % 3) {
+				case 0:
+					path = "area" + (i % 10) + "/gui/GUITest" + i + "/Default.xls";
+					break;
+				case 1:
+					path = "area" + (i % 10) + "/gui/GUITest" + i + "/data/Table.xlsx";
+					break;
+				default:
+					path = "area" + (i % 10) + "/standalone/GUITest" + i + "/Table.xlsx";
+			}
+			ScmResourceFile dataTable = UftTestDiscoveryUtils.createDataTable(workspace, new File(workspace, path));
+			dataTable.setOctaneStatus(OctaneStatus.DELETED);
+			result.getAllScmResourceFiles().add(dataTable);
+		}
+		return result;
+	}
+
+	private UftTestDiscoveryResult createDeletedLoginItems() {
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		AutomatedTest test = createTest("Tests/Login");
+		test.setOctaneStatus(OctaneStatus.DELETED);
+		result.getAllTests().add(test);
+		for (String path : new String[]{"Tests/Login/Default.xls", "Tests/Login/data/Table.xlsx", "Tests/Login2/Default.xls"}) {
+			ScmResourceFile dataTable = UftTestDiscoveryUtils.createDataTable(workspace, new File(workspace, path));
+			dataTable.setOctaneStatus(OctaneStatus.DELETED);
+			result.getAllScmResourceFiles().add(dataTable);
+		}
+		return result;
+	}
+
+	private AutomatedTest createTest(String relativePath) {
+		return UftTestDiscoveryUtils.createAutomatedTest(workspace, new File(workspace, relativePath),
+				UftTestDiscoveryUtils.getUftTestType(relativePath + "/Test.tsp"));
+	}
+
+	/**
+	 * Former implementation, compares every data table against every test
+	 */
+	private static void removeFalsePositiveDataTablesByScan(UftTestDiscoveryResult result, List<AutomatedTest> tests, List<ScmResourceFile> scmResourceFiles) {
+		List<ScmResourceFile> falsePositive = new ArrayList<>();
+		for (ScmResourceFile item : scmResourceFiles) {
+			int parentSplitterIndex = item.getRelativePath().lastIndexOf(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);
+			if (parentSplitterIndex != -1) {
+				String parentName = item.getRelativePath().substring(0, parentSplitterIndex);
+				for (AutomatedTest test : tests) {
+					String testPath = SdkStringUtils.isEmpty(test.getPackage()) ? test.getName() : test.getPackage() + SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER + test.getName();
+					if (parentName.contains(testPath)) {
+						falsePositive.add(item);
+						break;
+					}
+				}
+			}
+		}
+		result.getAllScmResourceFiles().removeAll(falsePositive);
+	}
+
+	private static List<String> describeDataTables(List<ScmResourceFile> dataTables) {
+		return dataTables.stream()
+				.map(ScmResourceFile::getRelativePath)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+}
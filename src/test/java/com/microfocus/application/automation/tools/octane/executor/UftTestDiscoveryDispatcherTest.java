@@ -0,0 +1,208 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.entities.Entity;
+import com.hp.octane.integrations.services.entities.EntitiesService;
+import com.hp.octane.integrations.uft.UftTestDiscoveryUtils;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.OctaneStatus;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public class UftTestDiscoveryDispatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File preparedResultFile;
+	private File progressFile;
+
+	@Before
+	public void init() throws IOException {
+		File workspace = folder.newFolder("workspace");
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		result.setConfigurationId("config");
+		result.setWorkspaceId("1002");
+		result.setScmRepositoryId("2005");
+		result.getDeletedFolders().add("area\\deleted");
+		for (int i = 0; i < 25; i++) {
+			AutomatedTest test = UftTestDiscoveryUtils.createAutomatedTest(workspace, new File(workspace, "area/GUITest" + i),
+					UftTestDiscoveryUtils.getUftTestType("area/GUITest" + i + "/Test.tsp"));
+			test.setOctaneStatus(OctaneStatus.NEW);
+			result.getAllTests().add(test);
+		}
+		for (int i = 0; i < 7; i++) {
+			result.getAllScmResourceFiles().add(UftTestDiscoveryUtils.createDataTable(workspace, new File(workspace, "data/Table" + i + ".xlsx")));
+		}
+
+		preparedResultFile = new File(folder.getRoot(), "detection_result_prepared.json");
+		progressFile = new File(folder.getRoot(), "detection_dispatch_progress.properties");
+		UftTestDiscoveryResultStorage.write(result, preparedResultFile);
+	}
+
+	@After
+	public void cleanup() {
+		System.clearProperty("UftTestDiscoveryDispatcher.OctaneVersionCacheTTL");
+		System.clearProperty("UftTestDiscoveryDispatcher.ChunkSize");
+		UftTestDiscoveryDispatcher.clearOctaneVersionCache();
+	}
+
+	@Test
+	public void testDispatchInChunks() throws IOException {
+		List<UftTestDiscoveryResult> chunks = new ArrayList<>();
+		UftTestDiscoveryDispatcher.dispatchInChunks(preparedResultFile, progressFile, 10, chunks::add);
+
+		Assert.assertEquals(4, chunks.size());
+		Assert.assertEquals(Arrays.asList(10, 10, 5, 0), countTests(chunks));
+		Assert.assertEquals(7, chunks.get(3).getAllScmResourceFiles().size());
+		Assert.assertEquals(Collections.singletonList("area\\deleted"), chunks.get(0).getDeletedFolders());
+		for (UftTestDiscoveryResult chunk : chunks.subList(1, chunks.size())) {
+			Assert.assertTrue(chunk.getDeletedFolders().isEmpty());
+		}
+		Assert.assertEquals("1002", chunks.get(2).getWorkspaceId());
+		Assert.assertEquals("2005", chunks.get(2).getScmRepositoryId());
+	}
+
+	@Test
+	public void testDispatchResumesAfterLastSentChunk() throws IOException {
+		List<UftTestDiscoveryResult> chunks = new ArrayList<>();
+		try {
+			UftTestDiscoveryDispatcher.dispatchInChunks(preparedResultFile, progressFile, 10, chunk -> {
+				if (chunks.size() == 2) {
+					throw new IllegalStateException("Octane is not available");
+				}
+				chunks.add(chunk);
+			});
+			Assert.fail("Dispatch should fail on third chunk");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals(2, chunks.size());
+		}
+
+		UftTestDiscoveryDispatcher.DispatchProgress progress = UftTestDiscoveryDispatcher.DispatchProgress.load(progressFile);
+		Assert.assertEquals(20, progress.tests);
+		Assert.assertEquals(0, progress.dataTables);
+
+		List<UftTestDiscoveryResult> resumedChunks = new ArrayList<>();
+		UftTestDiscoveryDispatcher.dispatchInChunks(preparedResultFile, progressFile, 10, resumedChunks::add);
+
+		Assert.assertEquals(Arrays.asList(5, 0), countTests(resumedChunks));
+		Assert.assertEquals("area\\GUITest20", resumedChunks.get(0).getAllTests().get(0).getPackage() + "\\" + resumedChunks.get(0).getAllTests().get(0).getName());
+		Assert.assertTrue(resumedChunks.get(0).getDeletedFolders().isEmpty());
+		Assert.assertEquals(7, resumedChunks.get(1).getAllScmResourceFiles().size());
+	}
+
+	@Test
+	public void testDeletedFoldersSentWithoutItems() throws IOException {
+		UftTestDiscoveryResult result = new UftTestDiscoveryResult();
+		result.getDeletedFolders().add("area\\deleted");
+		UftTestDiscoveryResultStorage.write(result, preparedResultFile);
+
+		List<UftTestDiscoveryResult> chunks = new ArrayList<>();
+		UftTestDiscoveryDispatcher.dispatchInChunks(preparedResultFile, progressFile, 10, chunks::add);
+		UftTestDiscoveryDispatcher.dispatchInChunks(preparedResultFile, progressFile, 10, chunks::add);
+
+		Assert.assertEquals(1, chunks.size());
+		Assert.assertEquals(1, chunks.get(0).getDeletedFolders().size());
+	}
+
+	@Test
+	public void testOctaneVersionIsCached() {
+		EntitiesService entitiesService = mockEntitiesService();
+
+		Assert.assertEquals("15.1.20", UftTestDiscoveryDispatcher.getOctaneVersion("instance", entitiesService));
+		Assert.assertEquals("15.1.20", UftTestDiscoveryDispatcher.getOctaneVersion("instance", entitiesService));
+		Mockito.verify(entitiesService, Mockito.times(1)).getEntities(null, "server_version", null, null);
+
+		UftTestDiscoveryDispatcher.getOctaneVersion("otherInstance", entitiesService);
+		Mockito.verify(entitiesService, Mockito.times(2)).getEntities(null, "server_version", null, null);
+	}
+
+	@Test
+	public void testOctaneVersionCacheExpires() {
+		System.setProperty("UftTestDiscoveryDispatcher.OctaneVersionCacheTTL", "0");
+		EntitiesService entitiesService = mockEntitiesService();
+
+		UftTestDiscoveryDispatcher.getOctaneVersion("instance", entitiesService);
+		UftTestDiscoveryDispatcher.getOctaneVersion("instance", entitiesService);
+		Mockito.verify(entitiesService, Mockito.times(2)).getEntities(null, "server_version", null, null);
+	}
+
+	@Test
+	public void testInvalidChunkSizeFallsBackToDefault() {
+		System.setProperty("UftTestDiscoveryDispatcher.ChunkSize", "50");
+		Assert.assertEquals(50, UftTestDiscoveryDispatcher.getDispatchChunkSize());
+		for (String invalid : Arrays.asList("0", "-5", "abc")) {
+			System.setProperty("UftTestDiscoveryDispatcher.ChunkSize", invalid);
+			Assert.assertEquals(200, UftTestDiscoveryDispatcher.getDispatchChunkSize());
+		}
+	}
+
+	@Test
+	public void testSplitToBatches() {
+		Set<String> names = new HashSet<>();
+		for (int i = 0; i < 250; i++) {
+			names.add("test" + i);
+		}
+
+		List<Set<String>> batches = UftTestDiscoveryDispatcher.splitToBatches(names);
+		Assert.assertEquals(3, batches.size());
+		Assert.assertEquals(50, batches.get(2).size());
+		Set<String> joined = new HashSet<>();
+		batches.forEach(joined::addAll);
+		Assert.assertEquals(names, joined);
+	}
+
+	private static EntitiesService mockEntitiesService() {
+		Entity serverVersion = DTOFactory.getInstance().newDTO(Entity.class);
+		serverVersion.setField("version", "15.1.20");
+		EntitiesService entitiesService = Mockito.mock(EntitiesService.class);
+		Mockito.when(entitiesService.getEntities(null, "server_version", null, null)).thenReturn(Collections.singletonList(serverVersion));
+		return entitiesService;
+	}
+
+	private static List<Integer> countTests(List<UftTestDiscoveryResult> chunks) {
+		List<Integer> counts = new ArrayList<>();
+		for (UftTestDiscoveryResult chunk : chunks) {
+			counts.add(chunk.getAllTests().size());
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.hp.octane.integrations.uft.UftTestDiscoveryUtils;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.OctaneStatus;
+import com.hp.octane.integrations.uft.items.ScmResourceFile;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UftTestDiscoveryResultStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File workspace;
+	private UftTestDiscoveryResult result;
+
+	@Before
+	public void init() throws IOException {
+		workspace = folder.newFolder("workspace");
+		result = new UftTestDiscoveryResult();
+		result.setConfigurationId("config");
+		result.setWorkspaceId("1002");
+		result.setScmRepositoryId("2005");
+		result.setTestRunnerId("3001");
+		result.setFullScan(true);
+		result.getDeletedFolders().add("area\\deleted");
+		for (int i = 0; i < 25; i++) {
+			AutomatedTest test = UftTestDiscoveryUtils.createAutomatedTest(workspace, new File(workspace, "area/GUITest" + i),
+					UftTestDiscoveryUtils.getUftTestType("area/GUITest" + i + "/Test.tsp"));
+			test.setOctaneStatus(i % 2 == 0 ? OctaneStatus.NEW : OctaneStatus.MODIFIED);
+			result.getAllTests().add(test);
+		}
+		for (int i = 0; i < 7; i++) {
+			result.getAllScmResourceFiles().add(UftTestDiscoveryUtils.createDataTable(workspace, new File(workspace, "data/Table" + i + ".xlsx")));
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File file = folder.newFile("detection_result.json");
+		UftTestDiscoveryResultStorage.write(result, file);
+
+		Assert.assertTrue(UftTestDiscoveryResultStorage.isStreamFormat(file));
+		UftTestDiscoveryResult actual = UftTestDiscoveryResultStorage.read(file);
+		assertSameResult(result, actual);
+		Assert.assertEquals("config", actual.getConfigurationId());
+		Assert.assertEquals("1002", actual.getWorkspaceId());
+		Assert.assertEquals("2005", actual.getScmRepositoryId());
+		Assert.assertEquals("3001", actual.getTestRunnerId());
+		Assert.assertTrue(actual.isFullScan());
+		Assert.assertEquals(result.getDeletedFolders(), actual.getDeletedFolders());
+	}
+
+	@Test
+	public void testReadInBatches() throws IOException {
+		File file = folder.newFile("detection_result.json");
+		UftTestDiscoveryResultStorage.write(result, file);
+
+		UftTestDiscoveryResult actual;
+		List<Integer> testBatchSizes = new ArrayList<>();
+		try (UftTestDiscoveryResultStorage.Reader reader = UftTestDiscoveryResultStorage.open(file)) {
+			actual = reader.getHeader();
+			Assert.assertTrue(actual.getAllTests().isEmpty());
+			List<AutomatedTest> batch;
+			while (!(batch = reader.nextTests(10)).isEmpty()) {
+				testBatchSizes.add(batch.size());
+				actual.getAllTests().addAll(batch);
+			}
+			actual.getAllScmResourceFiles().addAll(reader.nextScmResourceFiles(10));
+			Assert.assertTrue(reader.nextScmResourceFiles(10).isEmpty());
+		}
+
+		Assert.assertEquals("[10, 10, 5]", testBatchSizes.toString());
+		assertSameResult(result, actual);
+	}
+
+	@Test
+	public void testSkipUnreadTests() throws IOException {
+		File file = folder.newFile("detection_result.json");
+		UftTestDiscoveryResultStorage.write(result, file);
+
+		try (UftTestDiscoveryResultStorage.Reader reader = UftTestDiscoveryResultStorage.open(file)) {
+			Assert.assertEquals(3, reader.nextTests(3).size());
+			Assert.assertEquals(7, reader.nextScmResourceFiles(100).size());
+			Assert.assertTrue(reader.nextTests(3).isEmpty());
+		}
+	}
+
+	@Test
+	public void testReadFormerFormat() throws IOException {
+		File file = folder.newFile("detection_result.json");
+		result.writeToFile(file);
+
+		Assert.assertFalse(UftTestDiscoveryResultStorage.isStreamFormat(file));
+		assertSameResult(result, UftTestDiscoveryResultStorage.read(file));
+	}
+
+	private static void assertSameResult(UftTestDiscoveryResult expected, UftTestDiscoveryResult actual) {
+		Assert.assertEquals(describeTests(expected.getAllTests()), describeTests(actual.getAllTests()));
+		Assert.assertEquals(describeDataTables(expected.getAllScmResourceFiles()), describeDataTables(actual.getAllScmResourceFiles()));
+	}
+
+	private static List<String> describeTests(List<AutomatedTest> tests) {
+		return tests.stream()
+				.map(test -> test.getPackage() + "|" + test.getName() + "|" + test.getOctaneStatus())
+				.collect(Collectors.toList());
+	}
+
+	private static List<String> describeDataTables(List<ScmResourceFile> dataTables) {
+		return dataTables.stream()
+				.map(dataTable -> dataTable.getRelativePath() + "|" + dataTable.getOctaneStatus())
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import com.hp.octane.integrations.uft.UftTestDiscoveryUtils;
+import com.hp.octane.integrations.uft.items.AutomatedTest;
+import com.hp.octane.integrations.uft.items.ScmResourceFile;
+import com.hp.octane.integrations.uft.items.UftTestDiscoveryResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UftTestDiscoveryScannerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File root;
+
+	@Before
+	public void generateTestTree() throws IOException {
+		root = folder.newFolder("workspace");
+		for (int area = 0; area < 5; area++) {
+			for (int i = 0; i < 20; i++) {
+				createFile("area" + area + "/gui/GUITest" + i + "/Test.tsp");
+				createFile("area" + area + "/gui/GUITest" + i + "/Default.xls");
+				createFile("area" + area + "/api/sub" + (i % 3) + "/APITest" + i + "/Test.st");
+			}
+			createFile("area" + area + "/data/table" + area + ".xlsx");
+			createFile("area" + area + "/data/readme.txt");
+		}
+		createFile(".git/objects/Test.tsp");
+	}
+
+	@Test
+	public void testParallelScanEqualsFullDiscovery() {
+		UftTestDiscoveryResult expected = UftTestDiscoveryUtils.doFullDiscovery(root);
+		UftTestDiscoveryResult actual = UftTestDiscoveryScanner.doFullDiscovery(root, false);
+
+		assertSameResult(expected, actual);
+	}
+
+	@Test
+	public void testRescanWithManifestEqualsFullDiscovery() throws IOException {
+		UftTestDiscoveryScanner.doFullDiscovery(root);
+		createFile("area9/gui/NewTest/Test.tsp");
+		new File(root, "area0/gui/GUITest0/Test.tsp").delete();
+		new File(root, "area0/gui/GUITest0/Default.xls").delete();
+
+		UftTestDiscoveryResult expected = UftTestDiscoveryUtils.doFullDiscovery(root);
+		UftTestDiscoveryResult actual = UftTestDiscoveryScanner.doFullDiscovery(root);
+
+		assertSameResult(expected, actual);
+	}
+
+	@Test
+	public void testManifestIsKeptOutsideTheWorkspace() throws IOException {
+		UftTestDiscoveryScanner.doFullDiscovery(root);
+
+		File manifest = UftTestDiscoveryScanner.getManifestFile(root);
+		Assert.assertTrue(manifest.isFile());
+		Assert.assertFalse(manifest.toPath().startsWith(root.toPath()));
+		Assert.assertTrue(new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8).contains("GUITest0"));
+	}
+
+	@Test
+	public void testChangeInTestSubFolderIsDetected() throws IOException {
+		createFile("area0/gui/GUITest1/Action1/Script.mts");
+		UftTestDiscoveryScanner.doFullDiscovery(root);
+		File manifest = UftTestDiscoveryScanner.getManifestFile(root);
+		String before = new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8);
+		Assert.assertTrue(before.contains("Action1/Script.mts:0:"));
+
+		Files.write(new File(root, "area0/gui/GUITest1/Action1/Script.mts").toPath(), "Dim x".getBytes(StandardCharsets.UTF_8));
+		UftTestDiscoveryScanner.doFullDiscovery(root);
+		String after = new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8);
+		Assert.assertTrue(after.contains("Action1/Script.mts:5:"));
+	}
+
+	@Test
+	public void testResultIsSorted() {
+		UftTestDiscoveryResult result = UftTestDiscoveryScanner.doFullDiscovery(root, false);
+
+		List<String> tests = result.getAllTests().stream()
+				.map(test -> test.getPackage() + "|" + test.getName())
+				.collect(Collectors.toList());
+		Assert.assertEquals(tests.stream().sorted().collect(Collectors.toList()), tests);
+		List<String> dataTables = result.getAllScmResourceFiles().stream()
+				.map(ScmResourceFile::getRelativePath)
+				.collect(Collectors.toList());
+		Assert.assertEquals(dataTables.stream().sorted().collect(Collectors.toList()), dataTables);
+	}
+
+	@Test
+	public void testCorruptManifestIsIgnored() throws IOException {
+		File manifest = UftTestDiscoveryScanner.getManifestFile(root);
+		manifest.getParentFile().mkdirs();
+		Files.write(manifest.toPath(), "{\"version\":1,\"entries\":[{\"path\":".getBytes(StandardCharsets.UTF_8));
+
+		UftTestDiscoveryResult expected = UftTestDiscoveryUtils.doFullDiscovery(root);
+		UftTestDiscoveryResult actual = UftTestDiscoveryScanner.doFullDiscovery(root);
+
+		assertSameResult(expected, actual);
+	}
+
+	private static void assertSameResult(UftTestDiscoveryResult expected, UftTestDiscoveryResult actual) {
+		// folder .git is skipped by the parallel scan
+		expected.getAllTests().removeIf(test -> test.getPackage() != null && test.getPackage().startsWith(".git"));
+		Assert.assertEquals(describeTests(expected.getAllTests()), describeTests(actual.getAllTests()));
+		Assert.assertEquals(describeDataTables(expected.getAllScmResourceFiles()), describeDataTables(actual.getAllScmResourceFiles()));
+	}
+
+	private static List<String> describeTests(List<AutomatedTest> tests) {
+		return tests.stream()
+				.map(test -> test.getPackage() + "|" + test.getName() + "|" + test.getOctaneStatus())
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private static List<String> describeDataTables(List<ScmResourceFile> dataTables) {
+		return dataTables.stream()
+				.map(ScmResourceFile::getRelativePath)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private void createFile(String relativePath) throws IOException {
+		File file = new File(root, relativePath);
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+	}
+}
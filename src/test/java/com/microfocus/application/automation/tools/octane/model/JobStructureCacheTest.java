@@ -0,0 +1,111 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.octane.model;
+
+import hudson.model.AbstractBuildParameters;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.User;
+import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockAuthorizationStrategy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class JobStructureCacheTest {
+
+	@Rule
+	public final JenkinsRule rule = new JenkinsRule();
+
+	private FreeStyleProject parent;
+
+	@Before
+	public void before() throws Exception {
+		parent = rule.createFreeStyleProject("parent");
+		parent.getBuildersList().add(new TriggerBuilder(Collections.singletonList(
+				new BlockableBuildTriggerConfig("childA, childB", null, Arrays.asList(new AbstractBuildParameters[0]))
+		)));
+		JobStructureCache.invalidate();
+	}
+
+	@Test
+	public void testCacheIsInvalidatedOnCreate() throws Exception {
+		rule.createFreeStyleProject("childA");
+		assertEquals(Collections.singleton("childA"), JobStructureCache.getInternalJobNames(parent));
+
+		rule.createFreeStyleProject("childB");
+		assertEquals(new HashSet<>(Arrays.asList("childA", "childB")), JobStructureCache.getInternalJobNames(parent));
+		assertTrue(JobStructureCache.isInternalJob(parent, "childB"));
+	}
+
+	@Test
+	public void testCacheIsInvalidatedOnRename() throws Exception {
+		FreeStyleProject childA = rule.createFreeStyleProject("childA");
+		assertTrue(JobStructureCache.isInternalJob(parent, "childA"));
+
+		childA.renameTo("childC");
+		assertFalse(JobStructureCache.isInternalJob(parent, "childA"));
+	}
+
+	@Test
+	public void testCacheIsInvalidatedOnDelete() throws Exception {
+		rule.createFreeStyleProject("childA");
+		FreeStyleProject childB = rule.createFreeStyleProject("childB");
+		assertTrue(JobStructureCache.isInternalJob(parent, "childB"));
+
+		childB.delete();
+		assertEquals(Collections.singleton("childA"), JobStructureCache.getInternalJobNames(parent));
+	}
+
+	@Test
+	public void testStructureDoesNotDependOnCaller() throws Exception {
+		rule.createFreeStyleProject("childA");
+		rule.createFreeStyleProject("childB");
+		rule.jenkins.setSecurityRealm(rule.createDummySecurityRealm());
+		rule.jenkins.setAuthorizationStrategy(new MockAuthorizationStrategy()
+				.grant(Item.READ).onItems(parent).to("limited"));
+
+		//  computed for a caller that can't see the child jobs
+		JobStructureCache.invalidate();
+		try (ACLContext ignored = ACL.as(User.getById("limited", true))) {
+			assertEquals(new HashSet<>(Arrays.asList("childA", "childB")), JobStructureCache.getInternalJobNames(parent));
+		}
+		assertEquals(new HashSet<>(Arrays.asList("childA", "childB")), JobStructureCache.getInternalJobNames(parent));
+	}
+}
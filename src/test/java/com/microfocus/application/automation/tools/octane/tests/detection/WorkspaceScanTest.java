@@ -0,0 +1,91 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.detection;
+
+import hudson.FilePath;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class WorkspaceScanTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testAllRequestsAnsweredByOneScan() throws IOException, InterruptedException {
+		temporaryFolder.newFolder("module1", "target", "surefire-reports");
+		temporaryFolder.newFolder("module2", "target", "failsafe-reports");
+		temporaryFolder.newFolder("reports", "junit");
+		temporaryFolder.newFolder("reports", "testng");
+		temporaryFolder.newFile("module1/target/surefire-reports/testng-results.xml");
+		temporaryFolder.newFile("reports/junit/TEST-a.xml");
+		temporaryFolder.newFile("reports/testng/TEST-b.xml");
+
+		FilePath workspace = new FilePath(temporaryFolder.getRoot());
+		WorkspaceScan.Request request = new WorkspaceScan.Request(workspace)
+				.addReportPattern("reports/junit/*.xml", "testng-results.xml")
+				.addLocation(moduleFolder(workspace, "module1") + "target/surefire-reports/testng-results.xml")
+				.addLocation(moduleFolder(workspace, "module2") + "target/failsafe-reports/testng-results.xml");
+		WorkspaceScan.Manifest manifest = WorkspaceScan.scan(request);
+
+		Assert.assertFalse(manifest.isMarkerFileFound("testng-results.xml"));
+		Assert.assertTrue(manifest.exists("module1/target/surefire-reports/testng-results.xml"));
+		Assert.assertFalse(manifest.exists("module2/target/failsafe-reports/testng-results.xml"));
+
+		temporaryFolder.newFile("reports/testng/testng-results.xml");
+		request.addReportPattern("reports/testng/*.xml", "testng-results.xml");
+		Assert.assertTrue(WorkspaceScan.scan(request).isMarkerFileFound("testng-results.xml"));
+	}
+
+	@Test
+	public void testRelativize() {
+		FilePath workspace = new FilePath(temporaryFolder.getRoot());
+		Assert.assertEquals("", WorkspaceScan.relativize(workspace, workspace));
+		Assert.assertEquals("a/b/", WorkspaceScan.relativize(workspace, workspace.child("a").child("b")));
+		Assert.assertNull(WorkspaceScan.relativize(workspace, new FilePath(temporaryFolder.getRoot().getParentFile())));
+		Assert.assertNull(WorkspaceScan.relativize(workspace, new FilePath(new File(temporaryFolder.getRoot().getPath() + "-other"))));
+	}
+
+	@Test
+	public void testEmptyRequest() throws IOException, InterruptedException {
+		FilePath workspace = new FilePath(temporaryFolder.getRoot());
+		WorkspaceScan.Manifest manifest = WorkspaceScan.scan(new WorkspaceScan.Request(workspace));
+		Assert.assertFalse(manifest.isMarkerFileFound("testng-results.xml"));
+		Assert.assertEquals("sub/", manifest.relativize(workspace.child("sub")));
+	}
+
+	private static String moduleFolder(FilePath workspace, String module) {
+		return WorkspaceScan.relativize(workspace, workspace.child(module));
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.gherkin;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GherkinResultsIteratorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFeaturesFromSeveralFiles() throws IOException {
+		File first = writeResults("OctaneGherkinResults0.xml",
+				feature("Passed Feature", "", scenario(step("passed", 10), step("passed", 5))) +
+				feature("Failed Feature", "", scenario(step("passed", 1)) + scenario(step("failed", 2), step("skipped", 0))));
+		File second = writeResults("OctaneGherkinResults1.xml",
+				feature("Skipped Feature", background(step("passed", 3)), scenario(step("undefined", 0)) + scenario(step("passed", 4))));
+
+		List<GherkinFeatureTestResult> results = readAll(Arrays.asList(first, new File(folder.getRoot(), "missing.xml"), second));
+		Assert.assertEquals(3, results.size());
+
+		Assert.assertEquals("Passed Feature", results.get(0).getName());
+		Assert.assertEquals(TestResultStatus.PASSED, results.get(0).getStatus());
+		Assert.assertEquals(15, results.get(0).getDuration());
+
+		Assert.assertEquals("Failed Feature", results.get(1).getName());
+		Assert.assertEquals(TestResultStatus.FAILED, results.get(1).getStatus());
+		Assert.assertEquals(3, results.get(1).getDuration());
+
+		//background steps are counted for every scenario
+		Assert.assertEquals("Skipped Feature", results.get(2).getName());
+		Assert.assertEquals(TestResultStatus.SKIPPED, results.get(2).getStatus());
+		Assert.assertEquals(10, results.get(2).getDuration());
+	}
+
+	@Test
+	public void testWrittenFeatureSkipsEmbeddingsAndKeepsFile() throws IOException, XMLStreamException {
+		StringBuilder longMessage = new StringBuilder();
+		for (int i = 0; i <= GherkinXmlIterator.MAX_TEXT_LENGTH; i++) {
+			longMessage.append('x');
+		}
+		String scenario = "<scenario name=\"s\"><steps><step name=\"a\" status=\"failed\" duration=\"7\">" +
+				"<error_message><![CDATA[" + longMessage + "]]></error_message>" +
+				"<embeddings><embedding mime_type=\"image/png\">iVBORw0KGgoAAAANSUhEUg</embedding></embeddings>" +
+				"</step></steps></scenario>";
+		File file = writeResults("OctaneGherkinResults0.xml", feature("My Feature", "", scenario));
+
+		List<GherkinFeatureTestResult> results = readAll(Arrays.asList(file));
+		Assert.assertEquals(1, results.size());
+		String xml = toXml(results.get(0));
+
+		Assert.assertTrue(xml.startsWith("<gherkin_test_run name=\"My Feature\" duration=\"7\" status=\"Failed\"><feature"));
+		Assert.assertTrue(xml.contains("<file><![CDATA[Feature: My Feature]]></file>"));
+		//long texts may come in several chunks, the cap applies to their sum
+		Assert.assertEquals(GherkinXmlIterator.MAX_TEXT_LENGTH, xml.chars().filter(c -> c == 'x').count());
+		Assert.assertFalse(xml.contains("embedding"));
+		Assert.assertTrue(xml.endsWith("</feature></gherkin_test_run>"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongVersion() throws IOException {
+		File file = folder.newFile("OctaneGherkinResults0.xml");
+		Files.write(file.toPath(), "<features version=\"2\"></features>".getBytes(StandardCharsets.UTF_8));
+		readAll(Arrays.asList(file));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotGherkinFile() throws IOException {
+		File file = folder.newFile("pom.xml");
+		Files.write(file.toPath(), "<project><feature name=\"x\"/></project>".getBytes(StandardCharsets.UTF_8));
+		readAll(Arrays.asList(file));
+	}
+
+	@Test
+	public void testWrongFileFailsBeforeAnyResultIsRead() throws IOException {
+		File good = writeResults("OctaneGherkinResults0.xml", feature("Passed Feature", "", scenario(step("passed", 10))));
+		File wrong = folder.newFile("OctaneGherkinResults1.xml");
+		Files.write(wrong.toPath(), "<features version=\"2\"></features>".getBytes(StandardCharsets.UTF_8));
+		try {
+			new GherkinResultsIterator(Arrays.asList(good, wrong));
+			Assert.fail("wrong results file was not detected");
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().contains("Incompatible xml version"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testBrokenFileFailsWhileReading() throws IOException {
+		File broken = folder.newFile("OctaneGherkinResults0.xml");
+		Files.write(broken.toPath(), ("<features version=\"1\">" + feature("Passed Feature", "", scenario(step("passed", 10))) + "<feature name=\"x\"><scen")
+				.getBytes(StandardCharsets.UTF_8));
+		readAll(Arrays.asList(broken));
+	}
+
+	private List<GherkinFeatureTestResult> readAll(List<File> files) {
+		List<GherkinFeatureTestResult> results = new ArrayList<>();
+		GherkinResultsIterator iterator = new GherkinResultsIterator(files);
+		while (iterator.hasNext()) {
+			results.add((GherkinFeatureTestResult) iterator.next());
+		}
+		return results;
+	}
+
+	private File writeResults(String name, String features) throws IOException {
+		File file = folder.newFile(name);
+		String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><features version=\"1\">" + features + "</features>";
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String feature(String name, String background, String scenarios) {
+		return "<feature name=\"" + name + "\" path=\"src/test/resources/" + name + ".feature\" started=\"1\">" +
+				"<file><![CDATA[Feature: " + name + "]]></file>" +
+				"<scenarios>" + background + scenarios + "</scenarios></feature>";
+	}
+
+	private static String background(String... steps) {
+		return "<background name=\"bg\"><steps>" + String.join("", steps) + "</steps></background>";
+	}
+
+	private static String scenario(String... steps) {
+		return "<scenario name=\"s\"><steps>" + String.join("", steps) + "</steps></scenario>";
+	}
+
+	private static String step(String status, long duration) {
+		return "<step name=\"step\" status=\"" + status + "\" duration=\"" + duration + "\"/>";
+	}
+
+	private static String toXml(XmlWritableTestResult result) throws XMLStreamException {
+		StringWriter out = new StringWriter();
+		XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+		result.writeXmlElement(writer);
+		writer.close();
+		return out.toString();
+	}
+}
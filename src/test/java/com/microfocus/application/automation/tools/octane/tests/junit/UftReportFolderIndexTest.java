@@ -0,0 +1,57 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class UftReportFolderIndexTest {
+
+	@Test
+	public void testInstancesOfSameTestArePolledInOrder() {
+		UftReportFolderIndex index = new UftReportFolderIndex("UFTReport",
+				Arrays.asList("GUITest1[1]", "APITest[1]", "GUITest1[2]", "GUITest10[1]"));
+
+		Assert.assertEquals("GUITest1[1]", index.pollReportFolder("GUITest1"));
+		Assert.assertEquals("GUITest1[2]", index.pollReportFolder("GUITest1"));
+		Assert.assertNull(index.pollReportFolder("GUITest1"));
+		Assert.assertEquals("GUITest10[1]", index.pollReportFolder("GUITest10"));
+		Assert.assertEquals("APITest[1]", index.pollReportFolder("APITest"));
+	}
+
+	@Test
+	public void testUnknownTestHasNoReportFolder() {
+		UftReportFolderIndex index = new UftReportFolderIndex("UFTReport", Arrays.asList("GUITest1[1]", "NoInstanceSuffix"));
+
+		Assert.assertNull(index.pollReportFolder("GUITest"));
+		Assert.assertNull(index.pollReportFolder("NoInstanceSuffix"));
+	}
+}
@@ -48,11 +48,11 @@ import org.apache.http.message.BasicHttpResponse;
 import com.microfocus.adm.performancecenter.plugins.common.pcentities.*;
 
 import static com.microfocus.adm.performancecenter.plugins.common.pcentities.RunState.*;
-import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
 
-public class MockPcRestProxy extends PcRestProxy {
+public class MockPcRestProxy extends PcStreamingRestProxy {
     
-    private static Iterator<RunState> runState = initializeRunStateIterator();
+    private Iterator<RunState> runState = initializeRunStateIterator();
+    private File reportArchive;
     
     public MockPcRestProxy(String webProtocol, String pcServerName, boolean authenticateWithToken, String almDomain, String almProject,PrintStream logger) throws PcException {
         super(webProtocol, pcServerName, authenticateWithToken, almDomain, almProject,null,null,null);
@@ -88,7 +88,7 @@ public class MockPcRestProxy extends PcRestProxy {
         } else if (requestUrl.equals(String.format(getBaseURL() + "/%s/%s/%s/%s/data", RUNS_RESOURCE_NAME, PcTestBase.RUN_ID,
             RESULTS_RESOURCE_NAME, PcTestBase.REPORT_ID))) {
             response = getOkResponse();
-            response.setEntity(new FileEntity(
+            response.setEntity(new FileEntity(reportArchive != null ? reportArchive :
                 new File(getClass().getResource(PcBuilder.pcReportArchiveName).getPath()), ContentType.DEFAULT_BINARY));
         }
         if (response == null)
@@ -96,6 +96,11 @@ public class MockPcRestProxy extends PcRestProxy {
         return response;
     }
     
+    public void setReportArchive(File reportArchive) {
+
+        this.reportArchive = reportArchive;
+    }
+
     private HttpResponse getOkResponse(){
         
         return new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
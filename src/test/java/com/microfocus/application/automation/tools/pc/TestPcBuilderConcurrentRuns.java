@@ -0,0 +1,106 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.pc;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PostRunAction;
+import com.microfocus.application.automation.tools.run.PcBuilder;
+import com.microfocus.application.automation.tools.run.PcRunResultsAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.StringParameterValue;
+import hudson.model.queue.QueueTaskFuture;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestPcBuilderConcurrentRuns {
+
+    private static final int RUNS = 4;
+
+    @Rule
+    public JenkinsRule rule = new JenkinsRule();
+
+    @Test
+    public void testSharedBuilderKeepsStatePerRun() throws Exception {
+        for (int i = 0; i < RUNS; i++) {
+            SystemCredentialsProvider.getInstance().getCredentials().add(new UsernamePasswordCredentialsImpl(
+                    CredentialsScope.GLOBAL, "pc-credentials-" + i, "", "pc-user-" + i, "pass"));
+        }
+        SystemCredentialsProvider.getInstance().save();
+        rule.jenkins.setNumExecutors(RUNS);
+
+        // nothing listens on the server port, so every run fails right after it tries to log in
+        PcBuilder pcBuilder = new PcBuilder(PcTestBase.SERVER_AND_PORT, "127.0.0.1:1", "$PC_CREDENTIALS",
+                PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, PcTestBase.TEST_ID, PcTestBase.TEST_INSTANCE_ID,
+                PcTestBase.TESTINSTANCEID, PcTestBase.TIMESLOT_DURATION_HOURS, PcTestBase.TIMESLOT_DURATION_MINUTES,
+                PostRunAction.COLLATE_AND_ANALYZE, PcTestBase.VUDS_MODE, false, PcTestBase.DESCRIPTION, "NO_TREND", "",
+                PcTestBase.IS_HTTPS, "", "", PcTestBase.RETRY, PcTestBase.RETRYDELAY, PcTestBase.RETRYOCCURRENCES,
+                PcTestBase.AUTHENTICATE_WITH_TOKEN);
+        FreeStyleProject project = rule.createFreeStyleProject();
+        project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("PC_CREDENTIALS", "", "")));
+        project.setConcurrentBuild(true);
+        project.getBuildersList().add(pcBuilder);
+
+        List<QueueTaskFuture<FreeStyleBuild>> runs = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            runs.add(project.scheduleBuild2(0, new ParametersAction(new StringParameterValue("PC_CREDENTIALS", "pc-credentials-" + i))));
+        }
+
+        List<String> resultsFileNames = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            FreeStyleBuild build = runs.get(i).get();
+            // every run logs in with its own credentials, to its own log
+            rule.assertLogContains("='pc-user-" + i + "'", build);
+            for (int j = 0; j < RUNS; j++) {
+                if (j != i) {
+                    rule.assertLogNotContains("='pc-user-" + j + "'", build);
+                }
+            }
+            List<PcRunResultsAction> results = build.getActions(PcRunResultsAction.class);
+            Assert.assertEquals(1, results.size());
+            Assert.assertTrue(results.get(0).getResultsFileName().matches("Results\\d+\\.xml"));
+            resultsFileNames.add(results.get(0).getResultsFileName());
+        }
+
+        // the configured builder keeps no run state
+        project.save();
+        for (String resultsFileName : resultsFileNames) {
+            Assert.assertFalse(project.getConfigFile().asString().contains(resultsFileName));
+        }
+    }
+}
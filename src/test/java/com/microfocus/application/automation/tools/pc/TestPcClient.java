@@ -31,6 +31,11 @@ package com.microfocus.application.automation.tools.pc;
 import com.microfocus.application.automation.tools.run.PcBuilder;
 import hudson.FilePath;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.apache.http.client.ClientProtocolException;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -80,6 +85,30 @@ public class TestPcClient {
         }       
     }
     
+    @Test (timeout=10000)
+    public void testWaitForRunCompletionKeepsSessionOnTransientError() throws Exception {
+
+        System.out.println("Testing Wait for Run Completion through a transient LRE error");
+        PcRestProxy flakyProxy = new MockPcRestProxy(PcTestBase.WEB_PROTOCOL, PcTestBase.PC_SERVER_NAME, PcTestBase.AUTHENTICATE_WITH_TOKEN, PcTestBase.ALM_DOMAIN,
+            PcTestBase.ALM_PROJECT, PcTestBase.LOGGER) {
+            private boolean failed;
+
+            @Override
+            public PcRunResponse getRunData(int runId) throws PcException, ClientProtocolException, IOException {
+                if (!failed) {
+                    failed = true;
+                    throw new PcException("Service temporarily unavailable");
+                }
+                return super.getRunData(runId);
+            }
+        };
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PcClient client = new PcClient(PcTestBase.pcModel, new PrintStream(log, true), flakyProxy);
+        PcRunResponse response = client.waitForRunCompletion(Integer.parseInt(PcTestBase.RUN_ID_WAIT), 200);
+        Assert.assertEquals(RunState.FINISHED.value(), response.getRunState());
+        Assert.assertFalse("Monitoring should not log in again after a single failure", log.toString().contains(Messages.LoginFailed()));
+    }
+
     @Test
     public void testPublishRunReport(){
         
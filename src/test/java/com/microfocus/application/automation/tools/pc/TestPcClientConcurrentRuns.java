@@ -0,0 +1,105 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunResponse;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.RunState;
+import com.microfocus.application.automation.tools.run.PcBuilder;
+import hudson.FilePath;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+public class TestPcClientConcurrentRuns {
+
+    private static final int RUNS = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 30000)
+    public void testParallelRunsKeepTheirOwnState() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(RUNS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> logs = new ArrayList<>();
+        List<File> reportDirs = new ArrayList<>();
+        try {
+            for (int i = 0; i < RUNS; i++) {
+                final File reportDir = folder.newFolder("pcRun" + i);
+                reportDirs.add(reportDir);
+                logs.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        ByteArrayOutputStream log = new ByteArrayOutputStream();
+                        PrintStream logger = new PrintStream(log, true, "UTF-8");
+                        MockPcModel model = new MockPcModel(PcTestBase.SERVER_AND_PORT, PcTestBase.PC_SERVER_NAME, PcTestBase.CREDENTIALSID,
+                                PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, PcTestBase.TEST_ID, PcTestBase.TESTINSTANCEID,
+                                PcTestBase.TEST_INSTANCE_ID, PcTestBase.TIMESLOT_DURATION_HOURS, PcTestBase.TIMESLOT_DURATION_MINUTES,
+                                PcTestBase.POST_RUN_ACTION, PcTestBase.VUDS_MODE, PcTestBase.DESCRIPTION, PcTestBase.IS_HTTPS,
+                                PcTestBase.RETRY, PcTestBase.RETRYDELAY, PcTestBase.RETRYOCCURRENCES, PcTestBase.AUTHENTICATE_WITH_TOKEN);
+                        MockPcRestProxy proxy = new MockPcRestProxy(PcTestBase.WEB_PROTOCOL, PcTestBase.PC_SERVER_NAME,
+                                PcTestBase.AUTHENTICATE_WITH_TOKEN, PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, logger);
+                        PcClient pcClient = new PcClient(model, logger, proxy);
+
+                        start.await();
+                        Assert.assertEquals(Integer.parseInt(PcTestBase.RUN_ID), pcClient.startRun());
+                        PcRunResponse response = pcClient.waitForRunCompletion(Integer.parseInt(PcTestBase.RUN_ID_WAIT), 100);
+                        Assert.assertEquals(RunState.FINISHED.value(), response.getRunState());
+                        FilePath report = pcClient.publishRunReport(Integer.parseInt(PcTestBase.RUN_ID), reportDir.getPath());
+                        Assert.assertNotNull(report);
+                        return log.toString("UTF-8");
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < RUNS; i++) {
+                String log = logs.get(i).get();
+                // every run writes to its own log only
+                Assert.assertEquals(1, log.split(Pattern.quote(Messages.RunStarted()), -1).length - 1);
+                Assert.assertTrue(new File(reportDirs.get(i), PcBuilder.pcReportFileName).exists());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import com.microfocus.application.automation.tools.run.PcBuilder;
+import hudson.FilePath;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.http.client.ClientProtocolException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+
+public class TestPcClientReportStreaming {
+
+    private static final int ENTRIES = 40;
+    private static final int ENTRY_SIZE = 512 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File archive;
+
+    @Before
+    public void createSyntheticArchive() throws IOException {
+        archive = folder.newFile(PcBuilder.pcReportArchiveName);
+        Random random = new Random(0);
+        byte[] data = new byte[ENTRY_SIZE];
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry(PcBuilder.pcReportFileName));
+            zip.write("<html><body>Report</body></html>".getBytes("UTF-8"));
+            zip.closeEntry();
+            for (int i = 0; i < ENTRIES; i++) {
+                random.nextBytes(data);
+                zip.putNextEntry(new ZipEntry("Report_data/part" + i + ".bin"));
+                zip.write(data);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void testPublishLargeRunReport() throws Exception {
+        MockPcRestProxy proxy = new MockPcRestProxy(PcTestBase.WEB_PROTOCOL, PcTestBase.PC_SERVER_NAME, PcTestBase.AUTHENTICATE_WITH_TOKEN,
+                PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, PcTestBase.LOGGER);
+        proxy.setReportArchive(archive);
+        PcClient pcClient = new PcClient(PcTestBase.pcModel, System.out, proxy);
+
+        File reportDir = folder.newFolder("pcRun");
+        FilePath reportHtml = pcClient.publishRunReport(Integer.parseInt(PcTestBase.RUN_ID), reportDir.getPath());
+
+        Assert.assertNotNull("Failed to publish PC run report", reportHtml);
+        Assert.assertTrue(reportHtml.exists());
+        assertAllEntriesExtracted(reportDir);
+        Assert.assertFalse("Report archive should not be stored in the report folder",
+                new File(reportDir, PcBuilder.pcReportArchiveName).exists());
+    }
+
+    @Test
+    public void testPublishRunReportResumesAfterBrokenTransfer() throws Exception {
+        final int[] requests = {0};
+        MockPcRestProxy proxy = new MockPcRestProxy(PcTestBase.WEB_PROTOCOL, PcTestBase.PC_SERVER_NAME, PcTestBase.AUTHENTICATE_WITH_TOKEN,
+                PcTestBase.ALM_DOMAIN, PcTestBase.ALM_PROJECT, PcTestBase.LOGGER) {
+            @Override
+            public InputStream getRunResultDataStream(int runId, int resultId) throws PcException, ClientProtocolException, IOException {
+                InputStream in = super.getRunResultDataStream(runId, resultId);
+                return ++requests[0] == 1 ? new BrokenInputStream(in, archive.length() / 2) : in;
+            }
+        };
+        proxy.setReportArchive(archive);
+        PcClient pcClient = new PcClient(PcTestBase.pcModel, System.out, proxy);
+
+        File reportDir = folder.newFolder("pcRun");
+        FilePath reportHtml = pcClient.publishRunReport(Integer.parseInt(PcTestBase.RUN_ID), reportDir.getPath());
+
+        Assert.assertNotNull("Failed to publish PC run report after a broken transfer", reportHtml);
+        Assert.assertEquals(2, requests[0]);
+        assertAllEntriesExtracted(reportDir);
+    }
+
+    private static void assertAllEntriesExtracted(File reportDir) {
+        File[] parts = new File(reportDir, "Report_data").listFiles();
+        Assert.assertNotNull(parts);
+        Assert.assertEquals(ENTRIES, parts.length);
+        for (File part : parts) {
+            Assert.assertEquals(part.getName(), ENTRY_SIZE, part.length());
+        }
+    }
+
+    private static class BrokenInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BrokenInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkRemaining();
+            remaining--;
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkRemaining();
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            remaining -= Math.max(read, 0);
+            return read;
+        }
+
+        private void checkRemaining() throws IOException {
+            if (remaining <= 0)
+                throw new IOException("Connection reset");
+        }
+    }
+}
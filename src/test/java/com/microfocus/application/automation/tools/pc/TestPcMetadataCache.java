@@ -0,0 +1,127 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.pc;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestPcMetadataCache {
+
+    private static final String KEY = PcMetadataCache.testSetKey(PcMetadataCache.projectKey(PcTestBase.pcModel));
+
+    @Test(timeout = 10000)
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        final PcMetadataCache cache = new PcMetadataCache(TimeUnit.MINUTES.toMillis(10));
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final PcMetadataCache.Loader<Integer> loader = new PcMetadataCache.Loader<Integer>() {
+            @Override
+            public Integer load() throws IOException, PcException {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new PcException(e.getMessage());
+                }
+                return 42;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return cache.get(KEY, loader);
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(Integer.valueOf(42), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testFailedLoadIsNotKept() throws Exception {
+        PcMetadataCache cache = new PcMetadataCache(TimeUnit.MINUTES.toMillis(10));
+        try {
+            cache.get(KEY, new PcMetadataCache.Loader<Integer>() {
+                @Override
+                public Integer load() throws PcException {
+                    throw new PcException("No test set available");
+                }
+            });
+            Assert.fail("Expected the loader failure to be rethrown");
+        } catch (PcException e) {
+            Assert.assertEquals("No test set available", e.getMessage());
+        }
+        Assert.assertEquals(Integer.valueOf(3), cache.get(KEY, constant(3)));
+    }
+
+    @Test
+    public void testExpiredAndInvalidatedValuesAreReloaded() throws Exception {
+        PcMetadataCache cache = new PcMetadataCache(TimeUnit.MINUTES.toMillis(10));
+        Assert.assertEquals(Integer.valueOf(1), cache.get(KEY, constant(1)));
+        Assert.assertEquals(Integer.valueOf(1), cache.get(KEY, constant(2)));
+        cache.invalidate(KEY);
+        Assert.assertEquals(Integer.valueOf(2), cache.get(KEY, constant(2)));
+
+        PcMetadataCache expiring = new PcMetadataCache(0);
+        Assert.assertEquals(Integer.valueOf(1), expiring.get(KEY, constant(1)));
+        Assert.assertEquals(Integer.valueOf(2), expiring.get(KEY, constant(2)));
+    }
+
+    private static PcMetadataCache.Loader<Integer> constant(final int value) {
+        return new PcMetadataCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                return value;
+            }
+        };
+    }
+}
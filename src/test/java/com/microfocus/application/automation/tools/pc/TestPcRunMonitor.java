@@ -0,0 +1,114 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.pc;
+
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunEventLog;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunEventLogRecord;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.PcRunResponse;
+import com.microfocus.adm.performancecenter.plugins.common.pcentities.RunState;
+import com.microfocus.adm.performancecenter.plugins.common.rest.PcRestProxy;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestPcRunMonitor {
+
+    private static final int RUN_ID = 8;
+    private static final int EVENT_LOG_READS = 4;
+
+    @Test(timeout = 30000)
+    public void testEventsArePrintedIncrementally() throws Exception {
+        final AtomicInteger stateReads = new AtomicInteger();
+        final AtomicInteger eventLogReads = new AtomicInteger();
+        PcRestProxy restProxy = mock(PcRestProxy.class);
+        when(restProxy.getRunData(anyInt())).thenAnswer(new Answer<PcRunResponse>() {
+            @Override
+            public PcRunResponse answer(InvocationOnMock invocation) {
+                stateReads.incrementAndGet();
+                // the run ends once its event log was read a few times
+                return runResponse(eventLogReads.get() < EVENT_LOG_READS - 1 ? RunState.RUNNING : RunState.FINISHED);
+            }
+        });
+        when(restProxy.getRunEventLog(anyInt())).thenAnswer(new Answer<PcRunEventLog>() {
+            @Override
+            public PcRunEventLog answer(InvocationOnMock invocation) {
+                // every read returns the whole log, which grows by two events
+                return eventLog(2 * eventLogReads.incrementAndGet());
+            }
+        });
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PrintStream logger = new PrintStream(log, true, "UTF-8");
+
+        PcRunResponse response = new PcRunMonitor(mock(PcClient.class), restProxy, logger, RUN_ID, 1, 50)
+                .waitForState(RunState.FINISHED);
+
+        Assert.assertEquals(RunState.FINISHED.value(), response.getRunState());
+        Assert.assertEquals(EVENT_LOG_READS, eventLogReads.get());
+        // the event log is read on its own, slower, cadence
+        Assert.assertTrue(stateReads.get() > eventLogReads.get());
+        String output = log.toString("UTF-8");
+        int lastIndex = -1;
+        for (int id = 1; id <= 2 * EVENT_LOG_READS; id++) {
+            String event = "Event " + id + " |";
+            int index = output.indexOf(event);
+            Assert.assertTrue(event + " is printed after the previous events", index > lastIndex);
+            Assert.assertEquals(event + " is printed once", index, output.lastIndexOf(event));
+            lastIndex = index;
+        }
+    }
+
+    private static PcRunResponse runResponse(RunState state) {
+        PcRunResponse response = mock(PcRunResponse.class);
+        when(response.getRunState()).thenReturn(state.value());
+        return response;
+    }
+
+    private static PcRunEventLog eventLog(int events) {
+        ArrayList<PcRunEventLogRecord> records = new ArrayList<>();
+        for (int id = 1; id <= events; id++) {
+            PcRunEventLogRecord record = mock(PcRunEventLogRecord.class);
+            when(record.getID()).thenReturn(id);
+            when(record.getType()).thenReturn("Info");
+            when(record.getDescription()).thenReturn("event " + id);
+            records.add(record);
+        }
+        PcRunEventLog eventLog = mock(PcRunEventLog.class);
+        when(eventLog.getRecordsList()).thenReturn(records);
+        return eventLog;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import hudson.model.Run;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HtmlBuildReportActionTest {
+
+	private static final String REPORT_NAME = "report_metadata_1.xml";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Run<?, ?> build;
+
+	@Before
+	public void setUp() {
+		build = mock(Run.class);
+		when(build.getRootDir()).thenReturn(folder.getRoot());
+	}
+
+	@Test
+	public void testReportsAreReadOnceUntilTheFileChanges() throws Exception {
+		File metadata = writeMetadata("<reports_data>"
+				+ "<report disPlayName=\"Test1\" urlName=\"test1\" status=\"pass\" isHtmlreport=\"true\""
+				+ " isParallelRunnerReport=\"false\" archiveUrl=\"artifact/Test1_Report.zip\"/>"
+				+ "</reports_data>");
+
+		HtmlBuildReportAction action = new HtmlBuildReportAction(build, REPORT_NAME, 1);
+		List<ReportMetaData> reports = action.getAllReports();
+		Assert.assertEquals(1, reports.size());
+		Assert.assertEquals("Test1", reports.get(0).getDisPlayName());
+		Assert.assertTrue(reports.get(0).getIsHtmlReport());
+		Assert.assertFalse(reports.get(0).getIsParallelRunnerReport());
+		Assert.assertEquals("", reports.get(0).getResourceURL());
+		Assert.assertSame(reports, action.getAllReports());
+
+		writeMetadata("<reports_data>"
+				+ "<report disPlayName=\"Test1\" urlName=\"test1\"/><report disPlayName=\"Test2\" urlName=\"test2\"/>"
+				+ "</reports_data>");
+		metadata.setLastModified(metadata.lastModified() + 2000);
+		Assert.assertEquals(2, action.getAllReports().size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReportsCannotBeModified() throws Exception {
+		writeMetadata("<reports_data/>");
+		new HtmlBuildReportAction(build, REPORT_NAME, 1).getAllReports().add(new ReportMetaData());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidMetadataFailsTheAction() throws Exception {
+		writeMetadata("<reports_data>");
+		new HtmlBuildReportAction(build, REPORT_NAME, 1);
+	}
+
+	private File writeMetadata(String xml) throws IOException {
+		File file = new File(folder.getRoot(), REPORT_NAME);
+		Files.write(file.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrScenarioSeries;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrTest;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrTrendSeries;
+import com.microfocus.application.automation.tools.results.projectparser.performance.PercentileTransactionWholeRun;
+import com.microfocus.application.automation.tools.results.projectparser.performance.WholeRunResult;
+import hudson.model.Run;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LrGraphUtilsTest {
+
+	@Test
+	public void testGraphsFollowTheBuildsOfTheSeries() {
+		LrTrendSeries trend = new LrTrendSeries();
+		trend.addBuild(1, results(100, "login", 1.5), 20);
+		trend.addBuild(3, results(300, "logout", 3.0), 20);
+		trend.addBuild(2, results(200, "login", 2.0), 20);
+
+		JSONObject graphs = new JSONObject();
+		LrGraphUtils.constructScenarioGraphs(trend.getScenarios().get("Scenario1"), graphs);
+
+		JSONObject totalHits = graphs.getJSONObject("totalHits");
+		Assert.assertEquals("[1,2,3]", totalHits.getJSONArray("labels").toString());
+		Assert.assertEquals("[100,200,300]",
+				totalHits.getJSONArray(LrGraphUtils.SERIES).getJSONObject(0).getJSONArray("data").toString());
+
+		JSONObject percentile = graphs.getJSONObject("percentileTransaction");
+		Assert.assertEquals("[1,2,3]", percentile.getJSONArray("labels").toString());
+		JSONArray series = percentile.getJSONArray(LrGraphUtils.SERIES);
+		Assert.assertEquals("login", series.getJSONObject(0).getString("name"));
+		Assert.assertEquals("[1.5,2,null]", series.getJSONObject(0).getJSONArray("data").toString());
+		Assert.assertEquals("[null,null,3]", series.getJSONObject(1).getJSONArray("data").toString());
+
+		Assert.assertFalse(graphs.containsKey("averageTransactionResponseTime"));
+		Assert.assertFalse(graphs.containsKey("errorPerSecResults"));
+	}
+
+	@Test
+	public void testSeriesKeepsOnlyTheNewestBuilds() {
+		LrTrendSeries trend = new LrTrendSeries();
+		trend.addBuild(1, results(100, "login", 1.5), 2);
+		trend.addBuild(2, results(200, "logout", 2.0), 2);
+		trend.addBuild(3, results(300, "logout", 3.0), 2);
+
+		LrScenarioSeries series = trend.getScenarios().get("Scenario1");
+		Assert.assertEquals(2, series.size());
+		Assert.assertEquals(2, series.getBuild(0));
+		Assert.assertEquals(1, series.getTransactionCount());
+		Assert.assertEquals("logout", series.getTransaction(0));
+		Assert.assertTrue(trend.isIndexed(1));
+
+		Assert.assertFalse(trend.removeBuild(1));
+		Assert.assertTrue(trend.removeBuild(3));
+		Assert.assertEquals(1, series.size());
+	}
+
+	@Test
+	public void testSeriesSurvivesSerialization() {
+		LrTrendSeries trend = new LrTrendSeries();
+		trend.addBuild(1, results(100, "login", 1.5), 20);
+
+		LrTrendSeries loaded = (LrTrendSeries) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(trend));
+		LrScenarioSeries series = loaded.getScenarios().get("Scenario1");
+		Assert.assertTrue(loaded.isIndexed(1));
+		Assert.assertEquals(100, series.getMetric(LrScenarioSeries.Metric.TotalHits, 0), 0);
+		Assert.assertSame("login", series.getTransaction(0));
+	}
+
+	private static LrJobResults results(double totalHits, String transaction, double percentile) {
+		JobLrScenarioResult scenario = new JobLrScenarioResult("Scenario1");
+
+		WholeRunResult hits = new WholeRunResult(totalHits, 0);
+		hits.setSlaGoal(LrTest.SLA_GOAL.TotalHits);
+		hits.setStatus(LrTest.SLA_STATUS.Passed);
+		scenario.scenarioSlaResults.add(hits);
+
+		PercentileTransactionWholeRun transactionResult = new PercentileTransactionWholeRun();
+		transactionResult.setName(transaction);
+		transactionResult.setActualValue(percentile);
+		transactionResult.setSlaGoal(LrTest.SLA_GOAL.PercentileTRT);
+		transactionResult.setStatus(LrTest.SLA_STATUS.Passed);
+		scenario.scenarioSlaResults.add(transactionResult);
+
+		LrJobResults results = new LrJobResults();
+		results.addScenario(scenario);
+		return results;
+	}
+}
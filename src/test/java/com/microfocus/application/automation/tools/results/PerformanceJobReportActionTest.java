@@ -0,0 +1,143 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import hudson.model.Run;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PerformanceJobReportActionTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Run<?, ?> build;
+
+	@Before
+	public void setUp() {
+		build = mock(Run.class);
+		when(build.getRootDir()).thenReturn(folder.getRoot());
+	}
+
+	@Test
+	public void testResultsAreKeptOutsideTheAction() throws Exception {
+		JobLrScenarioResult scenario = new JobLrScenarioResult("Scenario1");
+		scenario.transactionSum.put("login", 12);
+		LrJobResults results = new LrJobResults();
+		results.addScenario(scenario);
+
+		PerformanceJobReportAction action = new PerformanceJobReportAction(build, results);
+		Assert.assertTrue(new File(folder.getRoot(), PerformanceJobReportAction.RESULTS_FILE_NAME).isFile());
+		Assert.assertFalse(Run.XSTREAM2.toXML(action).contains("transactionSum"));
+
+		LrJobResults more = new LrJobResults();
+		more.addScenario(new JobLrScenarioResult("Scenario2"));
+		action.mergeResults(more);
+		Assert.assertEquals(Arrays.asList("Scenario1", "Scenario2"), action.getScenarioNames());
+
+		PerformanceJobReportAction loaded = (PerformanceJobReportAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(action));
+		loaded.onLoad(build);
+		LrJobResults reloaded = loaded.getLrResultBuildDataset();
+		Assert.assertEquals(2, reloaded.getLrScenarioResults().size());
+		Assert.assertEquals(Integer.valueOf(12), reloaded.getLrScenarioResults().get("Scenario1").transactionSum.get("login"));
+	}
+
+	@Test
+	public void testLegacyResultsAreMigratedOnLoad() throws Exception {
+		LrJobResults results = new LrJobResults();
+		results.addScenario(new JobLrScenarioResult("Legacy"));
+		PerformanceJobReportAction action = new PerformanceJobReportAction(build, results);
+		// a build.xml written before the results were moved out of the action
+		File resultsFile = new File(folder.getRoot(), PerformanceJobReportAction.RESULTS_FILE_NAME);
+		Assert.assertTrue(resultsFile.delete());
+		Field legacy = PerformanceJobReportAction.class.getDeclaredField("_resultFiles");
+		legacy.setAccessible(true);
+		legacy.set(action, results);
+		PerformanceJobReportAction loaded = (PerformanceJobReportAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(action));
+
+		loaded.onLoad(build);
+
+		Assert.assertTrue(resultsFile.isFile());
+		Assert.assertNull(legacy.get(loaded));
+		Assert.assertEquals(Arrays.asList("Legacy"), loaded.getScenarioNames());
+		Assert.assertTrue(loaded.getLrResultBuildDataset().getLrScenarioResults().containsKey("Legacy"));
+		verify(build).save();
+	}
+
+	@Test
+	public void testUnreadableResultsAreNotCached() throws Exception {
+		LrJobResults results = new LrJobResults();
+		results.addScenario(new JobLrScenarioResult("Scenario1"));
+		PerformanceJobReportAction action = new PerformanceJobReportAction(build, results);
+		PerformanceJobReportAction loaded = (PerformanceJobReportAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(action));
+		loaded.onLoad(build);
+		File resultsFile = new File(folder.getRoot(), PerformanceJobReportAction.RESULTS_FILE_NAME);
+		byte[] stored = Files.readAllBytes(resultsFile.toPath());
+		Files.write(resultsFile.toPath(), "not gzip".getBytes(StandardCharsets.UTF_8));
+
+		Assert.assertTrue(loaded.getLrResultBuildDataset().getLrScenarioResults().isEmpty());
+
+		Files.write(resultsFile.toPath(), stored);
+		Assert.assertTrue(loaded.getLrResultBuildDataset().getLrScenarioResults().containsKey("Scenario1"));
+	}
+
+	@Test
+	public void testMergeDoesNotOverwriteUnreadableResults() throws Exception {
+		PerformanceJobReportAction action = new PerformanceJobReportAction(build, new LrJobResults());
+		action = (PerformanceJobReportAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(action));
+		action.onLoad(build);
+		File resultsFile = new File(folder.getRoot(), PerformanceJobReportAction.RESULTS_FILE_NAME);
+		Files.write(resultsFile.toPath(), "not gzip".getBytes(StandardCharsets.UTF_8));
+
+		LrJobResults more = new LrJobResults();
+		more.addScenario(new JobLrScenarioResult("Scenario2"));
+		try {
+			action.mergeResults(more);
+			Assert.fail("IOException expected");
+		} catch (IOException e) {
+			Assert.assertEquals("not gzip", new String(Files.readAllBytes(resultsFile.toPath()), StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.model.ResultsPublisherModel;
+import com.microfocus.application.automation.tools.run.RunFromFileBuilder;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.XmlFile;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.TaskListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.tasks.junit.JUnitResultArchiver;
+import hudson.tasks.junit.SuiteResult;
+import hudson.tasks.junit.TestResult;
+import hudson.tasks.junit.TestResultAction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class RunResultRecorderArchiverTest {
+
+	private static final int RESULT_FILES = 3;
+
+	@Rule
+	public JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testResultFilesAreRecordedByOneArchiver() throws Exception {
+		final AtomicInteger archiverRuns = new AtomicInteger();
+		final AtomicInteger recordingSaves = new AtomicInteger();
+		FreeStyleBuild recorded = buildWithResults(new TestBuilder() {
+			@Override
+			public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+					throws InterruptedException, IOException {
+				Map<String, String> resultNames = new HashMap<String, String>();
+				resultNames.put(RunFromFileBuilder.class.getName(), "Results_1.xml");
+				for (int i = 2; i <= RESULT_FILES; i++) {
+					resultNames.put("builder" + i, "Results_" + i + ".xml");
+				}
+				BuildSaveCounter.start(build);
+				new CountingRunResultRecorder(archiverRuns)
+						.pipelinePerform(build, build.getWorkspace(), launcher, listener, resultNames);
+				recordingSaves.set(BuildSaveCounter.stop());
+				return true;
+			}
+		});
+
+		final AtomicInteger perFileSaves = new AtomicInteger();
+		FreeStyleBuild perFile = buildWithResults(new TestBuilder() {
+			@Override
+			public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+					throws InterruptedException, IOException {
+				BuildSaveCounter.start(build);
+				for (int i = 1; i <= RESULT_FILES; i++) {
+					JUnitResultArchiver archiver = new JUnitResultArchiver("Results_" + i + ".xml");
+					archiver.setKeepLongStdio(true);
+					archiver.setAllowEmptyResults(true);
+					archiver.perform(build, build.getWorkspace(), launcher, listener);
+				}
+				perFileSaves.set(BuildSaveCounter.stop());
+				return true;
+			}
+		});
+
+		// one archiver for all the files: the action is created once and writes its result once,
+		// the build itself is not saved again for every appended file
+		assertEquals(1, archiverRuns.get());
+		assertEquals(0, recordingSaves.get());
+		assertEquals(RESULT_FILES - 1, perFileSaves.get());
+		assertEquals(1, recorded.getActions(TestResultAction.class).size());
+
+		TestResultAction recordedAction = recorded.getAction(TestResultAction.class);
+		TestResultAction perFileAction = perFile.getAction(TestResultAction.class);
+		assertEquals(perFileAction.getTotalCount(), recordedAction.getTotalCount());
+		assertEquals(perFileAction.getFailCount(), recordedAction.getFailCount());
+		assertEquals(perFileAction.getSkipCount(), recordedAction.getSkipCount());
+		TestResult recordedResult = recordedAction.getResult();
+		TestResult perFileResult = perFileAction.getResult();
+		assertEquals(RESULT_FILES, recordedResult.getSuites().size());
+		assertEquals(perFileResult.getSuites().size(), recordedResult.getSuites().size());
+		for (SuiteResult suite : perFileResult.getSuites()) {
+			SuiteResult recordedSuite = recordedResult.getSuite(suite.getName());
+			assertNotNull(recordedSuite);
+			assertEquals(suite.getCases().size(), recordedSuite.getCases().size());
+		}
+	}
+
+	private FreeStyleBuild buildWithResults(final TestBuilder recorder) throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject();
+		project.getBuildersList().add(new TestBuilder() {
+			@Override
+			public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+					throws InterruptedException, IOException {
+				FilePath workspace = build.getWorkspace();
+				for (int i = 1; i <= RESULT_FILES; i++) {
+					workspace.child("Results_" + i + ".xml").write("<testsuite name=\"Suite" + i + "\" tests=\"2\">"
+							+ "<testcase classname=\"Suite" + i + "\" name=\"pass\" time=\"1\"/>"
+							+ "<testcase classname=\"Suite" + i + "\" name=\"fail\" time=\"1\"><failure message=\"x\"/></testcase>"
+							+ "</testsuite>", "UTF-8");
+				}
+				return true;
+			}
+		});
+		project.getBuildersList().add(recorder);
+		return rule.buildAndAssertSuccess(project);
+	}
+
+	private static class CountingRunResultRecorder extends RunResultRecorder {
+
+		private final transient AtomicInteger archiverRuns;
+
+		CountingRunResultRecorder(AtomicInteger archiverRuns) {
+			super(ResultsPublisherModel.dontArchiveResults.getValue());
+			this.archiverRuns = archiverRuns;
+		}
+
+		@Override
+		JUnitResultArchiver createJUnitResultArchiver(String resultsPattern) {
+			final JUnitResultArchiver archiver = super.createJUnitResultArchiver(resultsPattern);
+			return new JUnitResultArchiver(resultsPattern) {
+				{
+					setKeepLongStdio(archiver.isKeepLongStdio());
+					setAllowEmptyResults(archiver.isAllowEmptyResults());
+				}
+
+				@Override
+				@SuppressWarnings("rawtypes")
+				public void perform(Run build, FilePath workspace, Launcher launcher, TaskListener listener)
+						throws InterruptedException, IOException {
+					archiverRuns.incrementAndGet();
+					super.perform(build, workspace, launcher, listener);
+				}
+			};
+		}
+	}
+
+	@TestExtension
+	public static class BuildSaveCounter extends SaveableListener {
+
+		private static volatile Run<?, ?> build;
+		private static final AtomicInteger saves = new AtomicInteger();
+
+		static void start(Run<?, ?> run) {
+			saves.set(0);
+			build = run;
+		}
+
+		static int stop() {
+			build = null;
+			return saves.get();
+		}
+
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o == build) {
+				saves.incrementAndGet();
+			}
+		}
+	}
+}
@@ -32,14 +32,22 @@ import com.microfocus.application.automation.tools.results.projectparser.perform
 import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
 import com.microfocus.application.automation.tools.model.ResultsPublisherModel;
 import hudson.FilePath;
+import hudson.Util;
+import hudson.tasks.junit.SuiteResult;
+import hudson.tasks.junit.TestResult;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -54,6 +62,9 @@ import static org.junit.Assert.assertNotNull;
 @SuppressWarnings("squid:S2699")
 public class RunResultRecorderTest { 
 
+@Rule
+public TemporaryFolder folder = new TemporaryFolder();
+
 @Before
 public void before() throws Exception { 
 } 
@@ -374,6 +385,46 @@ try {
 }
 
 
+@Test
+public void testResultFilesAreArchivedInOnePass() throws Exception {
+    File workspace = folder.newFolder();
+    List<String> resultFiles = new ArrayList<String>();
+    for (int i = 1; i <= 3; i++) {
+        String name = "Results_" + i + ".xml";
+        Files.write(new File(workspace, name).toPath(), ("<testsuite name=\"Suite" + i + "\" tests=\"2\">"
+                + "<testcase classname=\"Suite" + i + "\" name=\"pass\" time=\"1\"/>"
+                + "<testcase classname=\"Suite" + i + "\" name=\"fail\" time=\"1\"><failure message=\"x\"/></testcase>"
+                + "</testsuite>").getBytes(StandardCharsets.UTF_8));
+        resultFiles.add(name);
+    }
+    resultFiles.add("Results_1.xml");
+
+    String pattern = RunResultRecorder.getJUnitResultsPattern(resultFiles);
+    assertEquals("Results_1.xml,Results_2.xml,Results_3.xml", pattern);
+    TestResult combined = new TestResult(0, Util.createFileSet(workspace, pattern).getDirectoryScanner(), true);
+    combined.tally();
+
+    // what one archiver run per file used to produce
+    TestResult merged = null;
+    for (String resultFile : resultFiles.subList(0, 3)) {
+        TestResult single = new TestResult(0, Util.createFileSet(workspace, resultFile).getDirectoryScanner(), true);
+        if (merged == null) {
+            merged = single;
+        } else {
+            merged.merge(single);
+        }
+    }
+    merged.tally();
+
+    assertEquals(merged.getTotalCount(), combined.getTotalCount());
+    assertEquals(merged.getFailCount(), combined.getFailCount());
+    assertEquals(merged.getDuration(), combined.getDuration(), 0);
+    assertEquals(3, combined.getSuites().size());
+    for (SuiteResult suite : merged.getSuites()) {
+        assertNotNull(combined.getSuite(suite.getName()));
+    }
+}
+
 @Test
 public void testCreatingJobDataSet()
 {
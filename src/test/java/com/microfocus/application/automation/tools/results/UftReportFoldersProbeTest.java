@@ -0,0 +1,86 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class UftReportFoldersProbeTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testProbeAllTestCasesAtOnce() throws IOException, InterruptedException {
+		File test = folder.newFolder("GuiTest1");
+		new File(test, "Report2").mkdir();
+		new File(new File(test, "Report2"), "run_results.html").createNewFile();
+		new File(test, "Report").mkdir();
+		new File(new File(test, "Report"), "parallelrun_results.html").createNewFile();
+		String report = new File(test, "Report").getPath();
+
+		List<UftReportFoldersProbe.ReportFolder> folders = UftReportFoldersProbe.probe(null, Arrays.asList(
+				new UftReportFoldersProbe.TestCase(test.getPath(), report, "1"),
+				new UftReportFoldersProbe.TestCase(test.getPath(), report, "2"),
+				new UftReportFoldersProbe.TestCase(new File(folder.getRoot(), "Missing").getPath(), report, "1")));
+
+		//no Report1 folder, falls back to the report folder from the results
+		Assert.assertTrue(folders.get(0).isTestFolderExists());
+		Assert.assertEquals(report, folders.get(0).getPath());
+		Assert.assertTrue(folders.get(0).isExists());
+		Assert.assertTrue(folders.get(0).isParallelRunnerReport());
+		Assert.assertTrue(folders.get(0).isHtmlReport());
+
+		Assert.assertEquals(report + "2", folders.get(1).getPath());
+		Assert.assertTrue(folders.get(1).isExists());
+		Assert.assertFalse(folders.get(1).isParallelRunnerReport());
+		Assert.assertTrue(folders.get(1).isHtmlReport());
+
+		Assert.assertFalse(folders.get(2).isTestFolderExists());
+		Assert.assertFalse(folders.get(2).isExists());
+	}
+
+	@Test
+	public void testIndexOfExternalReportFolder() throws IOException {
+		folder.newFolder("StRes1");
+		folder.newFolder("StRes12");
+		folder.newFolder("StResults");
+		folder.newFile("StRes20");
+
+		Assert.assertEquals(12, UftReportFoldersProbe.getIndexOfExternalReportFolder(folder.getRoot().getPath() + "\\Report"));
+		Assert.assertEquals(0, UftReportFoldersProbe.getIndexOfExternalReportFolder(folder.getRoot().getPath() + "\\Missing\\Report"));
+	}
+}
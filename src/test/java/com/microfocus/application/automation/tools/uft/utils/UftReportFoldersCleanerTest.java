@@ -0,0 +1,111 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2021 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.uft.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class UftReportFoldersCleanerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testExtractTestPathsFromMtbxContent() {
+        String mtbx = "<Mtbx>\n" +
+                "  <Test name=\"first\" path=\"C:\\Tests\\First\"/>\n" +
+                "  <test PATH=\"C:\\Tests\\Second\">\n" +
+                "    <Parameter name=\"p\" value=\"1\" type=\"string\"/>\n" +
+                "  </test>\n" +
+                "</Mtbx>";
+        Assert.assertEquals(Arrays.asList("C:\\Tests\\First", "C:\\Tests\\Second"),
+                UftToolUtils.extractTestPathsFromMtbxContent(mtbx));
+        Assert.assertTrue(UftToolUtils.extractTestPathsFromMtbxContent("<Mtbx><Test path=\"a\">").isEmpty());
+    }
+
+    @Test
+    public void testDeletesReportFoldersOfAllBuildTests() throws Exception {
+        File root = folder.newFolder("tests");
+        File first = createTest(root, "First", "Report", "Report1");
+        File second = createTest(root, "Second", "Report2");
+        File third = createTest(folder.getRoot(), "Third", "Report");
+        File fourth = createTest(folder.getRoot(), "Fourth", "Report3");
+
+        // a test folder and a list of single tests
+        UftReportFoldersCleaner.Result result = UftReportFoldersCleaner.clean(null,
+                Arrays.asList(root.getPath(), third.getPath() + "\n" + fourth.getPath()));
+
+        Assert.assertTrue(result.getErrors().isEmpty());
+        Assert.assertEquals(5, result.getDeletedFolders().size());
+        for (File test : Arrays.asList(first, second, third, fourth)) {
+            Assert.assertTrue(new File(test, "Action1").isDirectory());
+            List<String> left = Arrays.asList(test.list());
+            Collections.sort(left);
+            Assert.assertEquals(Collections.singletonList("Action1"), left);
+        }
+    }
+
+    @Test
+    public void testNestedParallelCallsRunInTheWalkThread() {
+        List<List<Boolean>> results = UftToolUtils.forEachInParallel(Arrays.asList(1, 2, 3, 4), outer -> {
+            final Thread walkThread = Thread.currentThread();
+            return UftToolUtils.forEachInParallel(Arrays.asList(1, 2, 3, 4), inner -> Thread.currentThread() == walkThread);
+        });
+        Assert.assertEquals(4, results.size());
+        for (List<Boolean> inner : results) {
+            Assert.assertEquals(Arrays.asList(true, true, true, true), inner);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelFailureIsThrown() {
+        UftToolUtils.forEachInParallel(Arrays.asList("a", "b", "c"), item -> {
+            if ("b".equals(item)) {
+                throw new IllegalArgumentException(item);
+            }
+            return item;
+        });
+    }
+
+    private static File createTest(File parent, String name, String... reports) {
+        File test = new File(parent, name);
+        Assert.assertTrue(new File(test, "Action1").mkdirs());
+        for (String report : reports) {
+            Assert.assertTrue(new File(test, report + "/Resources").mkdirs());
+        }
+        return test;
+    }
+}